@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.DomainException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Error logging for GlobalExceptionHandler. Every handled exception increments the
+ * filmorate.errors counter tagged with status and exception class; log lines are limited to
+ * a burst per interval for each pair, and the next line that gets through reports how many
+ * were dropped. Client errors and stackless {@link DomainException}s (capacity, read-only
+ * replica) are logged at WARN, other server errors at ERROR with the stack trace.
+ */
+@Slf4j
+@Component
+class ErrorLog {
+
+    private final MeterRegistry registry;
+    private final long intervalNanos;
+    private final int burst;
+    private final Map<Class<?>, Map<HttpStatus, Bucket>> buckets = new ConcurrentHashMap<>();
+
+    ErrorLog(MeterRegistry registry,
+             @Value("${filmorate.errors.log-interval:PT10S}") Duration interval,
+             @Value("${filmorate.errors.log-burst:10}") int burst) {
+        this.registry = registry;
+        this.intervalNanos = interval.toNanos();
+        this.burst = burst;
+    }
+
+    void report(HttpStatus status, Throwable e) {
+        Bucket bucket = buckets.computeIfAbsent(e.getClass(), type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, s -> new Bucket(Counter.builder("filmorate.errors")
+                        .description("Exceptions turned into error responses")
+                        .tag("status", String.valueOf(s.value()))
+                        .tag("exception", e.getClass().getSimpleName())
+                        .register(registry)));
+        bucket.counter.increment();
+
+        boolean serverError = status.is5xxServerError() && !(e instanceof DomainException);
+        if (serverError ? !log.isErrorEnabled() : !log.isWarnEnabled()) {
+            return;
+        }
+        long dropped = bucket.acquire(System.nanoTime());
+        if (dropped < 0) {
+            return;
+        }
+        String suffix = dropped == 0 ? "" : " (пропущено ещё " + dropped + " таких же)";
+        if (!serverError) {
+            log.warn("{} {}: {}{}", status.value(), e.getClass().getSimpleName(), e.getMessage(), suffix);
+        } else {
+            log.error("{} {}: {}{}", status.value(), e.getClass().getSimpleName(), e.getMessage(), suffix, e);
+        }
+    }
+
+    private final class Bucket {
+
+        private final Counter counter;
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicInteger logged = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private Bucket(Counter counter) {
+            this.counter = counter;
+        }
+
+        /**
+         * Returns the number of lines dropped since the last one logged, or -1 when this
+         * line must be dropped too.
+         */
+        long acquire(long now) {
+            long start = windowStart.get();
+            if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+                logged.set(0);
+            }
+            if (logged.incrementAndGet() > burst) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+            return dropped.getAndSet(0);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.yandex.practicum.filmorate.service.WarmupService;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class FirstRequestTimingFilter extends OncePerRequestFilter {
+
+    private final WarmupService warmupService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return warmupService.isFirstRequestSeen()
+                || request.getRequestURI().startsWith("/actuator")
+                || request.getRequestURI().startsWith("/admin");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            warmupService.recordFirstRequest(request.getMethod() + " " + request.getRequestURI(),
+                    System.nanoTime() - start);
+        }
+    }
+}
@@ -1,33 +1,86 @@
 package ru.yandex.practicum.filmorate;
 
-import lombok.extern.slf4j.Slf4j;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.yandex.practicum.filmorate.exception.CapacityExceededException;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.PreconditionFailedException;
+import ru.yandex.practicum.filmorate.exception.ReadOnlyReplicaException;
 import ru.yandex.practicum.filmorate.exception.ErrorResponse;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.jfr.HandledExceptionEvent;
 
-@Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final ErrorLog errorLog;
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFound(final NotFoundException e) {
-        log.error("Not found: {}", e.getMessage());
+        HandledExceptionEvent.emit(e, HttpStatus.NOT_FOUND.value());
+        errorLog.report(HttpStatus.NOT_FOUND, e);
         return new ErrorResponse(
                 "Объект не найден.",
                 e.getMessage()
         );
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflict(final ConflictException e) {
+        HandledExceptionEvent.emit(e, HttpStatus.CONFLICT.value());
+        errorLog.report(HttpStatus.CONFLICT, e);
+        return new ErrorResponse(
+                "Конфликт данных.",
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponse handlePreconditionFailed(final PreconditionFailedException e) {
+        HandledExceptionEvent.emit(e, HttpStatus.PRECONDITION_FAILED.value());
+        errorLog.report(HttpStatus.PRECONDITION_FAILED, e);
+        return new ErrorResponse(
+                "Версия устарела.",
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleCapacityExceeded(final CapacityExceededException e) {
+        HandledExceptionEvent.emit(e, HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorLog.report(HttpStatus.SERVICE_UNAVAILABLE, e);
+        return new ErrorResponse(
+                "Превышен бюджет памяти.",
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleReadOnlyReplica(final ReadOnlyReplicaException e) {
+        HandledExceptionEvent.emit(e, HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorLog.report(HttpStatus.SERVICE_UNAVAILABLE, e);
+        return new ErrorResponse(
+                "Реплика доступна только для чтения.",
+                e.getMessage()
+        );
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidation(final ValidationException e) {
-        log.error("Validation error: {}", e.getMessage());
+        HandledExceptionEvent.emit(e, HttpStatus.BAD_REQUEST.value());
+        errorLog.report(HttpStatus.BAD_REQUEST, e);
         return new ErrorResponse(
                 "Ошибка валидации.",
                 e.getMessage()
@@ -37,7 +90,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handlemethodValidation(final MethodArgumentNotValidException e) {
-        log.error("Validation error: {}", e.getMessage());
+        HandledExceptionEvent.emit(e, HttpStatus.BAD_REQUEST.value());
+        errorLog.report(HttpStatus.BAD_REQUEST, e);
         return new ErrorResponse(
                 "Ошибка валидации.",
                 e.getMessage()
@@ -47,7 +101,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleOtherExceptions(final Exception e) {
-        log.error("Internal error: {}", e.getMessage(), e);
+        HandledExceptionEvent.emit(e, HttpStatus.INTERNAL_SERVER_ERROR.value());
+        errorLog.report(HttpStatus.INTERNAL_SERVER_ERROR, e);
         return new ErrorResponse(
                 "Внутренняя ошибка сервера.",
                 e.getMessage()
@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.FriendshipStats;
+import ru.yandex.practicum.filmorate.service.FriendshipAnalyticsService;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/analytics/friends")
+public class AnalyticsController {
+
+    private final FriendshipAnalyticsService friendshipAnalyticsService;
+
+    @GetMapping
+    public FriendshipStats getStats() {
+        return friendshipAnalyticsService.getStats();
+    }
+
+    @PostMapping("/recompute")
+    public FriendshipStats recompute() {
+        return friendshipAnalyticsService.recompute();
+    }
+
+    @GetMapping("/{id}/connected/{otherId}")
+    public Map<String, Boolean> connected(@PathVariable Long id, @PathVariable Long otherId) {
+        return Map.of(
+                "connected", friendshipAnalyticsService.connected(id, otherId),
+                "stale", friendshipAnalyticsService.isStale()
+        );
+    }
+}
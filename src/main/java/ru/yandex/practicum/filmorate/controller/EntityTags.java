@@ -0,0 +1,50 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import ru.yandex.practicum.filmorate.exception.PreconditionFailedException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Entity versions travel as strong ETags ("3"). If-Match may list several tags and matches
+ * any of them by strong comparison, so weak tags never match; "*" or a missing header means
+ * an unconditional update.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Versions the header accepts, or null for an unconditional update.
+     */
+    static Set<Long> parseIfMatch(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String value : header.split(",")) {
+            String tag = value.trim();
+            if (tag.startsWith("W/")) {
+                continue;
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            try {
+                versions.add(Long.parseLong(tag));
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Некорректный заголовок If-Match: " + header);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("Слабые ETag " + header.trim() + " не подходят для If-Match");
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.ExportReport;
+import ru.yandex.practicum.filmorate.service.ExportService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @PostMapping
+    public ExportReport export() {
+        return exportService.export();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.FeedPage;
+import ru.yandex.practicum.filmorate.service.FeedService;
+
+@RestController
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final FeedService feedService;
+
+    @GetMapping("/users/{id}/feed")
+    public FeedPage getFeed(@PathVariable Long id,
+                            @RequestParam(required = false) Long cursor,
+                            @RequestParam(defaultValue = "20") int limit) {
+        return feedService.getFeed(id, cursor, limit);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.FilmContext;
+import ru.yandex.practicum.filmorate.model.FilmContextQuery;
+import ru.yandex.practicum.filmorate.service.FilmContextService;
+
+@RestController
+@RequiredArgsConstructor
+public class FilmContextController {
+
+    private final FilmContextService filmContextService;
+
+    @GetMapping("/films/context")
+    public FilmContext resolve(@Valid FilmContextQuery query) {
+        return filmContextService.resolve(query);
+    }
+}
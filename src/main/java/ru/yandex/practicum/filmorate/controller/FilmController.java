@@ -2,6 +2,8 @@ package ru.yandex.practicum.filmorate.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,12 +11,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmCatalogStats;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
 import ru.yandex.practicum.filmorate.service.FilmService;
 
+import java.time.Duration;
 import java.util.Collection;
 
 @Validated
@@ -32,9 +39,10 @@ public class FilmController {
     }
 
     @PutMapping
-    public Film update(@Valid @RequestBody Film newFilm) {
-        Film result = filmService.update(newFilm);
-        return result;
+    public ResponseEntity<Film> update(@Valid @RequestBody Film newFilm,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Film result = filmService.update(newFilm, EntityTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(result.getVersion())).body(result);
     }
 
     @GetMapping
@@ -55,10 +63,33 @@ public class FilmController {
         return result;
     }
 
+    @GetMapping("/stats")
+    public FilmCatalogStats getStats() {
+        return filmService.getStats();
+    }
+
     @GetMapping("/popular")
     public Collection<Film> getPopularFilms(@RequestParam(defaultValue = "10") int count) {
         Collection<Film> result = filmService.getPopularFilms(count);
         return result;
     }
 
+    @GetMapping("/search")
+    public Collection<Film> search(FilmFilter filter, @RequestParam(defaultValue = "100") int limit) {
+        Collection<Film> result = filmService.search(filter, limit);
+        return result;
+    }
+
+    @GetMapping("/search/stats")
+    public FilmSearchStats searchStats(FilmFilter filter) {
+        return filmService.aggregate(filter);
+    }
+
+    @GetMapping("/trending")
+    public Collection<Film> getTrendingFilms(@RequestParam(required = false) Duration window,
+                                             @RequestParam(defaultValue = "10") int count) {
+        Collection<Film> result = filmService.getTrendingFilms(window, count);
+        return result;
+    }
+
 }
\ No newline at end of file
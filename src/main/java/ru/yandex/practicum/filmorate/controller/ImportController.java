@@ -0,0 +1,61 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.service.ImportService;
+
+import java.io.InputStream;
+import java.util.Collection;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/import")
+public class ImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+    private static final MediaType TEXT_CSV_TYPE = MediaType.valueOf(TEXT_CSV);
+
+    private final ImportService importService;
+
+    @PostMapping(value = "/films", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV})
+    public ResponseEntity<ImportReport> importFilms(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                    InputStream body) {
+        return respond(importService.importFilms(body, formatOf(contentType)));
+    }
+
+    @PostMapping(value = "/users", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV})
+    public ResponseEntity<ImportReport> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                    InputStream body) {
+        return respond(importService.importUsers(body, formatOf(contentType)));
+    }
+
+    @GetMapping
+    public Collection<ImportReport> getActiveImports() {
+        return importService.getActiveImports();
+    }
+
+    /**
+     * A failed import still reports how many rows it wrote before the malformed input.
+     */
+    private ResponseEntity<ImportReport> respond(ImportReport report) {
+        HttpStatus status = report.getStatus() == ImportReport.ImportStatus.FAILED
+                ? HttpStatus.BAD_REQUEST
+                : HttpStatus.OK;
+        return ResponseEntity.status(status).body(report);
+    }
+
+    private String formatOf(String contentType) {
+        return TEXT_CSV_TYPE.equalsTypeAndSubtype(MediaType.parseMediaType(contentType))
+                ? ImportService.FORMAT_CSV
+                : ImportService.FORMAT_JSON;
+    }
+}
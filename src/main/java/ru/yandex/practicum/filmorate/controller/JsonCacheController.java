@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
+import ru.yandex.practicum.filmorate.model.JsonCacheStats;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/json-cache")
+public class JsonCacheController {
+
+    private final JsonFragmentCache jsonFragmentCache;
+
+    @GetMapping
+    public JsonCacheStats getStats() {
+        return jsonFragmentCache.getStats();
+    }
+}
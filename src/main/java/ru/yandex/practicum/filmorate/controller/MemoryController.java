@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.MemoryReport;
+import ru.yandex.practicum.filmorate.service.MemoryBudgetService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/memory")
+public class MemoryController {
+
+    private final MemoryBudgetService memoryBudgetService;
+
+    @GetMapping
+    public MemoryReport getReport() {
+        return memoryBudgetService.getReport();
+    }
+}
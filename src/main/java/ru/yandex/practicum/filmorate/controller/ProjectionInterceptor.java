@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.yandex.practicum.filmorate.json.Projection;
+
+/**
+ * Parses the fields and view query parameters before a film or user handler runs, so a bad
+ * projection is rejected with 400 before the request changes anything. The parsed filters are
+ * left in a request attribute for {@link ProjectionAdvice}.
+ */
+class ProjectionInterceptor implements HandlerInterceptor {
+
+    static final String FIELDS = "fields";
+    static final String VIEW = "view";
+    static final String FILTERS_ATTRIBUTE = ProjectionInterceptor.class.getName() + ".filters";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        Projection projection = projectionOf(method.getBeanType());
+        if (projection != null) {
+            FilterProvider filters = projection.filters(request.getParameter(FIELDS), request.getParameter(VIEW));
+            if (filters != null) {
+                request.setAttribute(FILTERS_ATTRIBUTE, filters);
+            }
+        }
+        return true;
+    }
+
+    private static Projection projectionOf(Class<?> controller) {
+        if (controller == FilmController.class) {
+            return Projection.FILM;
+        }
+        return controller == UserController.class ? Projection.USER : null;
+    }
+}
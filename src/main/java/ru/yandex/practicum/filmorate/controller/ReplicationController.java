@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.ReplicationStatus;
+import ru.yandex.practicum.filmorate.replication.FollowerClient;
+import ru.yandex.practicum.filmorate.replication.ReplicationLog;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/replication")
+public class ReplicationController {
+
+    private final ReplicationLog replicationLog;
+    private final ObjectProvider<FollowerClient> followerClient;
+
+    @GetMapping
+    public ReplicationStatus getStatus() {
+        FollowerClient follower = followerClient.getIfAvailable();
+        return follower != null ? follower.getStatus() : replicationLog.getStatus();
+    }
+}
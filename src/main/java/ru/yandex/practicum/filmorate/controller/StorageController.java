@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.FilmTierStats;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.TieredFilmStorage;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/storage")
+public class StorageController {
+
+    private static final NotFoundException TIERS_DISABLED =
+            new NotFoundException("Многоуровневое хранилище фильмов не включено.");
+
+    private final FilmStorage filmStorage;
+
+    @GetMapping("/films")
+    public FilmTierStats getFilmTierStats() {
+        if (filmStorage instanceof TieredFilmStorage tiered) {
+            return tiered.getTierStats();
+        }
+        throw TIERS_DISABLED;
+    }
+}
@@ -3,6 +3,8 @@ package ru.yandex.practicum.filmorate.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,9 +12,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.FriendPath;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FriendPathService;
 import ru.yandex.practicum.filmorate.service.UserService;
 
 import java.util.Collection;
@@ -26,6 +32,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final FriendPathService friendPathService;
 
     @PostMapping
     public User create(@Valid @RequestBody User user) {
@@ -33,8 +40,10 @@ public class UserController {
     }
 
     @PutMapping
-    public User update(@Valid @RequestBody User user) {
-        return userService.update(user);
+    public ResponseEntity<User> update(@Valid @RequestBody User user,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        User result = userService.update(user, EntityTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(result.getVersion())).body(result);
     }
 
     @GetMapping
@@ -42,6 +51,12 @@ public class UserController {
         return userService.findAll();
     }
 
+    @GetMapping("/search")
+    public List<User> search(@RequestParam String login,
+                             @RequestParam(defaultValue = "10") int limit) {
+        return userService.searchByLogin(login, limit);
+    }
+
     @GetMapping("/{id}")
     public User findById(@PathVariable Long id) {
         return userService.findById(id);
@@ -66,4 +81,10 @@ public class UserController {
     public List<User> getCommonFriends(@PathVariable Long id, @PathVariable Long otherId) {
         return userService.getCommonFriends(id, otherId);
     }
+
+    @GetMapping("/{id}/path/{otherId}")
+    public FriendPath findPath(@PathVariable Long id, @PathVariable Long otherId,
+                               @RequestParam(required = false) Integer maxDepth) {
+        return friendPathService.findPath(id, otherId, maxDepth);
+    }
 }
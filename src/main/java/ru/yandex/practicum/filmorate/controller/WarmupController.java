@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.WarmupReport;
+import ru.yandex.practicum.filmorate.service.WarmupService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/warmup")
+public class WarmupController {
+
+    private final WarmupService warmupService;
+
+    @GetMapping
+    public WarmupReport getReport() {
+        return warmupService.getReport();
+    }
+}
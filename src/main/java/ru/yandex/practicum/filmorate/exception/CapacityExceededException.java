@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exception;
+
+public class CapacityExceededException extends DomainException {
+    public CapacityExceededException(String message) {
+        super(message);
+    }
+}
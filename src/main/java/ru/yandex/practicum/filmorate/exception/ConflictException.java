@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exception;
+
+public class ConflictException extends DomainException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
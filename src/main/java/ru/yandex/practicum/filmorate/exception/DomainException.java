@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.exception;
+
+/**
+ * Base of the exceptions that GlobalExceptionHandler maps to client-facing statuses. They are
+ * control flow rather than bugs, so they skip stack trace capture, which dominates the cost of
+ * a 404 or 400 response. Instances with a constant message can be preallocated and shared.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,7 +1,41 @@
 package ru.yandex.practicum.filmorate.exception;
 
-public class NotFoundException extends RuntimeException {
+public class NotFoundException extends DomainException {
+
+    private static final String FILM = "Фильм с id = ";
+    private static final String USER = "Пользователь с id = ";
+    private static final String SUFFIX = " не найден.";
+
+    private final String prefix;
+    private final Long id;
+    private String message;
+
     public NotFoundException(String message) {
         super(message);
+        this.prefix = null;
+        this.id = null;
+        this.message = message;
+    }
+
+    private NotFoundException(String prefix, Long id) {
+        super(null);
+        this.prefix = prefix;
+        this.id = id;
+    }
+
+    public static NotFoundException film(Long id) {
+        return new NotFoundException(FILM, id);
+    }
+
+    public static NotFoundException user(Long id) {
+        return new NotFoundException(USER, id);
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            message = prefix + id + SUFFIX;
+        }
+        return message;
     }
-}
\ No newline at end of file
+}
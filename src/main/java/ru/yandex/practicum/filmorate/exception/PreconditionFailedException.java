@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exception;
+
+public class PreconditionFailedException extends DomainException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exception;
+
+public class ReadOnlyReplicaException extends DomainException {
+    public ReadOnlyReplicaException(String message) {
+        super(message);
+    }
+}
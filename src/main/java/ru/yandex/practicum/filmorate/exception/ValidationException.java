@@ -1,6 +1,6 @@
 package ru.yandex.practicum.filmorate.exception;
 
-public class ValidationException extends RuntimeException {
+public class ValidationException extends DomainException {
     public ValidationException(String message) {
         super(message);
     }
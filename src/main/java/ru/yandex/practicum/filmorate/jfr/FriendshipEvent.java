@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("filmorate.Friendship")
+@Label("Friendship Change")
+@Description("Two-sided friend add or remove, including time spent waiting for the user locks")
+@Category({"Filmorate", "Service"})
+@StackTrace(false)
+public class FriendshipEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Friend Id")
+    long friendId;
+
+    public void finish(String operation, long userId, long friendId) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.userId = userId;
+            this.friendId = friendId;
+            commit();
+        }
+    }
+}
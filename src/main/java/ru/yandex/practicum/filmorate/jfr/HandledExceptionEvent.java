@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("filmorate.HandledException")
+@Label("Handled Exception")
+@Description("Exception turned into an error response by GlobalExceptionHandler")
+@Category({"Filmorate", "Web"})
+public class HandledExceptionEvent extends Event {
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    @Label("Message")
+    String message;
+
+    @Label("Status")
+    int status;
+
+    public static void emit(Throwable e, int status) {
+        HandledExceptionEvent event = new HandledExceptionEvent();
+        if (event.shouldCommit()) {
+            event.exceptionClass = e.getClass();
+            event.message = e.getMessage();
+            event.status = status;
+            event.commit();
+        }
+    }
+}
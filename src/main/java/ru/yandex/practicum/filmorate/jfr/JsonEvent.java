@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("filmorate.Json")
+@Label("JSON Conversion")
+@Description("Request body deserialization or response body serialization")
+@Category({"Filmorate", "Web"})
+@StackTrace(false)
+public class JsonEvent extends Event {
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Type")
+    String type;
+
+    public void finish(String direction, String type) {
+        end();
+        if (shouldCommit()) {
+            this.direction = direction;
+            this.type = type;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("filmorate.Like")
+@Label("Like")
+@Description("Like or unlike of a film, including coalescer hand-off")
+@Category({"Filmorate", "Service"})
+@StackTrace(false)
+public class LikeEvent extends Event {
+
+    @Label("Film Id")
+    long filmId;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Like")
+    boolean like;
+
+    @Label("Coalesced")
+    boolean coalesced;
+
+    @Label("Changed")
+    @Description("Whether the like set actually changed (always false when coalesced)")
+    boolean changed;
+
+    public void finish(long filmId, long userId, boolean like, boolean coalesced, boolean changed) {
+        end();
+        if (shouldCommit()) {
+            this.filmId = filmId;
+            this.userId = userId;
+            this.like = like;
+            this.coalesced = coalesced;
+            this.changed = changed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("filmorate.PopularFilms")
+@Label("Popular Films")
+@Description("Popularity ranking over the film catalog")
+@Category({"Filmorate", "Service"})
+@StackTrace(false)
+public class PopularFilmsEvent extends Event {
+
+    @Label("Requested")
+    int requested;
+
+    @Label("Films Scanned")
+    int filmsScanned;
+
+    @Label("Returned")
+    int returned;
+
+    public void finish(int requested, int filmsScanned, int returned) {
+        end();
+        if (shouldCommit()) {
+            this.requested = requested;
+            this.filmsScanned = filmsScanned;
+            this.returned = returned;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+@Category({"Filmorate", "Storage"})
+@StackTrace(false)
+public abstract class StorageEvent extends Event {
+
+    @Label("Storage")
+    String storage;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Records")
+    int records;
+
+    public void finish(String storage, String operation, int records) {
+        end();
+        if (shouldCommit()) {
+            this.storage = storage;
+            this.operation = operation;
+            this.records = records;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("filmorate.StorageRead")
+@Label("Storage Read")
+@Description("Lookup or scan in a film or user storage")
+public class StorageReadEvent extends StorageEvent {
+}
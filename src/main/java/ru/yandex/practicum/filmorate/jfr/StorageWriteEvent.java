@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("filmorate.StorageWrite")
+@Label("Storage Write")
+@Description("Insert or update in a film or user storage")
+public class StorageWriteEvent extends StorageEvent {
+}
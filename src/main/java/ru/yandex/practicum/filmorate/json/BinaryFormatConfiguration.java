@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.zalando.logbook.RequestFilter;
+import org.zalando.logbook.ResponseFilter;
+import org.zalando.logbook.core.BodyReplacers;
+import org.zalando.logbook.core.Conditions;
+import org.zalando.logbook.core.RequestFilters;
+import org.zalando.logbook.core.ResponseFilters;
+
+/**
+ * Smile and CBOR bodies for service-to-service clients, selected by Content-Type and Accept.
+ * The mappers come from Spring Boot's builder so they share the JSON mapper's settings and
+ * modules; JSON keeps its position ahead of them and stays the default for any Accept.
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+
+    static final String SMILE = "application/x-jackson-smile";
+    static final String CBOR = "application/cbor";
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public RequestFilter binaryBodyRequestFilter() {
+        return RequestFilter.merge(RequestFilters.defaultValue(),
+                RequestFilters.replaceBody(BodyReplacers.replaceBody(Conditions.contentType(SMILE, CBOR),
+                        "<binary>")));
+    }
+
+    @Bean
+    public ResponseFilter binaryBodyResponseFilter() {
+        return ResponseFilter.merge(ResponseFilters.defaultValue(),
+                ResponseFilters.replaceBody(BodyReplacers.replaceBody(Conditions.contentType(SMILE, CBOR),
+                        "<binary>")));
+    }
+}
@@ -0,0 +1,90 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Wraps the bean serializer of a cached entity type. A cache hit copies the stored bytes into
+ * the output; a miss encodes the entity once with the bean serializer and keeps the result.
+ * Anything other than a compact, unprojected UTF-8 JSON response bypasses the cache.
+ */
+class CachingEntitySerializer<T> extends StdSerializer<T> implements ResolvableSerializer, ContextualSerializer {
+
+    private static final JsonFactory FRAGMENT_FACTORY = new JsonFactory();
+
+    private final JsonSerializer<Object> delegate;
+    private final JsonFragmentCache.Region region;
+    private final Function<T, Long> id;
+    private final ToLongFunction<T> version;
+
+    CachingEntitySerializer(Class<T> type, JsonSerializer<Object> delegate, JsonFragmentCache.Region region,
+                            Function<T, Long> id, ToLongFunction<T> version) {
+        super(type);
+        this.delegate = delegate;
+        this.region = region;
+        this.id = id;
+        this.version = version;
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Long entityId = id.apply(value);
+        if (entityId == null || !cacheable(gen, provider)) {
+            delegate.serialize(value, gen, provider);
+            return;
+        }
+        long entityVersion = version.applyAsLong(value);
+        JsonFragment fragment = region.get(entityId, entityVersion);
+        if (fragment == null) {
+            long stamp = region.stamp(entityId);
+            ByteArrayBuilder buffer = new ByteArrayBuilder(512);
+            try (JsonGenerator fragmentGenerator = FRAGMENT_FACTORY.createGenerator(buffer, JsonEncoding.UTF8)) {
+                delegate.serialize(value, fragmentGenerator, provider);
+            }
+            fragment = new JsonFragment(buffer.toByteArray());
+            region.put(entityId, entityVersion, stamp, fragment);
+        }
+        gen.writeRawValue(fragment);
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (delegate instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if (!(delegate instanceof ContextualSerializer contextual)) {
+            return this;
+        }
+        JsonSerializer<Object> contextualDelegate =
+                (JsonSerializer<Object>) contextual.createContextual(provider, property);
+        return contextualDelegate == delegate ? this
+                : new CachingEntitySerializer<>(handledType(), contextualDelegate, region, id, version);
+    }
+
+    private boolean cacheable(JsonGenerator gen, SerializerProvider provider) {
+        return Boolean.TRUE.equals(provider.getAttribute(JsonFragmentCache.ATTRIBUTE))
+                && provider.getFilterProvider() == null
+                && gen instanceof UTF8JsonGenerator
+                && gen.getPrettyPrinter() == null;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.jfr.JsonEvent;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Default JSON converter: response bodies are written with {@link JsonFragmentCache} enabled,
+ * and body conversion in both directions is reported as JFR events. Replaced by the timed
+ * subclass when filmorate.timing.enabled is set.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.timing.enabled", havingValue = "false", matchIfMissing = true)
+public class CachingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public CachingJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException {
+        JsonEvent event = new JsonEvent();
+        event.begin();
+        try {
+            return super.read(type, contextClass, inputMessage);
+        } finally {
+            event.finish("read", type.getTypeName());
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        JsonEvent event = new JsonEvent();
+        event.begin();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            event.finish("write", type != null ? type.getTypeName() : object.getClass().getName());
+        }
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable JavaType javaType,
+                                           @Nullable MediaType contentType) {
+        return writer.withAttribute(JsonFragmentCache.ATTRIBUTE, Boolean.TRUE);
+    }
+}
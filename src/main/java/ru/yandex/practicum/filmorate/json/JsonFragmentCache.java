@@ -0,0 +1,133 @@
+package ru.yandex.practicum.filmorate.json;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.model.JsonCacheStats;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Encoded JSON of films and users, keyed by id and entity version. Like and friendship changes
+ * do not bump the version, so the code mutating those sets invalidates the entry explicitly.
+ * Each invalidation advances a per-id stamp; a fragment encoded before the invalidation carries
+ * the older stamp and is dropped instead of being stored over it.
+ */
+@Slf4j
+@Component
+public class JsonFragmentCache {
+
+    /**
+     * ObjectWriter attribute that enables the cache. Only HTTP responses set it, so other
+     * serializations (warm-up scratch data, replication payloads) never reach the cache.
+     */
+    public static final String ATTRIBUTE = "filmorate.json-cache";
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final Region films = new Region();
+    private final Region users = new Region();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public JsonFragmentCache(@Value("${filmorate.json-cache.enabled:true}") boolean enabled,
+                             @Value("${filmorate.json-cache.max-bytes:64MB}") DataSize maxBytes) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes.toBytes();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void invalidateFilm(long filmId) {
+        films.invalidate(filmId);
+    }
+
+    public void invalidateUser(long userId) {
+        users.invalidate(userId);
+    }
+
+    public JsonCacheStats getStats() {
+        JsonCacheStats stats = new JsonCacheStats();
+        stats.setEnabled(enabled);
+        stats.setFilms(films.fragments());
+        stats.setUsers(users.fragments());
+        stats.setBytes(bytes.sum());
+        stats.setMaxBytes(maxBytes);
+        stats.setHits(hits.sum());
+        stats.setMisses(misses.sum());
+        stats.setRejected(rejected.sum());
+        return stats;
+    }
+
+    Region films() {
+        return films;
+    }
+
+    Region users() {
+        return users;
+    }
+
+    final class Region {
+
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+        JsonFragment get(long id, long version) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.fragment != null && entry.version == version) {
+                hits.increment();
+                return entry.fragment;
+            }
+            misses.increment();
+            return null;
+        }
+
+        long stamp(long id) {
+            Entry entry = entries.get(id);
+            return entry == null ? 0 : entry.stamp;
+        }
+
+        void put(long id, long version, long stamp, JsonFragment fragment) {
+            if (bytes.sum() + fragment.length() > maxBytes) {
+                rejected.increment();
+                return;
+            }
+            entries.compute(id, (key, current) -> {
+                long currentStamp = current == null ? 0 : current.stamp;
+                if (currentStamp != stamp) {
+                    return current;
+                }
+                if (current != null && current.fragment != null) {
+                    bytes.add(-current.fragment.length());
+                }
+                bytes.add(fragment.length());
+                return new Entry(version, stamp, fragment);
+            });
+        }
+
+        void invalidate(long id) {
+            entries.compute(id, (key, current) -> {
+                if (current == null) {
+                    return new Entry(0, 1, null);
+                }
+                if (current.fragment != null) {
+                    bytes.add(-current.fragment.length());
+                }
+                return new Entry(0, current.stamp + 1, null);
+            });
+        }
+
+        private long fragments() {
+            return entries.values().stream().filter(entry -> entry.fragment != null).count();
+        }
+    }
+
+    private record Entry(long version, long stamp, JsonFragment fragment) {
+    }
+}
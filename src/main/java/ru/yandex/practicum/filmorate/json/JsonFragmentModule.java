@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+/**
+ * Registered with the application ObjectMapper by Spring Boot; routes Film and User through
+ * {@link JsonFragmentCache}.
+ */
+@Component
+public class JsonFragmentModule extends SimpleModule {
+
+    public JsonFragmentModule(JsonFragmentCache cache) {
+        super("filmorate-json-fragments");
+        if (!cache.isEnabled()) {
+            return;
+        }
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription description,
+                                                      JsonSerializer<?> serializer) {
+                Class<?> type = description.getBeanClass();
+                if (type == Film.class) {
+                    return new CachingEntitySerializer<>(Film.class, (JsonSerializer<Object>) serializer,
+                            cache.films(), Film::getId, Film::getVersion);
+                }
+                if (type == User.class) {
+                    return new CachingEntitySerializer<>(User.class, (JsonSerializer<Object>) serializer,
+                            cache.users(), User::getId, User::getVersion);
+                }
+                return serializer;
+            }
+        });
+    }
+}
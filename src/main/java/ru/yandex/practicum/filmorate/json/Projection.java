@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets for Film and User responses: fields=id,name,likeCount or view=summary.
+ * A projection reaches the serializers as a Jackson FilterProvider, so entities are written
+ * straight from storage without copies. The count fields exist only in projections.
+ */
+public enum Projection {
+
+    FILM(Film.class, "likes", "likeCount",
+            List.of("id", "name", "description", "releaseDate", "duration", "version", "likes", "likeCount"),
+            List.of("id", "name", "releaseDate", "duration", "likeCount")),
+    USER(User.class, "friends", "friendCount",
+            List.of("id", "email", "login", "name", "birthday", "version", "friends", "friendCount"),
+            List.of("id", "login", "name", "friendCount"));
+
+    public static final String VIEW_FULL = "full";
+    public static final String VIEW_SUMMARY = "summary";
+
+    private final Class<?> type;
+    private final String collection;
+    private final String count;
+    private final List<String> fields;
+    private final Set<String> summary;
+
+    Projection(Class<?> type, String collection, String count, List<String> fields, List<String> summary) {
+        this.type = type;
+        this.collection = collection;
+        this.count = count;
+        this.fields = fields;
+        this.summary = Set.copyOf(summary);
+    }
+
+    /**
+     * Returns the filters for a request, or null when neither parameter is set and the
+     * response keeps the full default representation.
+     */
+    public FilterProvider filters(String fields, String view) {
+        if (fields != null && view != null) {
+            throw new ValidationException("Параметры fields и view нельзя указывать одновременно");
+        }
+        Set<String> selected;
+        if (fields != null) {
+            selected = parseFields(fields);
+        } else if (view == null || view.equals(VIEW_FULL)) {
+            return null;
+        } else if (view.equals(VIEW_SUMMARY)) {
+            selected = summary;
+        } else {
+            throw new ValidationException("Неизвестное представление view = " + view
+                    + ", допустимы " + VIEW_FULL + " и " + VIEW_SUMMARY);
+        }
+        return new SimpleFilterProvider()
+                .setFailOnUnknownId(false)
+                .addFilter(filterId(), SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+    }
+
+    String filterId() {
+        return "filmorate.projection." + name().toLowerCase();
+    }
+
+    static Projection of(Class<?> type) {
+        for (Projection projection : values()) {
+            if (projection.type.isAssignableFrom(type)) {
+                return projection;
+            }
+        }
+        return null;
+    }
+
+    String getCollection() {
+        return collection;
+    }
+
+    String getCount() {
+        return count;
+    }
+
+    private Set<String> parseFields(String value) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : value.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!fields.contains(name)) {
+                throw new ValidationException("Неизвестное поле " + name + ", допустимы " + fields);
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new ValidationException("Параметр fields не содержит ни одного поля");
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,129 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Registered with the application ObjectMapper by Spring Boot; makes every Film and User
+ * property answer to the {@link Projection} filter when one is set on the writer and adds
+ * the count properties. Without a filter the output is unchanged.
+ */
+@Component
+public class ProjectionModule extends SimpleModule {
+
+    public ProjectionModule() {
+        super("filmorate-projections");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription description,
+                                                             List<BeanPropertyWriter> properties) {
+                Projection projection = Projection.of(description.getBeanClass());
+                if (projection == null) {
+                    return properties;
+                }
+                List<BeanPropertyWriter> projected = new ArrayList<>(properties.size() + 1);
+                for (BeanPropertyWriter property : properties) {
+                    projected.add(new ProjectedWriter(property, projection.filterId(), false));
+                    if (property.getName().equals(projection.getCollection())) {
+                        projected.add(new ProjectedWriter(new CountWriter(property, projection.getCount()),
+                                projection.filterId(), true));
+                    }
+                }
+                return projected;
+            }
+        });
+    }
+
+    /**
+     * Routes a property through the projection filter. Optional properties are written only
+     * when a projection asks for them.
+     */
+    private static final class ProjectedWriter extends BeanPropertyWriter {
+
+        private final BeanPropertyWriter delegate;
+        private final String filterId;
+        private final boolean optional;
+
+        private ProjectedWriter(BeanPropertyWriter delegate, String filterId, boolean optional) {
+            super(delegate);
+            this.delegate = delegate;
+            this.filterId = filterId;
+            this.optional = optional;
+        }
+
+        @Override
+        public void assignSerializer(JsonSerializer<Object> serializer) {
+            delegate.assignSerializer(serializer);
+        }
+
+        @Override
+        public void assignNullSerializer(JsonSerializer<Object> serializer) {
+            delegate.assignNullSerializer(serializer);
+        }
+
+        @Override
+        public void assignTypeSerializer(TypeSerializer typeSerializer) {
+            delegate.assignTypeSerializer(typeSerializer);
+        }
+
+        @Override
+        public boolean hasSerializer() {
+            return delegate.hasSerializer();
+        }
+
+        @Override
+        public boolean hasNullSerializer() {
+            return delegate.hasNullSerializer();
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            FilterProvider filters = prov.getFilterProvider();
+            PropertyFilter filter = filters == null ? null : filters.findPropertyFilter(filterId, bean);
+            if (filter != null) {
+                filter.serializeAsField(bean, gen, prov, delegate);
+            } else if (!optional) {
+                delegate.serializeAsField(bean, gen, prov);
+            }
+        }
+
+        @Override
+        public void serializeAsElement(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!optional) {
+                delegate.serializeAsElement(bean, gen, prov);
+            }
+        }
+    }
+
+    /**
+     * Writes the size of a collection property under its own name.
+     */
+    private static final class CountWriter extends BeanPropertyWriter {
+
+        private CountWriter(BeanPropertyWriter collection, String name) {
+            super(collection, PropertyName.construct(name));
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            Object value = get(bean);
+            gen.writeFieldName(_name);
+            gen.writeNumber(value instanceof Collection<?> collection ? collection.size() : 0);
+        }
+    }
+}
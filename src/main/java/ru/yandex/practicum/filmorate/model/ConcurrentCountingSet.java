@@ -0,0 +1,89 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe set of ids whose size is kept in a LongAdder, so hot writers do not contend
+ * on a single counter and size() stays O(1). The count changes only when membership does,
+ * so it is exact once concurrent writers have finished.
+ */
+public class ConcurrentCountingSet extends AbstractSet<Long> {
+
+    private final Set<Long> members;
+    private final LongAdder count = new LongAdder();
+
+    public ConcurrentCountingSet() {
+        members = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Sized for the expected number of ids, so filling it does not rehash.
+     */
+    public ConcurrentCountingSet(int expectedSize) {
+        members = ConcurrentHashMap.newKeySet(expectedSize);
+    }
+
+    public ConcurrentCountingSet(Collection<Long> values) {
+        this(values.size());
+        addAll(values);
+    }
+
+    @Override
+    public boolean add(Long value) {
+        if (members.add(value)) {
+            count.increment();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        if (members.remove(value)) {
+            count.decrement();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return members.contains(value);
+    }
+
+    @Override
+    public int size() {
+        return (int) count.sum();
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        Iterator<Long> iterator = members.iterator();
+        return new Iterator<>() {
+            private Long current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Long next() {
+                current = iterator.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                if (members.remove(current)) {
+                    count.decrement();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class ExportReport {
+
+    private Instant startedAt;
+    private String directory;
+    private Map<String, Long> records = new LinkedHashMap<>();
+    private long elapsedMillis;
+}
@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FeedEvent {
+
+    private long seq;
+    private long timestamp;
+    private Type type;
+    private Long userId;
+    private Long filmId;
+    private Long friendId;
+
+    public enum Type {
+        LIKE,
+        FRIEND
+    }
+}
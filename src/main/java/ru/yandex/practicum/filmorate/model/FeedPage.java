@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FeedPage {
+
+    private List<FeedEvent> events = new ArrayList<>();
+    private Long nextCursor;
+}
@@ -7,7 +7,6 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.time.LocalDate;
-import java.util.HashSet;
 import java.util.Set;
 
 @Data
@@ -23,5 +22,14 @@ public class Film {
     private LocalDate releaseDate;
     @Positive
     private Integer duration;
-    Set<Long> likes = new HashSet<>();
+    private long version;
+    Set<Long> likes = new ConcurrentCountingSet();
+
+    public void setLikes(Set<Long> likes) {
+        if (likes instanceof ConcurrentCountingSet) {
+            this.likes = likes;
+        } else {
+            this.likes = likes == null ? new ConcurrentCountingSet() : new ConcurrentCountingSet(likes);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class FilmCatalogStats {
+
+    private long films;
+    private long totalLikes;
+    private double averageLikes;
+    private Map<Integer, Long> filmsByReleaseYear = new LinkedHashMap<>();
+    private Map<String, Long> filmsByDuration = new LinkedHashMap<>();
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answer to a {@link FilmContextQuery}. The film comes without its like set, which likeCount
+ * replaces. Likers and mutual friends refer to users by id and every referenced user appears
+ * once in users, as a {@link UserSummary}. Each liker lists at most the requested number of
+ * mutual friends, the ones with the smallest ids, next to their total count.
+ */
+@Data
+public class FilmContext {
+
+    private FilmSummary film;
+    private int likeCount;
+    private List<Liker> likers = new ArrayList<>();
+    private Map<Long, UserSummary> users = new LinkedHashMap<>();
+
+    @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Liker {
+
+        private Long userId;
+        private List<Long> mutualFriends;
+        private Integer mutualFriendCount;
+    }
+}
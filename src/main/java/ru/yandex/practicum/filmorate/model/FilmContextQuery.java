@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+/**
+ * A film with its first likers by id and, when a viewer is given, each liker's first mutual
+ * friends with the viewer by id.
+ */
+@Data
+public class FilmContextQuery {
+
+    @NotNull
+    private Long filmId;
+    private Long viewerId;
+    @PositiveOrZero
+    @Max(100)
+    private int likers = 10;
+    @PositiveOrZero
+    @Max(100)
+    private int mutualFriends = 10;
+}
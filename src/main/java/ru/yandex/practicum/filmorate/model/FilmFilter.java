@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Inclusive bounds of a catalog scan; a null bound is open.
+ */
+@Data
+public class FilmFilter {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate releasedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate releasedTo;
+    private Integer minDuration;
+    private Integer maxDuration;
+    private Integer minLikes;
+    private Integer maxLikes;
+}
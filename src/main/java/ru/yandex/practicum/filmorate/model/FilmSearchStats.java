@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+@Data
+public class FilmSearchStats {
+
+    private long films;
+    private long totalLikes;
+    private double averageLikes;
+    private double averageDuration;
+}
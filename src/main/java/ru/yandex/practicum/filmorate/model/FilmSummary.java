@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * A {@link Film} without its like set, for embedding in responses that report the like count
+ * instead.
+ */
+@Data
+public class FilmSummary {
+
+    private Long id;
+    private String name;
+    private String description;
+    private LocalDate releaseDate;
+    private Integer duration;
+    private long version;
+
+    public static FilmSummary of(Film film) {
+        FilmSummary summary = new FilmSummary();
+        summary.setId(film.getId());
+        summary.setName(film.getName());
+        summary.setDescription(film.getDescription());
+        summary.setReleaseDate(film.getReleaseDate());
+        summary.setDuration(film.getDuration());
+        summary.setVersion(film.getVersion());
+        return summary;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+@Data
+public class FilmTierStats {
+
+    private int hotCapacity;
+    private int hotFilms;
+    private long hotBytes;
+    private long hotHits;
+    private double hotAverageMicros;
+    private long coldHits;
+    private double coldAverageMicros;
+    private long misses;
+    private long evictions;
+    private int coldFilms;
+    private int segments;
+    private long diskBytes;
+    private long garbageBytes;
+}
@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FriendPath {
+
+    private Long from;
+    private Long to;
+    private boolean found;
+    private int length = -1;
+    private List<Long> path = new ArrayList<>();
+    private int maxDepth;
+    private long nodesExpanded;
+    private long nodesVisited;
+    private boolean budgetExhausted;
+}
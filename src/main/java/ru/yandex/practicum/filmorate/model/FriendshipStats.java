@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class FriendshipStats {
+
+    private Instant computedAt;
+    private long computeMillis;
+    private boolean stale;
+    private long users;
+    private long friendships;
+    private long components;
+    private long largestComponentSize;
+    private double largestComponentShare;
+    private long isolatedUsers;
+    private double averageDegree;
+    private long maxDegree;
+    private Map<String, Long> degreeDistribution = new LinkedHashMap<>();
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Progress of a single import. Only the importing thread writes it while other requests read
+ * it through the active imports listing, so the fields are volatile rather than atomic.
+ * A failed import keeps the rows it had already written: accepted is the committed count.
+ */
+@Data
+public class ImportReport {
+
+    private volatile String id;
+    private volatile String entity;
+    private volatile String format;
+    private volatile ImportStatus status = ImportStatus.RUNNING;
+    private volatile Instant startedAt = Instant.now();
+    private volatile long processed;
+    private volatile long accepted;
+    private volatile long rejected;
+    private volatile double recordsPerSecond;
+    private volatile long elapsedMillis;
+    private volatile String rejectFile;
+    private volatile String error;
+
+    public enum ImportStatus {
+        RUNNING,
+        DONE,
+        FAILED
+    }
+}
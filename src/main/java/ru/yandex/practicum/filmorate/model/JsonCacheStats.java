@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+@Data
+public class JsonCacheStats {
+
+    private boolean enabled;
+    private long films;
+    private long users;
+    private long bytes;
+    private long maxBytes;
+    private long hits;
+    private long misses;
+    private long rejected;
+}
@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class MemoryReport {
+
+    private BudgetStatus status;
+    private long budgetBytes;
+    private long warnBytes;
+    private long rejectBytes;
+    private long estimatedHeapBytes;
+    private Map<String, Long> components = new LinkedHashMap<>();
+    private long offHeapBytes;
+    private long heapUsedBytes;
+    private long heapMaxBytes;
+
+    public enum BudgetStatus {
+        OK,
+        WARNING,
+        REJECTING
+    }
+}
@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+@Data
+public class ReplicationStatus {
+
+    private String role;
+    private boolean connected;
+    private long appliedSeq;
+    private long leaderSeq;
+    private long lagEvents;
+    private long lagMillis;
+    private int followers;
+    private long reconnects;
+    private long snapshots;
+}
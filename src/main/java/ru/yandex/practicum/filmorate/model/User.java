@@ -6,7 +6,6 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 import java.time.LocalDate;
-import java.util.HashSet;
 import java.util.Set;
 
 @Data
@@ -21,5 +20,14 @@ public class User {
     private String name;
     @NotNull
     private LocalDate birthday;
-    private Set<Long> friends = new HashSet<>();
+    private long version;
+    private Set<Long> friends = new ConcurrentCountingSet();
+
+    public void setFriends(Set<Long> friends) {
+        if (friends instanceof ConcurrentCountingSet) {
+            this.friends = friends;
+        } else {
+            this.friends = friends == null ? new ConcurrentCountingSet() : new ConcurrentCountingSet(friends);
+        }
+    }
 }
\ No newline at end of file
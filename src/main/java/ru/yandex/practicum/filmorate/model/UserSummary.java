@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+/**
+ * The public part of a {@link User} for embedding in other responses: no email, birthday or
+ * friend set.
+ */
+@Data
+public class UserSummary {
+
+    private Long id;
+    private String login;
+    private String name;
+
+    public static UserSummary of(User user) {
+        UserSummary summary = new UserSummary();
+        summary.setId(user.getId());
+        summary.setLogin(user.getLogin());
+        summary.setName(user.getName());
+        return summary;
+    }
+}
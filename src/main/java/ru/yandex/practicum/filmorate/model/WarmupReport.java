@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+@Data
+public class WarmupReport {
+
+    private boolean enabled;
+    private WarmupStatus status = WarmupStatus.SKIPPED;
+    private long iterations;
+    private long elapsedMillis;
+    private long firstIterationMicros;
+    private long warmIterationMicros;
+    private String firstRequest;
+    private long firstRequestMicros;
+
+    public enum WarmupStatus {
+        SKIPPED,
+        RUNNING,
+        DONE,
+        TIMED_OUT,
+        FAILED
+    }
+}
@@ -0,0 +1,327 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ReplicationStatus;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.ConsistentCut;
+import ru.yandex.practicum.filmorate.service.FeedService;
+import ru.yandex.practicum.filmorate.service.FriendshipAnalyticsService;
+import ru.yandex.practicum.filmorate.service.TrendingService;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps local storages in sync with the leader. Events are applied straight to the storages,
+ * bypassing services, so the follower's own write path stays closed (see {@link ReplicaWriteGuard}).
+ * Applied likes and friendships are still reported to trending and feeds, which the follower
+ * serves from its own state.
+ * After a disconnect the client resumes from the last applied sequence.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.replication.role", havingValue = ReplicationLog.ROLE_FOLLOWER)
+public class FollowerClient implements MeterBinder {
+
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final FriendshipAnalyticsService friendshipAnalyticsService;
+    private final ObjectMapper objectMapper;
+    private final JsonFragmentCache jsonFragmentCache;
+    private final ConsistentCut consistentCut;
+    private final TrendingService trendingService;
+    private final FeedService feedService;
+    private final String leaderHost;
+    private final int port;
+    private final Duration reconnectDelay;
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+    private volatile long appliedSeq = -1;
+    private volatile long leaderSeq = -1;
+    private volatile long appliedTimestamp;
+    private volatile boolean connected;
+    private volatile boolean running;
+    private volatile Socket socket;
+    private Thread worker;
+
+    public FollowerClient(FilmStorage filmStorage,
+                          UserStorage userStorage,
+                          FriendshipAnalyticsService friendshipAnalyticsService,
+                          ObjectMapper objectMapper,
+                          JsonFragmentCache jsonFragmentCache,
+                          ConsistentCut consistentCut,
+                          TrendingService trendingService,
+                          FeedService feedService,
+                          @Value("${filmorate.replication.leader-host:localhost}") String leaderHost,
+                          @Value("${filmorate.replication.port:7070}") int port,
+                          @Value("${filmorate.replication.reconnect-delay:PT1S}") Duration reconnectDelay) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.friendshipAnalyticsService = friendshipAnalyticsService;
+        this.objectMapper = objectMapper;
+        this.jsonFragmentCache = jsonFragmentCache;
+        this.consistentCut = consistentCut;
+        this.trendingService = trendingService;
+        this.feedService = feedService;
+        this.leaderHost = leaderHost;
+        this.port = port;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "filmorate-replication-follower");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException ignore) {
+                // поток чтения завершится сам
+            }
+        }
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("filmorate.replication.lag.events", this, FollowerClient::lagEvents)
+                .description("События лидера, ещё не применённые репликой")
+                .register(registry);
+        Gauge.builder("filmorate.replication.lag", this, FollowerClient::lagMillis)
+                .description("Отставание реплики от лидера")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("filmorate.replication.applied.seq", this, client -> client.appliedSeq)
+                .register(registry);
+    }
+
+    public ReplicationStatus getStatus() {
+        ReplicationStatus status = new ReplicationStatus();
+        status.setRole(ReplicationLog.ROLE_FOLLOWER);
+        status.setConnected(connected);
+        status.setAppliedSeq(appliedSeq);
+        status.setLeaderSeq(leaderSeq);
+        status.setLagEvents(lagEvents());
+        status.setLagMillis(lagMillis());
+        status.setReconnects(reconnects.get());
+        status.setSnapshots(snapshots.get());
+        return status;
+    }
+
+    public long getAppliedSeq() {
+        return appliedSeq;
+    }
+
+    private long lagEvents() {
+        return Math.max(leaderSeq - appliedSeq, 0);
+    }
+
+    private long lagMillis() {
+        if (!connected || appliedSeq < 0) {
+            return -1;
+        }
+        return lagEvents() == 0 ? 0 : System.currentTimeMillis() - appliedTimestamp;
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket current = new Socket(leaderHost, port)) {
+                socket = current;
+                connected = true;
+                log.info("Реплика подключена к лидеру {}:{}, seq {}", leaderHost, port, appliedSeq);
+                OutputStream out = current.getOutputStream();
+                out.write(("{\"fromSeq\":" + appliedSeq + "}\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                consume(new BufferedReader(new InputStreamReader(current.getInputStream(), StandardCharsets.UTF_8)));
+            } catch (IOException | RuntimeException e) {
+                if (running) {
+                    log.warn("Соединение с лидером потеряно: {}", e.getMessage());
+                }
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            if (running) {
+                reconnects.incrementAndGet();
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void consume(BufferedReader in) throws IOException {
+        boolean inSnapshot = false;
+        String line;
+        while (running && (line = in.readLine()) != null) {
+            ReplicationEvent event = objectMapper.readValue(line, ReplicationEvent.class);
+            leaderSeq = Math.max(leaderSeq, event.getSeq());
+            switch (event.getType()) {
+                case HEARTBEAT -> {
+                    continue;
+                }
+                case SNAPSHOT_START -> {
+                    inSnapshot = true;
+                    continue;
+                }
+                case SNAPSHOT_END -> {
+                    inSnapshot = false;
+                    snapshots.incrementAndGet();
+                    friendshipAnalyticsService.markDirty();
+                    log.info("Реплика загрузила снимок лидера на seq {}", event.getSeq());
+                }
+                case FILM -> applyFilm(event);
+                case USER -> applyUser(event);
+                case LIKE -> applyLike(event);
+                case FRIENDSHIP -> applyFriendship(event);
+            }
+            if (!inSnapshot) {
+                appliedTimestamp = event.getTimestamp();
+                appliedSeq = event.getSeq();
+            }
+        }
+    }
+
+    /**
+     * Film payloads carry the like set, and a snapshot delivers likes only this way; the likes
+     * it adds or drops reach trending at the event's time.
+     */
+    private void applyFilm(ReplicationEvent event) throws IOException {
+        Film film = objectMapper.treeToValue(event.getPayload(), Film.class);
+        Optional<Film> current = filmStorage.findById(film.getId());
+        int likesBefore = current.map(existing -> existing.getLikes().size()).orElse(0);
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            current.ifPresentOrElse(consistentCut::beforeChange, () -> consistentCut.filmCreated(film.getId()));
+            filmStorage.addFilm(film);
+        }
+        jsonFragmentCache.invalidateFilm(film.getId());
+        int delta = film.getLikes().size() - likesBefore;
+        trendingService.liked(film.getId(), delta, event.getTimestamp());
+        for (int i = delta; i < 0; i++) {
+            trendingService.unliked(film.getId());
+        }
+    }
+
+    private void applyUser(ReplicationEvent event) throws IOException {
+        User user = objectMapper.treeToValue(event.getPayload(), User.class);
+        Optional<User> current = userStorage.findById(user.getId());
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            current.ifPresentOrElse(consistentCut::beforeChange, () -> consistentCut.userCreated(user.getId()));
+            userStorage.update(user);
+        }
+        boolean created = current.isEmpty();
+        jsonFragmentCache.invalidateUser(user.getId());
+        if (created) {
+            friendshipAnalyticsService.onUserCreated(user.getId());
+        } else {
+            friendshipAnalyticsService.markDirty();
+        }
+    }
+
+    private void applyLike(ReplicationEvent event) {
+        filmStorage.findById(event.getFilmId()).ifPresent(film -> {
+            boolean liked = Boolean.TRUE.equals(event.getPresent());
+            boolean changed;
+            try (ConsistentCut.Guard guard = consistentCut.enter()) {
+                consistentCut.beforeChange(film);
+                if (liked) {
+                    changed = film.getLikes().add(event.getUserId());
+                    if (changed) {
+                        filmStorage.recordLike(film);
+                    }
+                } else {
+                    changed = film.getLikes().remove(event.getUserId());
+                    if (changed) {
+                        filmStorage.recordUnlike(film);
+                    }
+                }
+            }
+            jsonFragmentCache.invalidateFilm(film.getId());
+            if (changed && liked) {
+                trendingService.liked(film.getId(), 1, event.getTimestamp());
+                feedService.filmLiked(event.getUserId(), film.getId());
+            } else if (changed) {
+                trendingService.unliked(film.getId());
+            }
+        });
+    }
+
+    private void applyFriendship(ReplicationEvent event) {
+        Optional<User> user = userStorage.findById(event.getUserId());
+        Optional<User> friend = userStorage.findById(event.getOtherId());
+        if (user.isEmpty() || friend.isEmpty()) {
+            return;
+        }
+        boolean present = Boolean.TRUE.equals(event.getPresent());
+        boolean changed;
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            consistentCut.beforeChange(user.get());
+            consistentCut.beforeChange(friend.get());
+            changed = link(user.get(), friend.get().getId(), present);
+            changed |= link(friend.get(), user.get().getId(), present);
+        }
+        if (present) {
+            friendshipAnalyticsService.onFriendshipAdded(event.getUserId(), event.getOtherId());
+            if (changed) {
+                feedService.friendAdded(event.getUserId(), event.getOtherId());
+            }
+        } else {
+            friendshipAnalyticsService.markDirty();
+        }
+    }
+
+    private boolean link(User user, long friendId, boolean present) {
+        boolean changed;
+        if (present) {
+            changed = user.getFriends().add(friendId);
+            if (changed) {
+                userStorage.recordFriendAdded(user);
+            }
+        } else {
+            changed = user.getFriends().remove(friendId);
+            if (changed) {
+                userStorage.recordFriendRemoved(user);
+            }
+        }
+        userStorage.update(user);
+        jsonFragmentCache.invalidateUser(user.getId());
+        return changed;
+    }
+}
@@ -0,0 +1,169 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the mutation stream to followers over a loopback socket as JSON lines. A follower sends
+ * the last sequence it applied; it gets the retained tail after that sequence, or a full snapshot
+ * when the tail is no longer available, and then live events with heartbeats while idle.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.replication.role", havingValue = ReplicationLog.ROLE_LEADER)
+public class LeaderServer {
+
+    private static final long HEARTBEAT_MILLIS = 1_000;
+
+    private final ReplicationLog replicationLog;
+    private final ObjectMapper objectMapper;
+    private final int port;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private volatile ServerSocket serverSocket;
+
+    public LeaderServer(ReplicationLog replicationLog,
+                        ObjectMapper objectMapper,
+                        @Value("${filmorate.replication.port:7070}") int port) {
+        this.replicationLog = replicationLog;
+        this.objectMapper = objectMapper;
+        this.port = port;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 16, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "filmorate-replication-leader");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Лидер репликации слушает порт {}", getPort());
+    }
+
+    public int getPort() {
+        return serverSocket == null ? port : serverSocket.getLocalPort();
+    }
+
+    @PreDestroy
+    public void stop() {
+        closeQuietly(serverSocket);
+        connections.forEach(LeaderServer::closeQuietly);
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                Thread sender = new Thread(() -> serve(socket), "filmorate-replication-sender");
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("Ошибка приёма подключения реплики: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        ReplicationLog.Subscription subscription = null;
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String hello = in.readLine();
+            if (hello == null) {
+                return;
+            }
+            long fromSeq = objectMapper.readTree(hello).path("fromSeq").asLong(-1);
+            subscription = replicationLog.subscribe(fromSeq);
+            if (subscription.backlog != null) {
+                log.info("Реплика {} догоняет с seq {}: {} событий из журнала",
+                        socket.getRemoteSocketAddress(), fromSeq, subscription.backlog.size());
+                for (ReplicationEvent event : subscription.backlog) {
+                    send(out, event);
+                }
+            } else {
+                sendSnapshot(out, subscription.startSeq);
+                log.info("Реплике {} отправлен снимок на seq {}", socket.getRemoteSocketAddress(),
+                        subscription.startSeq);
+            }
+            out.flush();
+            stream(subscription, out);
+        } catch (IOException e) {
+            log.info("Реплика отключилась: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (subscription != null) {
+                replicationLog.unsubscribe(subscription);
+            }
+            connections.remove(socket);
+        }
+    }
+
+    private void sendSnapshot(BufferedWriter out, long snapshotSeq) throws IOException {
+        send(out, ReplicationEvent.of(snapshotSeq, ReplicationEvent.Type.SNAPSHOT_START));
+        List<ReplicationEvent> snapshot = replicationLog.snapshot(snapshotSeq);
+        for (ReplicationEvent event : snapshot) {
+            send(out, event);
+        }
+        send(out, ReplicationEvent.of(snapshotSeq, ReplicationEvent.Type.SNAPSHOT_END));
+    }
+
+    private void stream(ReplicationLog.Subscription subscription, BufferedWriter out)
+            throws IOException, InterruptedException {
+        while (!serverSocket.isClosed()) {
+            if (subscription.overflowed) {
+                log.warn("Реплика не успевает за потоком изменений, соединение закрыто");
+                return;
+            }
+            ReplicationEvent event = subscription.queue.poll(HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+            if (event == null) {
+                send(out, ReplicationEvent.of(replicationLog.currentSeq(), ReplicationEvent.Type.HEARTBEAT));
+            } else {
+                send(out, event);
+                while ((event = subscription.queue.poll()) != null) {
+                    send(out, event);
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private void send(BufferedWriter out, ReplicationEvent event) throws IOException {
+        out.write(objectMapper.writeValueAsString(event));
+        out.newLine();
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception ignore) {
+            // соединение уже закрыто
+        }
+    }
+}
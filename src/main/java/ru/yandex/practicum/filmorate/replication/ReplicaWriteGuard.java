@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.yandex.practicum.filmorate.exception.ReadOnlyReplicaException;
+
+class ReplicaWriteGuard implements HandlerInterceptor {
+
+    private final String leader;
+
+    ReplicaWriteGuard(String leader) {
+        this.leader = leader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+                || HttpMethod.OPTIONS.matches(method)) {
+            return true;
+        }
+        throw new ReadOnlyReplicaException(
+                method + " " + request.getRequestURI() + " выполняется только на лидере (" + leader + ")");
+    }
+}
@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+/**
+ * One line of the replication stream. Entity events carry the state captured when they were
+ * published (film/user body, like or friendship presence), so applying them in sequence order
+ * is idempotent and converges to the leader's state.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReplicationEvent {
+
+    private long seq;
+    private long timestamp;
+    private Type type;
+    private Long filmId;
+    private Long userId;
+    private Long otherId;
+    private Boolean present;
+    private JsonNode payload;
+
+    public enum Type {
+        SNAPSHOT_START,
+        SNAPSHOT_END,
+        HEARTBEAT,
+        FILM,
+        USER,
+        LIKE,
+        FRIENDSHIP
+    }
+
+    static ReplicationEvent of(long seq, Type type) {
+        ReplicationEvent event = new ReplicationEvent();
+        event.setSeq(seq);
+        event.setTimestamp(System.currentTimeMillis());
+        event.setType(type);
+        return event;
+    }
+}
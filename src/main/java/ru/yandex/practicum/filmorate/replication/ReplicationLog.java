@@ -0,0 +1,214 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.ReplicationStatus;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Leader-side mutation stream. Services report which entity changed after applying the change;
+ * the current state is read and serialized under a lock striped by film or user id and then
+ * sequenced, so the last event for a key always reflects the latest state while writers of
+ * different entities only share the short append. Recent events are retained for followers that
+ * reconnect; older followers are sent a snapshot followed by everything after the snapshot sequence.
+ */
+@Slf4j
+@Component
+public class ReplicationLog {
+
+    public static final String ROLE_LEADER = "leader";
+    public static final String ROLE_FOLLOWER = "follower";
+
+    private static final int STRIPES = 64;
+
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final ObjectMapper objectMapper;
+    private final String role;
+    private final boolean enabled;
+    private final int retain;
+    private final Deque<ReplicationEvent> retained = new ArrayDeque<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Object[] filmLocks = locks();
+    private final Object[] userLocks = locks();
+    private volatile long seq;
+
+    public ReplicationLog(FilmStorage filmStorage,
+                          UserStorage userStorage,
+                          ObjectMapper objectMapper,
+                          @Value("${filmorate.replication.role:none}") String role,
+                          @Value("${filmorate.replication.retain:100000}") int retain) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.objectMapper = objectMapper;
+        this.role = role;
+        this.enabled = ROLE_LEADER.equals(role);
+        this.retain = retain;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void filmChanged(long filmId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lockOf(filmLocks, filmId)) {
+            filmStorage.findById(filmId).ifPresent(film -> {
+                ReplicationEvent event = ReplicationEvent.of(0, ReplicationEvent.Type.FILM);
+                event.setFilmId(filmId);
+                event.setPayload(objectMapper.valueToTree(film));
+                append(event);
+            });
+        }
+    }
+
+    public void userChanged(long userId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lockOf(userLocks, userId)) {
+            userStorage.findById(userId).ifPresent(user -> {
+                ReplicationEvent event = ReplicationEvent.of(0, ReplicationEvent.Type.USER);
+                event.setUserId(userId);
+                event.setPayload(objectMapper.valueToTree(user));
+                append(event);
+            });
+        }
+    }
+
+    public void likeChanged(long filmId, long userId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lockOf(filmLocks, filmId)) {
+            filmStorage.findById(filmId).ifPresent(film -> {
+                ReplicationEvent event = ReplicationEvent.of(0, ReplicationEvent.Type.LIKE);
+                event.setFilmId(filmId);
+                event.setUserId(userId);
+                event.setPresent(film.getLikes().contains(userId));
+                append(event);
+            });
+        }
+    }
+
+    public void friendshipChanged(long userId, long friendId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lockOf(userLocks, userId)) {
+            userStorage.findById(userId).ifPresent(user -> {
+                ReplicationEvent event = ReplicationEvent.of(0, ReplicationEvent.Type.FRIENDSHIP);
+                event.setUserId(userId);
+                event.setOtherId(friendId);
+                event.setPresent(user.getFriends().contains(friendId));
+                append(event);
+            });
+        }
+    }
+
+    public long currentSeq() {
+        return seq;
+    }
+
+    public ReplicationStatus getStatus() {
+        ReplicationStatus status = new ReplicationStatus();
+        status.setRole(role);
+        status.setConnected(enabled);
+        status.setAppliedSeq(currentSeq());
+        status.setLeaderSeq(status.getAppliedSeq());
+        status.setFollowers(subscriptions.size());
+        return status;
+    }
+
+    Subscription subscribe(long fromSeq) {
+        synchronized (retained) {
+            Subscription subscription = new Subscription(retain, seq);
+            long oldest = retained.isEmpty() ? seq + 1 : retained.peekFirst().getSeq();
+            if (fromSeq >= 0 && fromSeq <= seq && fromSeq + 1 >= oldest) {
+                subscription.backlog = new ArrayList<>();
+                for (ReplicationEvent event : retained) {
+                    if (event.getSeq() > fromSeq) {
+                        subscription.backlog.add(event);
+                    }
+                }
+            }
+            subscriptions.add(subscription);
+            return subscription;
+        }
+    }
+
+    void unsubscribe(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    List<ReplicationEvent> snapshot(long snapshotSeq) {
+        List<ReplicationEvent> events = new ArrayList<>();
+        filmStorage.findAll().forEach(film -> {
+            ReplicationEvent event = ReplicationEvent.of(snapshotSeq, ReplicationEvent.Type.FILM);
+            event.setFilmId(film.getId());
+            event.setPayload(objectMapper.valueToTree(film));
+            events.add(event);
+        });
+        userStorage.findAll().forEach(user -> {
+            ReplicationEvent event = ReplicationEvent.of(snapshotSeq, ReplicationEvent.Type.USER);
+            event.setUserId(user.getId());
+            event.setPayload(objectMapper.valueToTree(user));
+            events.add(event);
+        });
+        return events;
+    }
+
+    private void append(ReplicationEvent event) {
+        synchronized (retained) {
+            event.setSeq(seq + 1);
+            seq = event.getSeq();
+            retained.addLast(event);
+            if (retained.size() > retain) {
+                retained.removeFirst();
+            }
+            for (Subscription subscription : subscriptions) {
+                if (!subscription.queue.offer(event)) {
+                    subscription.overflowed = true;
+                }
+            }
+        }
+    }
+
+    private static Object lockOf(Object[] locks, long id) {
+        return locks[Math.floorMod(Long.hashCode(id), STRIPES)];
+    }
+
+    private static Object[] locks() {
+        Object[] locks = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    static final class Subscription {
+
+        final BlockingQueue<ReplicationEvent> queue;
+        final long startSeq;
+        List<ReplicationEvent> backlog;
+        volatile boolean overflowed;
+
+        private Subscription(int capacity, long startSeq) {
+            this.queue = new LinkedBlockingQueue<>(Math.max(capacity, 1));
+            this.startSeq = startSeq;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * A follower serves reads only: mutations of films, users and imports are rejected with 503
+ * so clients retry against the leader instead of diverging the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "filmorate.replication.role", havingValue = ReplicationLog.ROLE_FOLLOWER)
+public class ReplicationWebConfiguration implements WebMvcConfigurer {
+
+    private final String leader;
+
+    public ReplicationWebConfiguration(@Value("${filmorate.replication.leader-url:}") String leaderUrl,
+                                       @Value("${filmorate.replication.leader-host:localhost}") String leaderHost) {
+        this.leader = leaderUrl.isBlank() ? leaderHost : leaderUrl;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReplicaWriteGuard(leader))
+                .addPathPatterns("/films/**", "/users/**", "/admin/import/**");
+    }
+}
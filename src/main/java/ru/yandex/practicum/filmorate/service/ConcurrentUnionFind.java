@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free union-find over long ids. Roots are always linked under the larger id,
+ * so concurrent unions cannot create cycles; find uses path halving.
+ */
+class ConcurrentUnionFind {
+
+    private final Map<Long, Long> parents = new ConcurrentHashMap<>();
+    private final AtomicLong components = new AtomicLong();
+
+    void add(long id) {
+        if (parents.putIfAbsent(id, id) == null) {
+            components.incrementAndGet();
+        }
+    }
+
+    long find(long id) {
+        long current = id;
+        while (true) {
+            Long parent = parents.get(current);
+            if (parent == null || parent == current) {
+                return current;
+            }
+            Long grandParent = parents.get(parent);
+            if (grandParent != null && !grandParent.equals(parent)) {
+                parents.replace(current, parent, grandParent);
+            }
+            current = parent;
+        }
+    }
+
+    boolean union(long first, long second) {
+        add(first);
+        add(second);
+        while (true) {
+            long firstRoot = find(first);
+            long secondRoot = find(second);
+            if (firstRoot == secondRoot) {
+                return false;
+            }
+            long child = Math.min(firstRoot, secondRoot);
+            long root = Math.max(firstRoot, secondRoot);
+            if (parents.replace(child, child, root)) {
+                components.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    boolean connected(long first, long second) {
+        while (true) {
+            long firstRoot = find(first);
+            long secondRoot = find(second);
+            if (firstRoot == secondRoot) {
+                return true;
+            }
+            if (find(firstRoot) == firstRoot) {
+                return false;
+            }
+        }
+    }
+
+    long components() {
+        return components.get();
+    }
+}
@@ -0,0 +1,160 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Point-in-time view of the storages for the export, kept by copy-on-write. Every write to a
+ * film or user runs inside {@link #enter()} and reports the entity before changing it. While a
+ * cut is open, the first such report after the cut saves a copy of the entity as it was, and
+ * entities created after the cut are marked, so the export can read the live storages and still
+ * see each entity as of the cut. Opening a cut only waits for the writes already in flight.
+ * The guard is a read lock striped by thread, so writers on different threads rarely share a
+ * lock word and never wait for each other.
+ */
+@Component
+public class ConsistentCut {
+
+    private static final int STRIPES = 16;
+    private static final Film CREATED_FILM = new Film();
+    private static final User CREATED_USER = new User();
+
+    private final ReentrantReadWriteLock[] stripes = new ReentrantReadWriteLock[STRIPES];
+    private volatile Cut cut;
+
+    public ConsistentCut() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public Guard enter() {
+        ReentrantReadWriteLock.ReadLock lock = stripes[(int) (Thread.currentThread().threadId() & (STRIPES - 1))]
+                .readLock();
+        lock.lock();
+        return lock::unlock;
+    }
+
+    /**
+     * Called inside {@link #enter()} before the film, its like set included, is changed.
+     */
+    public void beforeChange(Film film) {
+        Cut current = cut;
+        if (current != null && !current.films.containsKey(film.getId())) {
+            current.films.putIfAbsent(film.getId(), copyOf(film));
+        }
+    }
+
+    /**
+     * Called inside {@link #enter()} before the user, its friend set included, is changed.
+     */
+    public void beforeChange(User user) {
+        Cut current = cut;
+        if (current != null && !current.users.containsKey(user.getId())) {
+            current.users.putIfAbsent(user.getId(), copyOf(user));
+        }
+    }
+
+    /**
+     * Called inside {@link #enter()} before a new film becomes visible in the storage.
+     */
+    public void filmCreated(long filmId) {
+        Cut current = cut;
+        if (current != null) {
+            current.films.putIfAbsent(filmId, CREATED_FILM);
+        }
+    }
+
+    /**
+     * Called inside {@link #enter()} right after a new user is stored. User ids are assigned by
+     * the storage, so an export that reaches the user before this call may include it; it then
+     * has no friends yet, because befriending it goes through {@link #beforeChange(User)} first.
+     */
+    public void userCreated(long userId) {
+        Cut current = cut;
+        if (current != null) {
+            current.users.putIfAbsent(userId, CREATED_USER);
+        }
+    }
+
+    Cut open() {
+        for (ReentrantReadWriteLock stripe : stripes) {
+            stripe.writeLock().lock();
+        }
+        try {
+            cut = new Cut();
+            return cut;
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                stripes[i].writeLock().unlock();
+            }
+        }
+    }
+
+    void close() {
+        cut = null;
+    }
+
+    static Film copyOf(Film film) {
+        Film copy = new Film();
+        copy.setId(film.getId());
+        copy.setName(film.getName());
+        copy.setDescription(film.getDescription());
+        copy.setReleaseDate(film.getReleaseDate());
+        copy.setDuration(film.getDuration());
+        copy.setVersion(film.getVersion());
+        copy.setLikes(new HashSet<>(film.getLikes()));
+        return copy;
+    }
+
+    static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setEmail(user.getEmail());
+        copy.setLogin(user.getLogin());
+        copy.setName(user.getName());
+        copy.setBirthday(user.getBirthday());
+        copy.setVersion(user.getVersion());
+        copy.setFriends(new HashSet<>(user.getFriends()));
+        return copy;
+    }
+
+    public interface Guard extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Copies saved since the cut was opened. The export reads a live entity first and asks
+     * for it afterwards: a write that changed the entity before the read saved its copy before
+     * changing it, so it is found here.
+     */
+    static final class Cut {
+
+        private final Map<Long, Film> films = new ConcurrentHashMap<>();
+        private final Map<Long, User> users = new ConcurrentHashMap<>();
+
+        /**
+         * The film as of the cut, or null if it was created after the cut.
+         */
+        Film film(Film live) {
+            Film saved = films.getOrDefault(live.getId(), live);
+            return saved == CREATED_FILM ? null : saved;
+        }
+
+        /**
+         * The user as of the cut, or null if it was created after the cut.
+         */
+        User user(User live) {
+            User saved = users.getOrDefault(live.getId(), live);
+            return saved == CREATED_USER ? null : saved;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.ExportReport;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+public class ExportService {
+
+    private static final DateTimeFormatter DIRECTORY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final ConsistentCut consistentCut;
+    private final ObjectMapper objectMapper;
+    private final Path exportDir;
+    private final ExecutorService writers;
+    private final ReentrantLock exportLock = new ReentrantLock();
+
+    public ExportService(FilmStorage filmStorage,
+                         UserStorage userStorage,
+                         ConsistentCut consistentCut,
+                         ObjectMapper objectMapper,
+                         @Value("${filmorate.export.dir:${java.io.tmpdir}/filmorate-export}") String exportDir) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.consistentCut = consistentCut;
+        this.objectMapper = objectMapper;
+        this.exportDir = Path.of(exportDir);
+        this.writers = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "filmorate-export");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    @Scheduled(cron = "${filmorate.export.cron:-}")
+    public void scheduledExport() {
+        export();
+    }
+
+    public ExportReport export() {
+        if (!exportLock.tryLock()) {
+            throw new ConflictException("Экспорт уже выполняется");
+        }
+        try {
+            return doExport();
+        } finally {
+            exportLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    /**
+     * Streams every entity straight from the storage into its JSON lines file and its link
+     * rows into the matching CSV, one entity at a time, so memory stays bounded by the write
+     * buffers plus the copies writers save while the export runs. Every entity is written as of
+     * the {@link ConsistentCut} opened at the start: a friendship appears on both sides or on
+     * neither, and likes and friendships made after the cut are left out.
+     */
+    private ExportReport doExport() {
+        long start = System.nanoTime();
+        Instant startedAt = Instant.now();
+        Path dir = exportDir.resolve(DIRECTORY_FORMAT.format(startedAt));
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ConsistentCut.Cut cut = consistentCut.open();
+        ExportReport report = new ExportReport();
+        try {
+            Future<Map<String, Long>> films = writers.submit(() -> writeEntities(dir, "films.jsonl.gz",
+                    "likes.csv.gz", "film_id,user_id", filmStorage.findAll(),
+                    film -> cut.film(ConsistentCut.copyOf(film)), Film::getId, Film::getLikes));
+            Future<Map<String, Long>> users = writers.submit(() -> writeEntities(dir, "users.jsonl.gz",
+                    "friendships.csv.gz", "user_id,friend_id", userStorage.findAll(),
+                    user -> cut.user(ConsistentCut.copyOf(user)), User::getId, User::getFriends));
+
+            report.setStartedAt(startedAt);
+            report.setDirectory(dir.toString());
+            report.getRecords().putAll(await(films));
+            report.getRecords().putAll(await(users));
+        } finally {
+            consistentCut.close();
+        }
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Экспорт завершён в {} за {} мс: {}", dir, report.getElapsedMillis(), report.getRecords());
+        return report;
+    }
+
+    private <T> Map<String, Long> writeEntities(Path dir, String entityFile, String linkFile, String linkHeader,
+                                                Iterable<T> source, Function<T, T> asOfCut,
+                                                Function<T, Long> idOf, Function<T, Set<Long>> linksOf)
+            throws IOException {
+        Path entityPart = dir.resolve(entityFile + ".part");
+        Path linkPart = dir.resolve(linkFile + ".part");
+        long entities = 0;
+        long links = 0;
+        try (OutputStream out = gzip(entityPart);
+             SequenceWriter entityWriter = objectMapper.writer().withRootValueSeparator("\n").writeValues(out);
+             Writer linkWriter = new OutputStreamWriter(gzip(linkPart), StandardCharsets.UTF_8)) {
+            linkWriter.write(linkHeader);
+            linkWriter.write('\n');
+            for (T item : source) {
+                T snapshot = asOfCut.apply(item);
+                if (snapshot == null) {
+                    continue;
+                }
+                entityWriter.write(snapshot);
+                entities++;
+                String id = Long.toString(idOf.apply(snapshot));
+                for (Long link : linksOf.apply(snapshot)) {
+                    linkWriter.write(id);
+                    linkWriter.write(',');
+                    linkWriter.write(Long.toString(link));
+                    linkWriter.write('\n');
+                    links++;
+                }
+            }
+        }
+        Files.move(entityPart, dir.resolve(entityFile), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(linkPart, dir.resolve(linkFile), StandardCopyOption.REPLACE_EXISTING);
+        Map<String, Long> records = new LinkedHashMap<>();
+        records.put(entityFile, entities);
+        records.put(linkFile, links);
+        return records;
+    }
+
+    private OutputStream gzip(Path file) throws IOException {
+        return new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Экспорт прерван", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка записи экспорта: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.FeedEvent;
+import ru.yandex.practicum.filmorate.model.FeedPage;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Friends' activity timelines. An event is copied into a bounded inbox of every friend of
+ * its author when it happens, so reading a feed touches one ring buffer. Authors with more
+ * than celebrity-threshold friends write only to their own outbox instead, and their friends
+ * merge those outboxes at read time. Once a user is switched to the outbox they stay there,
+ * so none of their events end up split between the two paths.
+ */
+@Slf4j
+@Service
+public class FeedService {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_LIMIT = 100;
+    private static final Comparator<FeedEvent> NEWEST_FIRST =
+            Comparator.comparingLong(FeedEvent::getSeq).reversed();
+
+    private final UserStorage userStorage;
+    private final boolean enabled;
+    private final int capacity;
+    private final int celebrityThreshold;
+    private final AtomicLong seq = new AtomicLong();
+    private final Map<Long, Timeline> inboxes = new ConcurrentHashMap<>();
+    private final Map<Long, Timeline> outboxes = new ConcurrentHashMap<>();
+    private final Set<Long> celebrities = ConcurrentHashMap.newKeySet();
+
+    public FeedService(UserStorage userStorage,
+                       @Value("${filmorate.feed.enabled:true}") boolean enabled,
+                       @Value("${filmorate.feed.capacity:200}") int capacity,
+                       @Value("${filmorate.feed.celebrity-threshold:1000}") int celebrityThreshold) {
+        this.userStorage = userStorage;
+        this.enabled = enabled && capacity > 0;
+        this.capacity = capacity;
+        this.celebrityThreshold = celebrityThreshold;
+    }
+
+    public void filmLiked(long userId, long filmId) {
+        FeedEvent event = event(FeedEvent.Type.LIKE, userId);
+        if (event != null) {
+            event.setFilmId(filmId);
+            publish(event);
+        }
+    }
+
+    public void friendAdded(long userId, long friendId) {
+        FeedEvent event = event(FeedEvent.Type.FRIEND, userId);
+        if (event != null) {
+            event.setFriendId(friendId);
+            publish(event);
+        }
+    }
+
+    public FeedPage getFeed(long userId, Long cursor, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("Лимит ленты должен быть от 1 до " + MAX_LIMIT);
+        }
+        User reader = userStorage.findById(userId)
+                .orElseThrow(() -> NotFoundException.user(userId));
+        FeedPage page = new FeedPage();
+        if (!enabled) {
+            return page;
+        }
+        long before = cursor == null ? Long.MAX_VALUE : cursor;
+        Set<Long> friends = reader.getFriends();
+        List<FeedEvent> events = new ArrayList<>();
+        Timeline inbox = inboxes.get(userId);
+        if (inbox != null) {
+            // unfriended authors leave their earlier events behind in the inbox
+            inbox.collect(before, friends, limit + 1, events);
+        }
+        for (Long celebrity : celebrityFriends(friends)) {
+            Timeline outbox = outboxes.get(celebrity);
+            if (outbox != null) {
+                outbox.collect(before, null, limit + 1, events);
+            }
+        }
+        events.sort(NEWEST_FIRST);
+        if (events.size() > limit) {
+            events = events.subList(0, limit);
+            page.setNextCursor(events.get(limit - 1).getSeq());
+        }
+        page.setEvents(new ArrayList<>(events));
+        return page;
+    }
+
+    private FeedEvent event(FeedEvent.Type type, long userId) {
+        if (!enabled) {
+            return null;
+        }
+        FeedEvent event = new FeedEvent();
+        event.setSeq(seq.incrementAndGet());
+        event.setTimestamp(System.currentTimeMillis());
+        event.setType(type);
+        event.setUserId(userId);
+        return event;
+    }
+
+    private void publish(FeedEvent event) {
+        long authorId = event.getUserId();
+        User author = userStorage.findById(authorId).orElse(null);
+        if (author == null) {
+            return;
+        }
+        Set<Long> friends = author.getFriends();
+        if (celebrities.contains(authorId) || friends.size() > celebrityThreshold) {
+            if (celebrities.add(authorId)) {
+                log.info("Лента пользователя {} ({} друзей) переведена на слияние при чтении", authorId,
+                        friends.size());
+            }
+            outboxes.computeIfAbsent(authorId, id -> new Timeline(capacity)).append(event);
+            return;
+        }
+        for (Long friendId : friends) {
+            inboxes.computeIfAbsent(friendId, id -> new Timeline(capacity)).append(event);
+        }
+    }
+
+    private List<Long> celebrityFriends(Set<Long> friends) {
+        List<Long> result = new ArrayList<>();
+        if (celebrities.size() < friends.size()) {
+            for (Long celebrity : celebrities) {
+                if (friends.contains(celebrity)) {
+                    result.add(celebrity);
+                }
+            }
+        } else {
+            for (Long friendId : friends) {
+                if (celebrities.contains(friendId)) {
+                    result.add(friendId);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ring buffer of the latest events in seq order, grown on demand up to its capacity.
+     * Concurrent writers may append out of seq order, so an event is inserted behind the newer
+     * ones; it is rarely more than a few slots from the tail. Keeping the order lets a page stop
+     * after max events without skipping a late-appended older one.
+     */
+    private static final class Timeline {
+
+        private final int capacity;
+        private FeedEvent[] events;
+        private int head;
+        private int size;
+
+        private Timeline(int capacity) {
+            this.capacity = capacity;
+            this.events = new FeedEvent[Math.min(INITIAL_CAPACITY, capacity)];
+        }
+
+        synchronized void append(FeedEvent event) {
+            if (size == events.length && events.length < capacity) {
+                FeedEvent[] grown = new FeedEvent[Math.min(events.length * 2, capacity)];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = events[(head + i) % events.length];
+                }
+                events = grown;
+                head = 0;
+            }
+            int position = size;
+            while (position > 0 && events[(head + position - 1) % events.length].getSeq() > event.getSeq()) {
+                position--;
+            }
+            if (size == events.length) {
+                if (position == 0) {
+                    return;
+                }
+                head = (head + 1) % events.length;
+                size--;
+                position--;
+            }
+            for (int i = size; i > position; i--) {
+                events[(head + i) % events.length] = events[(head + i - 1) % events.length];
+            }
+            events[(head + position) % events.length] = event;
+            size++;
+        }
+
+        synchronized void collect(long before, Set<Long> authors, int max, List<FeedEvent> out) {
+            int taken = 0;
+            for (int i = size - 1; i >= 0 && taken < max; i--) {
+                FeedEvent event = events[(head + i) % events.length];
+                if (event.getSeq() < before && (authors == null || authors.contains(event.getUserId()))) {
+                    out.add(event);
+                    taken++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmContext;
+import ru.yandex.practicum.filmorate.model.FilmContextQuery;
+import ru.yandex.practicum.filmorate.model.FilmSummary;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserSummary;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Resolves a {@link FilmContextQuery} server-side in one pass: the likers with the smallest ids
+ * are picked with a bounded heap and come from one storage multi-get, mutual friends are
+ * intersected on the in-memory friend sets and capped the same way, and the friends not already
+ * loaded as likers come from a second multi-get.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FilmContextService {
+
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final LikeCoalescer likeCoalescer;
+
+    public FilmContext resolve(FilmContextQuery query) {
+        log.debug("Контекст фильма {}: {} лайкнувших, зритель {}", query.getFilmId(), query.getLikers(),
+                query.getViewerId());
+        likeCoalescer.flush();
+        Film film = filmStorage.findById(query.getFilmId())
+                .orElseThrow(() -> NotFoundException.film(query.getFilmId()));
+        Set<Long> viewerFriends = null;
+        if (query.getViewerId() != null) {
+            viewerFriends = userStorage.findById(query.getViewerId())
+                    .orElseThrow(() -> NotFoundException.user(query.getViewerId()))
+                    .getFriends();
+        }
+
+        FilmContext context = new FilmContext();
+        context.setFilm(FilmSummary.of(film));
+        context.setLikeCount(film.getLikes().size());
+        List<Long> likerIds = smallest(film.getLikes(), query.getLikers());
+        Set<Long> missing = new LinkedHashSet<>();
+        for (User liker : userStorage.findAllById(likerIds)) {
+            context.getUsers().put(liker.getId(), UserSummary.of(liker));
+            FilmContext.Liker entry = new FilmContext.Liker();
+            entry.setUserId(liker.getId());
+            if (viewerFriends != null) {
+                setMutualFriends(entry, liker.getFriends(), viewerFriends, query.getMutualFriends());
+                missing.addAll(entry.getMutualFriends());
+            }
+            context.getLikers().add(entry);
+        }
+        missing.removeAll(context.getUsers().keySet());
+        for (User friend : userStorage.findAllById(missing)) {
+            context.getUsers().put(friend.getId(), UserSummary.of(friend));
+        }
+        return context;
+    }
+
+    private static List<Long> smallest(Set<Long> ids, int count) {
+        PriorityQueue<Long> largestFirst = new PriorityQueue<>(Comparator.reverseOrder());
+        for (Long id : ids) {
+            keepSmallest(largestFirst, id, count);
+        }
+        return sorted(largestFirst);
+    }
+
+    private static void setMutualFriends(FilmContext.Liker liker, Set<Long> first, Set<Long> second, int count) {
+        Set<Long> smaller = first.size() <= second.size() ? first : second;
+        Set<Long> larger = smaller == first ? second : first;
+        PriorityQueue<Long> largestFirst = new PriorityQueue<>(Comparator.reverseOrder());
+        int common = 0;
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                common++;
+                keepSmallest(largestFirst, id, count);
+            }
+        }
+        liker.setMutualFriends(sorted(largestFirst));
+        liker.setMutualFriendCount(common);
+    }
+
+    private static void keepSmallest(PriorityQueue<Long> largestFirst, Long id, int count) {
+        if (largestFirst.size() < count) {
+            largestFirst.add(id);
+        } else if (count > 0 && id < largestFirst.peek()) {
+            largestFirst.poll();
+            largestFirst.add(id);
+        }
+    }
+
+    private static List<Long> sorted(PriorityQueue<Long> ids) {
+        List<Long> result = new ArrayList<>(ids);
+        result.sort(null);
+        return result;
+    }
+}
@@ -2,17 +2,33 @@ package ru.yandex.practicum.filmorate.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.PreconditionFailedException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.jfr.LikeEvent;
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
+import ru.yandex.practicum.filmorate.jfr.PopularFilmsEvent;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmCatalogStats;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
 import ru.yandex.practicum.filmorate.model.User;
-import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
-import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.replication.ReplicationLog;
+import ru.yandex.practicum.filmorate.storage.ColumnarFilmStorage;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.RankedFilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,69 +38,150 @@ public class FilmService {
 
     private static final LocalDate MIN_RELEASE_DATE = LocalDate.of(1895, 12, 28);
 
-    private final InMemoryFilmStorage inMemoryFilmStorage;
-    private final InMemoryUserStorage inMemoryUserStorage;
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final LikeCoalescer likeCoalescer;
+    private final MemoryBudgetService memoryBudgetService;
+    private final ReplicationLog replicationLog;
+    private final JsonFragmentCache jsonFragmentCache;
+    private final FeedService feedService;
+    private final TrendingService trendingService;
+    private final ConsistentCut consistentCut;
 
     public Film add(Film film) {
         log.info("Добавление нового фильма: {}", film.getName());
         validReleaseDate(film);
-        film.setId(inMemoryFilmStorage.getNextId());
-        inMemoryFilmStorage.addFilm(film);
+        memoryBudgetService.checkCreate();
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            film.setId(filmStorage.allocateId());
+            film.setVersion(1);
+            consistentCut.filmCreated(film.getId());
+            filmStorage.addFilm(film);
+        }
+        trendingService.seed(film.getId(), film.getLikes().size());
+        replicationLog.filmChanged(film.getId());
         log.debug("Фильм успешно добавлен");
         return film;
     }
 
+    public void addAll(List<Film> films) {
+        memoryBudgetService.checkCreate();
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            long nextId = filmStorage.allocateIds(films.size());
+            for (Film film : films) {
+                film.setId(nextId++);
+                film.setVersion(1);
+                consistentCut.filmCreated(film.getId());
+            }
+            filmStorage.addFilms(films);
+        }
+        for (Film film : films) {
+            trendingService.seed(film.getId(), film.getLikes().size());
+            replicationLog.filmChanged(film.getId());
+        }
+        log.debug("Добавлено {} фильмов пакетом", films.size());
+    }
+
+    /**
+     * Films stored before startup completes carry likes that no like request counted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedTrending() {
+        for (Film film : filmStorage.findAll()) {
+            trendingService.seed(film.getId(), film.getLikes().size());
+        }
+    }
+
     public Film update(Film film) {
+        return update(film, null);
+    }
+
+    public Film update(Film film, Set<Long> expectedVersions) {
         log.info("Обновление фильма: {}", film.getName());
         validReleaseDate(film);
-
-        if (inMemoryFilmStorage.findById(film.getId()).isPresent()) {
-            inMemoryFilmStorage.addFilm(film);
-            log.debug("Фильм успешно обновлен");
-            return film;
+        if (film.getId() == null) {
+            log.warn("Фильм без id не может быть обновлен");
+            throw NotFoundException.film(null);
         }
 
-        log.warn("Фильм с id = {} не найден", film.getId());
-        throw new NotFoundException("Фильм с id = " + film.getId() + " не найден.");
+        while (true) {
+            Film current = filmStorage.findById(film.getId())
+                    .orElseThrow(() -> NotFoundException.film(film.getId()));
+            checkVersion(film.getId(), expectedVersions, current.getVersion());
+            boolean replaced;
+            try (ConsistentCut.Guard guard = consistentCut.enter()) {
+                consistentCut.beforeChange(current);
+                replaced = filmStorage.replace(film, current.getVersion());
+            }
+            if (replaced) {
+                replicationLog.filmChanged(film.getId());
+                log.debug("Фильм успешно обновлен до версии {}", film.getVersion());
+                return film;
+            }
+        }
     }
 
     public Collection<Film> findAll() {
-        Collection<Film> films = inMemoryFilmStorage.findAll();
+        likeCoalescer.flush();
+        Collection<Film> films = filmStorage.findAll();
         return films;
     }
 
     public Film like(Long filmId, Long userId) {
-        Film film = inMemoryFilmStorage.findById(filmId)
-                .orElseThrow(() -> {
-                    log.warn("Фильм с id = {} не найден", filmId);
-                    return new NotFoundException("Фильм с id = " + filmId + " не найден.");
-                });
+        LikeEvent event = new LikeEvent();
+        event.begin();
+        Film film = filmStorage.findById(filmId)
+                .orElseThrow(() -> NotFoundException.film(filmId));
 
-        User user = inMemoryUserStorage.findById(userId)
-                .orElseThrow(() -> {
-                    log.warn("Пользователь с id = {} не найден", userId);
-                    return new NotFoundException("Пользователь с id = " + userId + " не найден.");
-                });
+        User user = userStorage.findById(userId)
+                .orElseThrow(() -> NotFoundException.user(userId));
 
-        film.getLikes().add(userId);
+        boolean changed = false;
+        boolean liked = false;
+        if (likeCoalescer.isEnabled()) {
+            likeCoalescer.submit(filmId, userId, true);
+            film = likeCoalescer.pendingView(film);
+        } else if (addLike(film, userId)) {
+            filmStorage.recordLike(film);
+            jsonFragmentCache.invalidateFilm(filmId);
+            replicationLog.likeChanged(filmId, userId);
+            changed = true;
+            liked = true;
+        }
+        event.finish(filmId, userId, true, likeCoalescer.isEnabled(), changed);
+        if (liked) {
+            trendingService.liked(filmId);
+            feedService.filmLiked(userId, filmId);
+        }
 
         return film;
     }
 
     public Film deleteLike(Long filmId, Long userId) {
-        Film film = inMemoryFilmStorage.findById(filmId)
-                .orElseThrow(() -> {
-                    log.warn("Фильм с id = {} не найден", filmId);
-                    return new NotFoundException("Фильм с id = " + filmId + " не найден.");
-                });
-
-        User user = inMemoryUserStorage.findById(userId)
-                .orElseThrow(() -> {
-                    log.warn("Пользователь с id = {} не найден", userId);
-                    return new NotFoundException("Пользователь с id = " + userId + " не найден.");
-                });
-
-        film.getLikes().remove(userId);
+        LikeEvent event = new LikeEvent();
+        event.begin();
+        Film film = filmStorage.findById(filmId)
+                .orElseThrow(() -> NotFoundException.film(filmId));
+
+        User user = userStorage.findById(userId)
+                .orElseThrow(() -> NotFoundException.user(userId));
+
+        boolean changed = false;
+        boolean unliked = false;
+        if (likeCoalescer.isEnabled()) {
+            likeCoalescer.submit(filmId, userId, false);
+            film = likeCoalescer.pendingView(film);
+        } else if (removeLike(film, userId)) {
+            filmStorage.recordUnlike(film);
+            jsonFragmentCache.invalidateFilm(filmId);
+            replicationLog.likeChanged(filmId, userId);
+            changed = true;
+            unliked = true;
+        }
+        event.finish(filmId, userId, false, likeCoalescer.isEnabled(), changed);
+        if (unliked) {
+            trendingService.unliked(filmId);
+        }
         log.info("Пользователь с id = {} удалил лайк у фильма с id = {}", userId, filmId);
 
         return film;
@@ -92,17 +189,135 @@ public class FilmService {
 
     public Collection<Film> getPopularFilms(int count) {
         log.info("Получение {} самых популярных фильмов", count);
+        PopularFilmsEvent event = new PopularFilmsEvent();
+        event.begin();
+        likeCoalescer.flush();
 
-        Collection<Film> popularFilms = inMemoryFilmStorage.findAll().stream()
-                .sorted(Comparator.comparingInt((Film film) -> film.getLikes().size()).reversed())
-                .limit(count)
-                .collect(Collectors.toList());
+        Collection<Film> popularFilms;
+        int scanned;
+        if (filmStorage instanceof RankedFilmStorage rankedStorage) {
+            popularFilms = rankedStorage.findPopular(count);
+            scanned = (int) filmStorage.size();
+        } else {
+            Collection<Film> films = filmStorage.findAll();
+            popularFilms = films.stream()
+                    .sorted(Comparator.comparingInt((Film film) -> film.getLikes().size()).reversed())
+                    .limit(count)
+                    .collect(Collectors.toList());
+            scanned = films.size();
+        }
+        event.finish(count, scanned, popularFilms.size());
 
         log.debug("Возвращено {} популярных фильмов", popularFilms.size());
         return popularFilms;
     }
 
-    private void validReleaseDate(Film film) {
+    public Collection<Film> getTrendingFilms(Duration window, int count) {
+        log.info("Получение {} фильмов в тренде за окно {}", count, window);
+        List<Film> trendingFilms = new ArrayList<>();
+        for (Long filmId : trendingService.findTrending(window, count)) {
+            filmStorage.findById(filmId).ifPresent(trendingFilms::add);
+        }
+        log.debug("Возвращено {} фильмов в тренде", trendingFilms.size());
+        return trendingFilms;
+    }
+
+    public List<Film> search(FilmFilter filter, int limit) {
+        if (limit < 1) {
+            throw new ValidationException("Лимит поиска должен быть положительным");
+        }
+        log.info("Поиск фильмов по фильтру {}", filter);
+        likeCoalescer.flush();
+        List<Film> films;
+        if (filmStorage instanceof ColumnarFilmStorage columnarStorage) {
+            films = columnarStorage.search(filter, limit);
+        } else {
+            films = filmStorage.findAll().stream()
+                    .filter(film -> matches(film, filter))
+                    .sorted(Comparator.comparing(Film::getId))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+        log.debug("Найдено {} фильмов", films.size());
+        return films;
+    }
+
+    public FilmSearchStats aggregate(FilmFilter filter) {
+        likeCoalescer.flush();
+        if (filmStorage instanceof ColumnarFilmStorage columnarStorage) {
+            return columnarStorage.aggregate(filter);
+        }
+        FilmSearchStats stats = new FilmSearchStats();
+        long timed = 0;
+        long duration = 0;
+        for (Film film : filmStorage.findAll()) {
+            if (matches(film, filter)) {
+                stats.setFilms(stats.getFilms() + 1);
+                stats.setTotalLikes(stats.getTotalLikes() + film.getLikes().size());
+                if (film.getDuration() != null) {
+                    timed++;
+                    duration += film.getDuration();
+                }
+            }
+        }
+        stats.setAverageLikes(stats.getFilms() == 0 ? 0 : (double) stats.getTotalLikes() / stats.getFilms());
+        stats.setAverageDuration(timed == 0 ? 0 : (double) duration / timed);
+        return stats;
+    }
+
+    public FilmCatalogStats getStats() {
+        likeCoalescer.flush();
+        return filmStorage.getStats();
+    }
+
+    private boolean addLike(Film film, long userId) {
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            consistentCut.beforeChange(film);
+            return film.getLikes().add(userId);
+        }
+    }
+
+    private boolean removeLike(Film film, long userId) {
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            consistentCut.beforeChange(film);
+            return film.getLikes().remove(userId);
+        }
+    }
+
+    private void checkVersion(Long filmId, Set<Long> expectedVersions, long currentVersion) {
+        if (expectedVersions != null && !expectedVersions.contains(currentVersion)) {
+            String expected = expectedVersions.size() == 1
+                    ? String.valueOf(expectedVersions.iterator().next()) : "из " + expectedVersions;
+            log.warn("Фильм с id = {} изменён: ожидалась версия {}, текущая {}", filmId, expected,
+                    currentVersion);
+            throw new PreconditionFailedException("Фильм с id = " + filmId + " изменён: ожидалась версия "
+                    + expected + ", текущая " + currentVersion);
+        }
+    }
+
+    private static boolean matches(Film film, FilmFilter filter) {
+        LocalDate released = film.getReleaseDate();
+        if (filter.getReleasedFrom() != null || filter.getReleasedTo() != null) {
+            if (released == null
+                    || filter.getReleasedFrom() != null && released.isBefore(filter.getReleasedFrom())
+                    || filter.getReleasedTo() != null && released.isAfter(filter.getReleasedTo())) {
+                return false;
+            }
+        }
+        Integer duration = film.getDuration();
+        if (filter.getMinDuration() != null || filter.getMaxDuration() != null) {
+            if (duration == null
+                    || filter.getMinDuration() != null && duration < filter.getMinDuration()
+                    || filter.getMaxDuration() != null && duration > filter.getMaxDuration()) {
+                return false;
+            }
+        }
+        int likes = film.getLikes().size();
+        return (filter.getMinLikes() == null || likes >= filter.getMinLikes())
+                && (filter.getMaxLikes() == null || likes <= filter.getMaxLikes());
+    }
+
+    void validReleaseDate(Film film) {
         if (film.getReleaseDate().isBefore(MIN_RELEASE_DATE)) {
             log.warn("Ошибка в дате релиза по фильму с id = {}", film.getId());
             throw new ValidationException("Дата релиза не может быть раньше 28 декабря 1895 года");
@@ -0,0 +1,181 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.FriendPath;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class FriendPathService {
+
+    private static final long NO_PARENT = Long.MIN_VALUE + 1;
+
+    private final UserService userService;
+    private final UserStorage userStorage;
+    private final int defaultMaxDepth;
+    private final int maxDepthLimit;
+    private final long nodeBudget;
+
+    public FriendPathService(UserService userService,
+                             UserStorage userStorage,
+                             @Value("${filmorate.path.default-max-depth:6}") int defaultMaxDepth,
+                             @Value("${filmorate.path.max-depth-limit:12}") int maxDepthLimit,
+                             @Value("${filmorate.path.node-budget:100000}") long nodeBudget) {
+        this.userService = userService;
+        this.userStorage = userStorage;
+        this.defaultMaxDepth = defaultMaxDepth;
+        this.maxDepthLimit = maxDepthLimit;
+        this.nodeBudget = nodeBudget;
+    }
+
+    public FriendPath findPath(Long userId, Long otherId, Integer maxDepth) {
+        int depthLimit = maxDepth == null ? defaultMaxDepth : maxDepth;
+        if (depthLimit < 1 || depthLimit > maxDepthLimit) {
+            throw new ValidationException("Глубина поиска должна быть от 1 до " + maxDepthLimit);
+        }
+        userService.findById(userId);
+        userService.findById(otherId);
+
+        FriendPath result = new FriendPath();
+        result.setFrom(userId);
+        result.setTo(otherId);
+        result.setMaxDepth(depthLimit);
+        if (userId.equals(otherId)) {
+            result.setFound(true);
+            result.setLength(0);
+            result.getPath().add(userId);
+            return result;
+        }
+
+        Search search = new Search(userId, otherId);
+        while (!search.forwardFrontier.isEmpty() && !search.backwardFrontier.isEmpty()
+                && search.forwardDepth + search.backwardDepth < depthLimit) {
+            if (search.forwardFrontier.size <= search.backwardFrontier.size) {
+                search.forwardFrontier = expandLevel(search, search.forwardFrontier, search.forward,
+                        search.backward, ++search.forwardDepth);
+            } else {
+                search.backwardFrontier = expandLevel(search, search.backwardFrontier, search.backward,
+                        search.forward, ++search.backwardDepth);
+            }
+            if (search.meeting != NO_PARENT || search.budgetExhausted) {
+                break;
+            }
+        }
+        if (search.budgetExhausted) {
+            // a level cut short may have missed a shorter meeting, so no path is better than a wrong one
+            search.meeting = NO_PARENT;
+        }
+
+        result.setNodesExpanded(search.expanded);
+        result.setNodesVisited(search.forward.size() + search.backward.size());
+        result.setBudgetExhausted(search.budgetExhausted);
+        if (search.meeting != NO_PARENT) {
+            result.setFound(true);
+            result.setPath(buildPath(search));
+            result.setLength(result.getPath().size() - 1);
+        }
+        log.debug("Поиск пути {} -> {}: найден = {}, раскрыто {} узлов",
+                userId, otherId, result.isFound(), search.expanded);
+        return result;
+    }
+
+    /**
+     * Expands the whole level before the caller looks at the meeting node, so the best meeting
+     * of the level wins rather than the first one found. The budget is charged for every
+     * visited node, which also bounds the frontiers, since a node enters a frontier only once.
+     */
+    private Frontier expandLevel(Search search, Frontier frontier, LongVisitMap visited, LongVisitMap other,
+                                 int depth) {
+        Frontier next = new Frontier();
+        for (int i = 0; i < frontier.size; i++) {
+            long node = frontier.nodes[i];
+            search.expanded++;
+            for (Long friendId : friendsOf(node)) {
+                if (visited.contains(friendId)) {
+                    continue;
+                }
+                if (search.forward.size() + search.backward.size() >= nodeBudget) {
+                    search.budgetExhausted = true;
+                    return next;
+                }
+                visited.putIfAbsent(friendId, node, depth);
+                next.add(friendId);
+                if (other.contains(friendId)) {
+                    int length = depth + other.depthOf(friendId);
+                    if (length < search.bestLength) {
+                        search.bestLength = length;
+                        search.meeting = friendId;
+                    }
+                }
+            }
+        }
+        return next;
+    }
+
+    private Set<Long> friendsOf(long userId) {
+        return userStorage.findById(userId)
+                .map(User::getFriends)
+                .orElse(Collections.emptySet());
+    }
+
+    private List<Long> buildPath(Search search) {
+        List<Long> path = new ArrayList<>();
+        for (long node = search.meeting; node != NO_PARENT; node = search.forward.parentOf(node)) {
+            path.add(node);
+        }
+        Collections.reverse(path);
+        for (long node = search.backward.parentOf(search.meeting); node != NO_PARENT;
+             node = search.backward.parentOf(node)) {
+            path.add(node);
+        }
+        return path;
+    }
+
+    private static final class Search {
+
+        private final LongVisitMap forward = new LongVisitMap(64);
+        private final LongVisitMap backward = new LongVisitMap(64);
+        private Frontier forwardFrontier = new Frontier();
+        private Frontier backwardFrontier = new Frontier();
+        private int forwardDepth;
+        private int backwardDepth;
+        private long expanded;
+        private boolean budgetExhausted;
+        private long meeting = NO_PARENT;
+        private int bestLength = Integer.MAX_VALUE;
+
+        private Search(long from, long to) {
+            forward.putIfAbsent(from, NO_PARENT, 0);
+            backward.putIfAbsent(to, NO_PARENT, 0);
+            forwardFrontier.add(from);
+            backwardFrontier.add(to);
+        }
+    }
+
+    private static final class Frontier {
+
+        private long[] nodes = new long[16];
+        private int size;
+
+        private void add(long node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            nodes[size++] = node;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
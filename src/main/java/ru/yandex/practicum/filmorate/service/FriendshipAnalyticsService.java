@@ -0,0 +1,201 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.model.FriendshipStats;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Service
+public class FriendshipAnalyticsService {
+
+    private final UserStorage userStorage;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private final AtomicBoolean statsOutdated = new AtomicBoolean(true);
+    private final ReentrantLock recomputeLock = new ReentrantLock();
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile ConcurrentUnionFind unionFind = new ConcurrentUnionFind();
+    private volatile ConcurrentUnionFind rebuilding;
+    private volatile FriendshipStats stats;
+
+    public FriendshipAnalyticsService(UserStorage userStorage,
+                                      @Value("${filmorate.analytics.parallelism:0}") int parallelism) {
+        this.userStorage = userStorage;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public void onUserCreated(long userId) {
+        swapLock.readLock().lock();
+        try {
+            unionFind.add(userId);
+            statsOutdated.set(true);
+            ConcurrentUnionFind next = rebuilding;
+            if (next != null) {
+                next.add(userId);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public void onFriendshipAdded(long userId, long friendId) {
+        swapLock.readLock().lock();
+        try {
+            unionFind.union(userId, friendId);
+            statsOutdated.set(true);
+            ConcurrentUnionFind next = rebuilding;
+            if (next != null) {
+                next.union(userId, friendId);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    public boolean isStale() {
+        return dirty.get();
+    }
+
+    public boolean connected(long userId, long otherId) {
+        return unionFind.connected(userId, otherId);
+    }
+
+    /**
+     * The last computed statistics; every figure comes from the same pass over the users.
+     * Additions keep {@link #connected} exact but only mark these figures stale until the
+     * next recompute, so the component count never disagrees with the component sizes.
+     */
+    public FriendshipStats getStats() {
+        FriendshipStats current = stats;
+        if (current == null) {
+            current = recompute();
+        }
+        FriendshipStats result = new FriendshipStats();
+        BeanUtils.copyProperties(current, result);
+        result.setStale(dirty.get() || statsOutdated.get());
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${filmorate.analytics.recompute-interval:PT5M}")
+    public void recomputeIfDirty() {
+        if (dirty.get() || statsOutdated.get()) {
+            recompute();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void coldStart() {
+        recompute();
+    }
+
+    public FriendshipStats recompute() {
+        recomputeLock.lock();
+        try {
+            long start = System.nanoTime();
+            dirty.set(false);
+            statsOutdated.set(false);
+            ConcurrentUnionFind next = new ConcurrentUnionFind();
+            rebuilding = next;
+            long[] ids = userStorage.findAllIds();
+            FriendshipStats computed = pool.submit(() -> compute(ids, next)).join();
+
+            swapLock.writeLock().lock();
+            try {
+                unionFind = next;
+                rebuilding = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            computed.setComputeMillis((System.nanoTime() - start) / 1_000_000);
+            stats = computed;
+            log.info("Пересчитана статистика дружбы: {} пользователей, {} компонент, крупнейшая {}, за {} мс",
+                    computed.getUsers(), computed.getComponents(), computed.getLargestComponentSize(),
+                    computed.getComputeMillis());
+            return computed;
+        } finally {
+            recomputeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Reads every friend set exactly once, so the degree figures and the components describe
+     * the same adjacency even while friendships keep changing underneath. Works on the storage's
+     * adjacency view, so no user is built for it.
+     */
+    private FriendshipStats compute(long[] ids, ConcurrentUnionFind next) {
+        int[] degrees = new int[ids.length];
+        IntStream.range(0, ids.length).parallel().forEach(i -> {
+            long id = ids[i];
+            next.add(id);
+            degrees[i] = userStorage.forEachFriendId(id, friendId -> next.union(id, friendId));
+        });
+
+        ConcurrentMap<Long, Long> componentSizes = Arrays.stream(ids).parallel().boxed()
+                .collect(Collectors.groupingByConcurrent(next::find, Collectors.counting()));
+        Map<Integer, Long> degreeBuckets = new TreeMap<>();
+        long degreeSum = 0;
+        long maxDegree = 0;
+        for (int degree : degrees) {
+            degreeBuckets.merge(bucketOf(degree), 1L, Long::sum);
+            degreeSum += degree;
+            maxDegree = Math.max(maxDegree, degree);
+        }
+        long largest = componentSizes.values().stream().mapToLong(Long::longValue).max().orElse(0);
+
+        FriendshipStats result = new FriendshipStats();
+        result.setComputedAt(Instant.now());
+        result.setUsers(ids.length);
+        result.setFriendships(degreeSum / 2);
+        result.setComponents(componentSizes.size());
+        result.setLargestComponentSize(largest);
+        result.setLargestComponentShare(ids.length == 0 ? 0 : (double) largest / ids.length);
+        result.setIsolatedUsers(degreeBuckets.getOrDefault(0, 0L));
+        result.setAverageDegree(ids.length == 0 ? 0 : (double) degreeSum / ids.length);
+        result.setMaxDegree(maxDegree);
+        for (Map.Entry<Integer, Long> bucket : degreeBuckets.entrySet()) {
+            result.getDegreeDistribution().put(bucketLabel(bucket.getKey()), bucket.getValue());
+        }
+        return result;
+    }
+
+    private static int bucketOf(int degree) {
+        return degree == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(degree);
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket <= 1) {
+            return String.valueOf(bucket);
+        }
+        long from = 1L << (bucket - 1);
+        return from + "-" + ((from << 1) - 1);
+    }
+}
@@ -0,0 +1,355 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ImportService {
+
+    public static final String FORMAT_JSON = "json";
+    public static final String FORMAT_CSV = "csv";
+
+    private final FilmService filmService;
+    private final UserService userService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxBatchesInFlight;
+    private final long progressInterval;
+    private final Path rejectDir;
+    private final Map<String, ImportReport> activeImports = new ConcurrentHashMap<>();
+
+    public ImportService(FilmService filmService,
+                         UserService userService,
+                         Validator validator,
+                         ObjectMapper objectMapper,
+                         @Value("${filmorate.import.workers:0}") int workers,
+                         @Value("${filmorate.import.batch-size:1000}") int batchSize,
+                         @Value("${filmorate.import.progress-interval:10000}") long progressInterval,
+                         @Value("${filmorate.import.reject-dir:${java.io.tmpdir}}") String rejectDir) {
+        this.filmService = filmService;
+        this.userService = userService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.workers = Executors.newFixedThreadPool(threads);
+        this.maxBatchesInFlight = threads * 2;
+        this.batchSize = batchSize;
+        this.progressInterval = progressInterval;
+        this.rejectDir = Path.of(rejectDir);
+    }
+
+    /**
+     * Imported rows get new ids, so like and friend ids in them refer to the source system and
+     * are dropped; relations are created afterwards through the API, which keeps both sides.
+     */
+    public ImportReport importFilms(InputStream in, String format) {
+        return runImport("films", Film.class, in, format, film -> {
+            checkConstraints(film);
+            filmService.validReleaseDate(film);
+            film.getLikes().clear();
+        }, films -> {
+            filmService.addAll(films);
+            return List.of();
+        });
+    }
+
+    public ImportReport importUsers(InputStream in, String format) {
+        return runImport("users", User.class, in, format, user -> {
+            checkConstraints(user);
+            userService.validateUser(user);
+            userService.setNameIfEmpty(user);
+            user.getFriends().clear();
+        }, userService::createAll);
+    }
+
+    public Collection<ImportReport> getActiveImports() {
+        return activeImports.values();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private <T> ImportReport runImport(String entity, Class<T> type, InputStream in, String format,
+                                       Consumer<T> check, Function<List<T>, List<T>> writer) {
+        ImportReport report = new ImportReport();
+        report.setId(UUID.randomUUID().toString());
+        report.setEntity(entity);
+        report.setFormat(format);
+        activeImports.put(report.getId(), report);
+        log.info("Начат импорт {} из {}, id = {}", entity, format, report.getId());
+
+        long start = System.nanoTime();
+        try (RejectWriter rejects = new RejectWriter(entity, report)) {
+            Deque<Future<BatchResult<T>>> inFlight = new ArrayDeque<>();
+            List<Row> batch = new ArrayList<>(batchSize);
+            Consumer<Row> collector = row -> {
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    List<Row> full = new ArrayList<>(batch);
+                    batch.clear();
+                    inFlight.add(workers.submit(() -> validateBatch(full, type, check)));
+                    if (inFlight.size() >= maxBatchesInFlight) {
+                        applyBatch(inFlight.poll(), writer, rejects, report, start);
+                    }
+                }
+            };
+
+            if (!FORMAT_CSV.equals(format) && !FORMAT_JSON.equals(format)) {
+                throw new ValidationException("Неподдерживаемый формат импорта: " + format);
+            }
+            try {
+                if (FORMAT_CSV.equals(format)) {
+                    readCsv(in, collector);
+                } else {
+                    readJson(in, collector, rejects, report);
+                }
+            } catch (ValidationException e) {
+                // the rows read before the malformed spot are still written, so the report
+                // describes a clean prefix of the input rather than an arbitrary subset
+                report.setError(e.getMessage());
+            }
+
+            if (!batch.isEmpty()) {
+                List<Row> last = new ArrayList<>(batch);
+                inFlight.add(workers.submit(() -> validateBatch(last, type, check)));
+            }
+            while (!inFlight.isEmpty()) {
+                applyBatch(inFlight.poll(), writer, rejects, report, start);
+            }
+            report.setStatus(report.getError() == null
+                    ? ImportReport.ImportStatus.DONE
+                    : ImportReport.ImportStatus.FAILED);
+        } catch (RuntimeException e) {
+            report.setStatus(ImportReport.ImportStatus.FAILED);
+            report.setError(e.getMessage());
+            log.error("Импорт {} прерван после записи {} строк: {}", entity, report.getAccepted(), e.getMessage());
+            throw e;
+        } finally {
+            updateThroughput(report, start);
+            activeImports.remove(report.getId());
+        }
+
+        if (report.getStatus() == ImportReport.ImportStatus.FAILED) {
+            log.warn("Импорт {} прерван некорректными данными после записи {} строк: {}",
+                    entity, report.getAccepted(), report.getError());
+            return report;
+        }
+        log.info("Импорт {} завершён: принято {}, отклонено {}, {} зап/с",
+                entity, report.getAccepted(), report.getRejected(), Math.round(report.getRecordsPerSecond()));
+        return report;
+    }
+
+    private void readJson(InputStream in, Consumer<Row> collector, RejectWriter rejects, ImportReport report) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Ожидается JSON-массив объектов");
+            }
+            long rowNumber = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                rowNumber++;
+                JsonNode node = objectMapper.readTree(parser);
+                if (!node.isObject()) {
+                    report.setProcessed(report.getProcessed() + 1);
+                    rejects.reject(rowNumber, "Ожидается JSON-объект", node.toString());
+                    continue;
+                }
+                collector.accept(new Row(rowNumber, node));
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Некорректный JSON: " + e.getMessage());
+        }
+    }
+
+    private void readCsv(InputStream in, Consumer<Row> collector) {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerForMapOf(String.class)
+                .with(schema)
+                .readValues(in)) {
+            long rowNumber = 0;
+            while (rows.hasNextValue()) {
+                rowNumber++;
+                Map<String, String> values = rows.nextValue();
+                values.values().removeIf(String::isEmpty);
+                collector.accept(new Row(rowNumber, objectMapper.valueToTree(values)));
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Некорректный CSV: " + e.getMessage());
+        }
+    }
+
+    private <T> BatchResult<T> validateBatch(List<Row> rows, Class<T> type, Consumer<T> check) {
+        BatchResult<T> result = new BatchResult<>(rows.size());
+        for (Row row : rows) {
+            try {
+                T value = objectMapper.treeToValue(row.node(), type);
+                check.accept(value);
+                result.accepted().add(value);
+                result.acceptedRows().add(row);
+            } catch (ValidationException e) {
+                result.rejected().add(new Rejected(row, e.getMessage()));
+            } catch (IOException | IllegalArgumentException e) {
+                result.rejected().add(new Rejected(row, "Некорректные данные: " + e.getMessage()));
+            }
+        }
+        return result;
+    }
+
+    private <T> void applyBatch(Future<BatchResult<T>> future, Function<List<T>, List<T>> writer, RejectWriter rejects,
+                                ImportReport report, long start) {
+        BatchResult<T> result;
+        try {
+            result = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Импорт прерван", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка проверки пакета: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        int accepted = result.accepted().size();
+        if (accepted > 0) {
+            List<T> conflicts = writer.apply(result.accepted());
+            if (!conflicts.isEmpty()) {
+                Map<T, Row> rows = new IdentityHashMap<>();
+                for (int i = 0; i < accepted; i++) {
+                    rows.put(result.accepted().get(i), result.acceptedRows().get(i));
+                }
+                for (T conflict : conflicts) {
+                    result.rejected().add(new Rejected(rows.get(conflict), "Запись конфликтует с уже существующей"));
+                }
+                accepted -= conflicts.size();
+            }
+        }
+        for (Rejected rejected : result.rejected()) {
+            rejects.reject(rejected.row().number(), rejected.reason(), rejected.row().node().toString());
+        }
+
+        long before = report.getProcessed();
+        report.setProcessed(before + result.size());
+        report.setAccepted(report.getAccepted() + accepted);
+        if (before / progressInterval != report.getProcessed() / progressInterval) {
+            updateThroughput(report, start);
+            log.info("Импорт {}: обработано {} записей (принято {}, отклонено {}), {} зап/с",
+                    report.getEntity(), report.getProcessed(), report.getAccepted(), report.getRejected(),
+                    Math.round(report.getRecordsPerSecond()));
+        }
+    }
+
+    private void updateThroughput(ImportReport report, long start) {
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        report.setElapsedMillis(elapsedNanos / 1_000_000);
+        report.setRecordsPerSecond(report.getProcessed() * 1e9 / elapsedNanos);
+    }
+
+    private <T> void checkConstraints(T value) {
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private record Row(long number, JsonNode node) {
+    }
+
+    private record Rejected(Row row, String reason) {
+    }
+
+    private record BatchResult<T>(int size, List<T> accepted, List<Row> acceptedRows, List<Rejected> rejected) {
+        BatchResult(int size) {
+            this(size, new ArrayList<>(size), new ArrayList<>(size), new ArrayList<>());
+        }
+    }
+
+    private class RejectWriter implements AutoCloseable {
+
+        private final String entity;
+        private final ImportReport report;
+        private BufferedWriter out;
+
+        RejectWriter(String entity, ImportReport report) {
+            this.entity = entity;
+            this.report = report;
+        }
+
+        void reject(long rowNumber, String reason, String data) {
+            report.setRejected(report.getRejected() + 1);
+            try {
+                if (out == null) {
+                    Files.createDirectories(rejectDir);
+                    Path file = Files.createTempFile(rejectDir, entity + "-rejects-", ".jsonl");
+                    out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                    report.setRejectFile(file.toString());
+                    log.warn("Отклонённые записи импорта {} пишутся в {}", entity, file);
+                }
+                out.write(objectMapper.writeValueAsString(Map.of(
+                        "row", rowNumber,
+                        "reason", reason,
+                        "data", data)));
+                out.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    log.warn("Не удалось закрыть файл отклонённых записей: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.replication.ReplicationLog;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.time.Duration;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class LikeCoalescer {
+
+    private final FilmStorage filmStorage;
+    private final ReplicationLog replicationLog;
+    private final JsonFragmentCache jsonFragmentCache;
+    private final FeedService feedService;
+    private final TrendingService trendingService;
+    private final ConsistentCut consistentCut;
+    private final boolean enabled;
+    private final int maxPending;
+    private final Queue<LikeEvent> queue = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Map<Long, LikeEvent>> pendingByFilm = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    public LikeCoalescer(FilmStorage filmStorage,
+                         ReplicationLog replicationLog,
+                         JsonFragmentCache jsonFragmentCache,
+                         FeedService feedService,
+                         TrendingService trendingService,
+                         ConsistentCut consistentCut,
+                         @Value("${filmorate.likes.coalescing.enabled:false}") boolean enabled,
+                         @Value("${filmorate.likes.coalescing.flush-interval:PT0.05S}") Duration flushInterval,
+                         @Value("${filmorate.likes.coalescing.max-pending:10000}") int maxPending) {
+        this.filmStorage = filmStorage;
+        this.replicationLog = replicationLog;
+        this.jsonFragmentCache = jsonFragmentCache;
+        this.feedService = feedService;
+        this.trendingService = trendingService;
+        this.consistentCut = consistentCut;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        if (enabled) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "filmorate-like-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = Math.max(flushInterval.toMillis(), 1);
+            flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(long filmId, long userId, boolean like) {
+        LikeEvent event = new LikeEvent(filmId, userId, like);
+        track(event);
+        queue.add(event);
+        if (pending.incrementAndGet() >= maxPending) {
+            flush();
+        }
+    }
+
+    /**
+     * The film as it will look once the pending changes to it are applied. The stored film only
+     * changes at the next flush, so responses get a view that overlays the pending events on the
+     * stored like set without copying it. The view is a Film subclass, so it bypasses the JSON
+     * fragment cache, which is invalidated only when a flush changes the stored film.
+     */
+    public Film pendingView(Film film) {
+        Map<Long, LikeEvent> events = pendingByFilm.get(film.getId());
+        return events == null ? film : new PendingFilm(film, events);
+    }
+
+    public void flush() {
+        if (pending.get() == 0) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Long, List<LikeEvent>> byFilm = new LinkedHashMap<>();
+            int drained = 0;
+            LikeEvent event;
+            while ((event = queue.poll()) != null) {
+                byFilm.computeIfAbsent(event.filmId(), id -> new ArrayList<>()).add(event);
+                drained++;
+            }
+            pending.addAndGet(-drained);
+            byFilm.forEach((filmId, events) -> {
+                filmStorage.findById(filmId).ifPresent(film -> apply(film, events));
+                untrack(filmId, events);
+            });
+            log.debug("Применено {} отложенных лайков для {} фильмов", drained, byFilm.size());
+        } catch (RuntimeException e) {
+            log.error("Ошибка применения отложенных лайков: {}", e.getMessage(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flush();
+        }
+    }
+
+    /**
+     * Applies the events in order; trending and feed hear only about events that actually
+     * changed the like set, so a repeated like or unlike of the same pair fires nothing.
+     */
+    private void apply(Film film, List<LikeEvent> events) {
+        for (LikeEvent event : events) {
+            if (event.like()) {
+                if (changeLike(film, event)) {
+                    filmStorage.recordLike(film);
+                    changed(film, event);
+                    trendingService.liked(film.getId());
+                    feedService.filmLiked(event.userId(), film.getId());
+                }
+            } else if (changeLike(film, event)) {
+                filmStorage.recordUnlike(film);
+                changed(film, event);
+                trendingService.unliked(film.getId());
+            }
+        }
+    }
+
+    /**
+     * Publishes the event to the views of its film. The per-film map is dropped once empty, so a
+     * writer that raced the drop puts its event again into the map that replaced it.
+     */
+    private void track(LikeEvent event) {
+        while (true) {
+            Map<Long, LikeEvent> events = pendingByFilm.computeIfAbsent(event.filmId(),
+                    id -> new ConcurrentHashMap<>());
+            events.put(event.userId(), event);
+            if (pendingByFilm.get(event.filmId()) == events) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called after the events are applied to the stored film. An event is removed only if no
+     * later event for the same user replaced it; an equal later one is already reflected.
+     */
+    private void untrack(long filmId, List<LikeEvent> applied) {
+        Map<Long, LikeEvent> events = pendingByFilm.get(filmId);
+        if (events == null) {
+            return;
+        }
+        for (LikeEvent event : applied) {
+            events.remove(event.userId(), event);
+        }
+        if (events.isEmpty() && pendingByFilm.remove(filmId, events)) {
+            events.values().forEach(this::track);
+        }
+    }
+
+    private boolean changeLike(Film film, LikeEvent event) {
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            consistentCut.beforeChange(film);
+            return event.like() ? film.getLikes().add(event.userId()) : film.getLikes().remove(event.userId());
+        }
+    }
+
+    private void changed(Film film, LikeEvent event) {
+        jsonFragmentCache.invalidateFilm(film.getId());
+        replicationLog.likeChanged(film.getId(), event.userId());
+    }
+
+    private record LikeEvent(long filmId, long userId, boolean like) {
+    }
+
+    private static final class PendingFilm extends Film {
+
+        private final Set<Long> likes;
+
+        private PendingFilm(Film film, Map<Long, LikeEvent> events) {
+            BeanUtils.copyProperties(film, this, "likes");
+            likes = new PendingLikes(film.getLikes(), events);
+        }
+
+        @Override
+        public Set<Long> getLikes() {
+            return likes;
+        }
+    }
+
+    /**
+     * Read-only like set: a pending event decides membership of its user, the stored set
+     * answers for everyone else. Size and iteration cost the stored set's plus the events.
+     */
+    private static final class PendingLikes extends AbstractSet<Long> {
+
+        private final Set<Long> stored;
+        private final Map<Long, LikeEvent> events;
+
+        private PendingLikes(Set<Long> stored, Map<Long, LikeEvent> events) {
+            this.stored = stored;
+            this.events = events;
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            LikeEvent event = events.get(value);
+            return event != null ? event.like() : stored.contains(value);
+        }
+
+        @Override
+        public int size() {
+            int size = stored.size();
+            for (LikeEvent event : events.values()) {
+                if (event.like() != stored.contains(event.userId())) {
+                    size += event.like() ? 1 : -1;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<Long> iterator() {
+            return Stream.concat(
+                    stored.stream().filter(this::contains),
+                    events.values().stream()
+                            .filter(event -> event.like() && !stored.contains(event.userId()))
+                            .map(LikeEvent::userId)).iterator();
+        }
+    }
+}
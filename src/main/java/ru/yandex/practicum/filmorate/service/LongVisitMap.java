@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from node id to its BFS parent and depth, without boxing.
+ */
+class LongVisitMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] parents;
+    private int[] depths;
+    private int size;
+
+    LongVisitMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    boolean contains(long key) {
+        return keys[indexOf(key)] != EMPTY;
+    }
+
+    boolean putIfAbsent(long key, long parent, int depth) {
+        int index = indexOf(key);
+        if (keys[index] != EMPTY) {
+            return false;
+        }
+        keys[index] = key;
+        parents[index] = parent;
+        depths[index] = depth;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    long parentOf(long key) {
+        return parents[indexOf(key)];
+    }
+
+    int depthOf(long key) {
+        return depths[indexOf(key)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int index = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldParents = parents;
+        int[] oldDepths = depths;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                parents[index] = oldParents[i];
+                depths[index] = oldDepths[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        parents = new long[capacity];
+        depths = new int[capacity];
+    }
+}
@@ -0,0 +1,94 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.exception.CapacityExceededException;
+import ru.yandex.practicum.filmorate.model.MemoryReport;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.OffHeapUserStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compares the storages' incremental heap estimates with a budget. Crossing the warn level
+ * logs once per crossing; at the reject level new films and users are refused with 503
+ * until deletes or a restart bring the estimate down. A zero budget means 60% of -Xmx.
+ */
+@Slf4j
+@Service
+public class MemoryBudgetService {
+
+    private static final double DEFAULT_HEAP_SHARE = 0.6;
+
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final long budgetBytes;
+    private final long warnBytes;
+    private final long rejectBytes;
+    private final AtomicBoolean warned = new AtomicBoolean();
+
+    public MemoryBudgetService(FilmStorage filmStorage,
+                               UserStorage userStorage,
+                               @Value("${filmorate.memory.budget:0B}") DataSize budget,
+                               @Value("${filmorate.memory.warn-ratio:0.8}") double warnRatio,
+                               @Value("${filmorate.memory.reject-ratio:0.95}") double rejectRatio) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.budgetBytes = budget.toBytes() > 0
+                ? budget.toBytes()
+                : (long) (Runtime.getRuntime().maxMemory() * DEFAULT_HEAP_SHARE);
+        this.warnBytes = (long) (budgetBytes * warnRatio);
+        this.rejectBytes = (long) (budgetBytes * rejectRatio);
+    }
+
+    public void checkCreate() {
+        long estimated = estimateHeapBytes();
+        if (estimated >= rejectBytes) {
+            throw new CapacityExceededException("Хранилище заполнено: оценка " + estimated
+                    + " байт при бюджете " + budgetBytes + " байт. Новые записи временно не принимаются.");
+        }
+        if (estimated >= warnBytes) {
+            if (warned.compareAndSet(false, true)) {
+                log.warn("Оценка памяти хранилищ {} байт превысила порог предупреждения {} байт",
+                        estimated, warnBytes);
+            }
+        } else {
+            warned.set(false);
+        }
+    }
+
+    public MemoryReport getReport() {
+        MemoryReport report = new MemoryReport();
+        report.getComponents().putAll(filmStorage.getHeapFootprint());
+        report.getComponents().putAll(userStorage.getHeapFootprint());
+        long estimated = report.getComponents().values().stream().mapToLong(Long::longValue).sum();
+        report.setEstimatedHeapBytes(estimated);
+        report.setBudgetBytes(budgetBytes);
+        report.setWarnBytes(warnBytes);
+        report.setRejectBytes(rejectBytes);
+        report.setStatus(estimated >= rejectBytes ? MemoryReport.BudgetStatus.REJECTING
+                : estimated >= warnBytes ? MemoryReport.BudgetStatus.WARNING
+                : MemoryReport.BudgetStatus.OK);
+        if (userStorage instanceof OffHeapUserStorage offHeap) {
+            report.setOffHeapBytes(offHeap.getOffHeapBytes());
+        }
+        Runtime runtime = Runtime.getRuntime();
+        report.setHeapUsedBytes(runtime.totalMemory() - runtime.freeMemory());
+        report.setHeapMaxBytes(runtime.maxMemory());
+        return report;
+    }
+
+    private long estimateHeapBytes() {
+        long total = 0;
+        for (long bytes : filmStorage.getHeapFootprint().values()) {
+            total += bytes;
+        }
+        for (long bytes : userStorage.getHeapFootprint().values()) {
+            total += bytes;
+        }
+        return total;
+    }
+}
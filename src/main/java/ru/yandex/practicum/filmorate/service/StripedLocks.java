@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of locks addressed by entity id. Pairs are always locked in stripe order,
+ * so two-sided updates cannot deadlock, and operations on disjoint pairs rarely share a stripe.
+ */
+class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    StripedLocks(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(stripeCount, 2) - 1) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    <T> T withLock(long id, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(id)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void withLocks(long firstId, long secondId, Runnable action) {
+        int first = stripeOf(firstId);
+        int second = stripeOf(secondId);
+        ReentrantLock outer = stripes[Math.min(first, second)];
+        ReentrantLock inner = stripes[Math.max(first, second)];
+        outer.lock();
+        try {
+            if (inner != outer) {
+                inner.lock();
+            }
+            try {
+                action.run();
+            } finally {
+                if (inner != outer) {
+                    inner.unlock();
+                }
+            }
+        } finally {
+            outer.unlock();
+        }
+    }
+
+    private int stripeOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
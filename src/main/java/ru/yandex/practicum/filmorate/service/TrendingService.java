@@ -0,0 +1,220 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Trending films ranked by exponentially decayed like counts, one ranking per configured
+ * window. A like's weight halves every window. Scores use forward decay in log2 space:
+ * a like at time t adds 2^(t / window) to a film's sum, so rankings never need re-decaying
+ * and a top-K read walks K entries of the ordered index. Removing a like subtracts the
+ * average like: like times are not kept, so the decayed sum shrinks by one like's share and
+ * the film drops out only when its last counted like is gone. A film whose score has decayed
+ * below 2^-{@value #NEGLIGIBLE} of a fresh like is dropped when the window is next written.
+ * <p>
+ * Likes whose time is unknown, such as the ones a film already has when it is stored, imported
+ * or loaded at startup, are seeded as given at the time of seeding.
+ * <p>
+ * In space-saving mode each window tracks at most capacity films. A new film replaces the
+ * lowest-ranked one and inherits its score (Space-Saving), which keeps the heavy hitters
+ * with bounded memory.
+ */
+@Slf4j
+@Service
+public class TrendingService {
+
+    public static final String MODE_EXACT = "exact";
+    public static final String MODE_SPACE_SAVING = "space-saving";
+    static final int NEGLIGIBLE = 30;
+
+    private final Map<Duration, Window> windows = new LinkedHashMap<>();
+    private final Duration defaultWindow;
+
+    public TrendingService(@Value("${filmorate.trending.windows:PT1H,P1D,P7D}") List<Duration> windows,
+                           @Value("${filmorate.trending.default-window:P1D}") Duration defaultWindow,
+                           @Value("${filmorate.trending.mode:exact}") String mode,
+                           @Value("${filmorate.trending.capacity:10000}") int capacity) {
+        int limit = switch (mode) {
+            case MODE_EXACT -> Integer.MAX_VALUE;
+            case MODE_SPACE_SAVING -> Math.max(capacity, 1);
+            default -> throw new IllegalArgumentException("Неизвестный режим трендов: " + mode);
+        };
+        for (Duration window : windows) {
+            if (window.isZero() || window.isNegative()) {
+                throw new IllegalArgumentException("Окно трендов должно быть положительным: " + window);
+            }
+            this.windows.put(window, new Window(window.toMillis(), limit));
+        }
+        if (!this.windows.containsKey(defaultWindow)) {
+            throw new IllegalArgumentException("Окно трендов по умолчанию " + defaultWindow + " не входит в "
+                    + this.windows.keySet());
+        }
+        this.defaultWindow = defaultWindow;
+        log.debug("Тренды: окна {}, режим {}", this.windows.keySet(), mode);
+    }
+
+    public void liked(long filmId) {
+        liked(filmId, System.currentTimeMillis());
+    }
+
+    /**
+     * Counts likes given at a known time, as replicated likes carry the leader's time.
+     */
+    public void liked(long filmId, int likes, long timestamp) {
+        if (likes <= 0) {
+            return;
+        }
+        for (Window window : windows.values()) {
+            window.add(filmId, likes, timestamp, false);
+        }
+    }
+
+    /**
+     * Counts the likes a film already has unless the window tracks the film, so likes that were
+     * counted one by one are not counted again.
+     */
+    public void seed(long filmId, int likes) {
+        if (likes <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Window window : windows.values()) {
+            window.add(filmId, likes, now, true);
+        }
+    }
+
+    public void unliked(long filmId) {
+        for (Window window : windows.values()) {
+            window.subtract(filmId);
+        }
+    }
+
+    public List<Long> findTrending(Duration window, int count) {
+        Window ranking = windows.get(window == null ? defaultWindow : window);
+        if (ranking == null) {
+            throw new ValidationException("Окно " + window + " не поддерживается, доступны " + windows.keySet());
+        }
+        return ranking.top(count);
+    }
+
+    void liked(long filmId, long timestamp) {
+        liked(filmId, 1, timestamp);
+    }
+
+    int tracked(Duration window) {
+        return windows.get(window).size();
+    }
+
+    private static final class Entry {
+
+        private final long filmId;
+        private double logScore;
+        private long likes;
+
+        private Entry(long filmId, double logScore, long likes) {
+            this.filmId = filmId;
+            this.logScore = logScore;
+            this.likes = likes;
+        }
+    }
+
+    private static final class Window {
+
+        private static final Comparator<Entry> RANKING = Comparator.comparingDouble((Entry e) -> e.logScore)
+                .reversed()
+                .thenComparingLong(e -> e.filmId);
+
+        private final double halfLifeMillis;
+        private final int capacity;
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final TreeSet<Entry> ranking = new TreeSet<>(RANKING);
+
+        private Window(long halfLifeMillis, int capacity) {
+            this.halfLifeMillis = halfLifeMillis;
+            this.capacity = capacity;
+        }
+
+        synchronized void add(long filmId, int likes, long timestamp, boolean ifAbsent) {
+            double now = timestamp / halfLifeMillis;
+            prune(now);
+            double weight = now + log2(likes);
+            Entry entry = entries.get(filmId);
+            if (entry != null) {
+                if (ifAbsent) {
+                    return;
+                }
+                ranking.remove(entry);
+                entry.logScore = logAdd(entry.logScore, weight);
+                entry.likes += likes;
+            } else if (entries.size() < capacity) {
+                entry = new Entry(filmId, weight, likes);
+                entries.put(filmId, entry);
+            } else {
+                Entry evicted = ranking.pollLast();
+                entries.remove(evicted.filmId);
+                entry = new Entry(filmId, logAdd(evicted.logScore, weight), evicted.likes + likes);
+                entries.put(filmId, entry);
+            }
+            ranking.add(entry);
+        }
+
+        /**
+         * The ranking ends with the lowest scores, so the negligible entries are at its tail.
+         */
+        private void prune(double now) {
+            while (!ranking.isEmpty() && ranking.last().logScore < now - NEGLIGIBLE) {
+                entries.remove(ranking.pollLast().filmId);
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void subtract(long filmId) {
+            Entry entry = entries.get(filmId);
+            if (entry == null) {
+                return;
+            }
+            ranking.remove(entry);
+            if (entry.likes <= 1) {
+                entries.remove(filmId);
+                return;
+            }
+            // score * (1 - 1 / likes): the decayed sum loses one average like
+            entry.logScore += log2(1 - 1.0 / entry.likes);
+            entry.likes--;
+            ranking.add(entry);
+        }
+
+        synchronized List<Long> top(int count) {
+            List<Long> result = new ArrayList<>(Math.max(0, Math.min(count, ranking.size())));
+            Iterator<Entry> iterator = ranking.iterator();
+            while (result.size() < count && iterator.hasNext()) {
+                result.add(iterator.next().filmId);
+            }
+            return result;
+        }
+
+        private static double logAdd(double a, double b) {
+            double max = Math.max(a, b);
+            return max + log2(1 + Math.pow(2, -Math.abs(a - b)));
+        }
+
+        private static double log2(double value) {
+            return Math.log(value) / Math.log(2);
+        }
+    }
+}
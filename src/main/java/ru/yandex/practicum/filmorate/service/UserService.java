@@ -4,13 +4,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.PreconditionFailedException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.jfr.FriendshipEvent;
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
 import ru.yandex.practicum.filmorate.model.User;
-import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.replication.ReplicationLog;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
 
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -18,59 +24,162 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserService {
 
-    private final InMemoryUserStorage inMemoryUserStorage;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private final UserStorage userStorage;
+    private final FriendshipAnalyticsService friendshipAnalyticsService;
+    private final MemoryBudgetService memoryBudgetService;
+    private final ReplicationLog replicationLog;
+    private final JsonFragmentCache jsonFragmentCache;
+    private final FeedService feedService;
+    private final ConsistentCut consistentCut;
+    private final StripedLocks friendshipLocks = new StripedLocks(1024);
 
     public User create(User user) {
         validateUser(user);
         setNameIfEmpty(user);
-        User createdUser = inMemoryUserStorage.create(user);
+        memoryBudgetService.checkCreate();
+        User createdUser;
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            createdUser = userStorage.create(user);
+            consistentCut.userCreated(createdUser.getId());
+        }
+        friendshipAnalyticsService.onUserCreated(createdUser.getId());
+        replicationLog.userChanged(createdUser.getId());
         log.info("Создан пользователь: {}", createdUser);
         return createdUser;
     }
 
+    public List<User> createAll(List<User> users) {
+        memoryBudgetService.checkCreate();
+        List<User> rejected;
+        try (ConsistentCut.Guard guard = consistentCut.enter()) {
+            rejected = userStorage.createAll(users);
+            for (User user : users) {
+                if (user.getId() != null) {
+                    consistentCut.userCreated(user.getId());
+                }
+            }
+        }
+        for (User user : users) {
+            if (user.getId() != null) {
+                friendshipAnalyticsService.onUserCreated(user.getId());
+                replicationLog.userChanged(user.getId());
+            }
+        }
+        friendshipAnalyticsService.markDirty();
+        log.debug("Создано {} пользователей пакетом, отклонено {}", users.size() - rejected.size(), rejected.size());
+        return rejected;
+    }
+
     public User update(User user) {
+        return update(user, null);
+    }
+
+    public User update(User user, Set<Long> expectedVersions) {
         setNameIfEmpty(user);
         validateUser(user);
-        if (inMemoryUserStorage.findById(user.getId()).isEmpty()) {
-            throw new NotFoundException("Пользователь с id = " + user.getId() + " не найден.");
+        if (user.getId() == null) {
+            throw NotFoundException.user(null);
         }
 
-        User updatedUser = inMemoryUserStorage.update(user);
+        // friendship writes rewrite whole records under the same stripe, so the swap must not interleave with them
+        User updatedUser = friendshipLocks.withLock(user.getId(), () -> {
+            while (true) {
+                User current = findById(user.getId());
+                checkVersion(user.getId(), expectedVersions, current.getVersion());
+                boolean replaced;
+                try (ConsistentCut.Guard guard = consistentCut.enter()) {
+                    consistentCut.beforeChange(current);
+                    replaced = userStorage.replace(user, current.getVersion());
+                }
+                if (replaced) {
+                    replicationLog.userChanged(user.getId());
+                    return user;
+                }
+            }
+        });
+        friendshipAnalyticsService.markDirty();
         log.info("Обновлен пользователь: {}", updatedUser);
         return updatedUser;
     }
 
     public Collection<User> findAll() {
-        return inMemoryUserStorage.findAll();
+        return userStorage.findAll();
     }
 
     public User findById(Long id) {
-        return inMemoryUserStorage.findById(id)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + id + " не найден."));
+        return userStorage.findById(id)
+                .orElseThrow(() -> NotFoundException.user(id));
     }
 
-    public void addFriend(Long userId, Long friendId) {
-        User user = findById(userId);
-        User friend = findById(friendId);
-
-        user.getFriends().add(friendId);
-        friend.getFriends().add(userId);
+    public List<User> searchByLogin(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new ValidationException("Префикс логина не может быть пустым");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ValidationException("Лимит поиска должен быть от 1 до " + MAX_SEARCH_LIMIT);
+        }
+        return userStorage.searchByLoginPrefix(prefix, limit);
+    }
 
-        inMemoryUserStorage.update(user);
-        inMemoryUserStorage.update(friend);
+    public void addFriend(Long userId, Long friendId) {
+        FriendshipEvent event = new FriendshipEvent();
+        event.begin();
+        AtomicBoolean added = new AtomicBoolean();
+        friendshipLocks.withLocks(userId, friendId, () -> {
+            User user = findById(userId);
+            User friend = findById(friendId);
+            try (ConsistentCut.Guard guard = consistentCut.enter()) {
+                consistentCut.beforeChange(user);
+                consistentCut.beforeChange(friend);
+                if (user.getFriends().add(friendId)) {
+                    userStorage.recordFriendAdded(user);
+                    added.set(true);
+                }
+                if (friend.getFriends().add(userId)) {
+                    userStorage.recordFriendAdded(friend);
+                }
+                userStorage.update(user);
+                userStorage.update(friend);
+            }
+            jsonFragmentCache.invalidateUser(userId);
+            jsonFragmentCache.invalidateUser(friendId);
+            replicationLog.friendshipChanged(userId, friendId);
+        });
+        event.finish("add", userId, friendId);
+        friendshipAnalyticsService.onFriendshipAdded(userId, friendId);
+        if (added.get()) {
+            feedService.friendAdded(userId, friendId);
+        }
 
         log.info("Пользователь {} добавил в друзья пользователя {}", userId, friendId);
     }
 
     public void removeFriend(Long userId, Long friendId) {
-        User user = findById(userId);
-        User friend = findById(friendId);
-
-        user.getFriends().remove(friendId);
-        friend.getFriends().remove(userId);
-
-        inMemoryUserStorage.update(user);
-        inMemoryUserStorage.update(friend);
+        FriendshipEvent event = new FriendshipEvent();
+        event.begin();
+        friendshipLocks.withLocks(userId, friendId, () -> {
+            User user = findById(userId);
+            User friend = findById(friendId);
+            try (ConsistentCut.Guard guard = consistentCut.enter()) {
+                consistentCut.beforeChange(user);
+                consistentCut.beforeChange(friend);
+                if (user.getFriends().remove(friendId)) {
+                    userStorage.recordFriendRemoved(user);
+                }
+                if (friend.getFriends().remove(userId)) {
+                    userStorage.recordFriendRemoved(friend);
+                }
+                userStorage.update(user);
+                userStorage.update(friend);
+            }
+            jsonFragmentCache.invalidateUser(userId);
+            jsonFragmentCache.invalidateUser(friendId);
+            replicationLog.friendshipChanged(userId, friendId);
+        });
+        event.finish("remove", userId, friendId);
+        friendshipAnalyticsService.markDirty();
 
         log.info("Пользователь {} удалил из друзей пользователя {}", userId, friendId);
     }
@@ -93,13 +202,22 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
-    private void setNameIfEmpty(User user) {
+    private void checkVersion(Long userId, Set<Long> expectedVersions, long currentVersion) {
+        if (expectedVersions != null && !expectedVersions.contains(currentVersion)) {
+            String expected = expectedVersions.size() == 1
+                    ? String.valueOf(expectedVersions.iterator().next()) : "из " + expectedVersions;
+            throw new PreconditionFailedException("Пользователь с id = " + userId + " изменён: ожидалась версия "
+                    + expected + ", текущая " + currentVersion);
+        }
+    }
+
+    void setNameIfEmpty(User user) {
         if (user.getName() == null || user.getName().isBlank()) {
             user.setName(user.getLogin());
         }
     }
 
-    private void validateUser(User user) {
+    void validateUser(User user) {
         if (user.getBirthday() != null && user.getBirthday().isAfter(LocalDate.now())) {
             throw new ValidationException("Дата рождения не может быть позднее сегодня");
         }
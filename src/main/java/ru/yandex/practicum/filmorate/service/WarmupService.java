@@ -0,0 +1,295 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.controller.FilmController;
+import ru.yandex.practicum.filmorate.controller.UserController;
+import ru.yandex.practicum.filmorate.controller.WarmupController;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.WarmupReport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a synthetic workload through controllers, services, validation and the HTTP JSON
+ * converter against a scratch dataset before the application reports readiness. Spring Boot
+ * publishes ACCEPTING_TRAFFIC only after all runners complete, so readiness waits for this stage.
+ */
+@Slf4j
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    private static final int RESET_EVERY = 1000;
+    private static final String USER_JSON =
+            "{\"email\":\"warmup%d@example.com\",\"login\":\"warmup%d\",\"name\":\"\",\"birthday\":\"1990-01-01\"}";
+    private static final String FILM_JSON =
+            "{\"name\":\"Warmup %d\",\"description\":\"warm-up\",\"releaseDate\":\"2000-01-01\",\"duration\":100}";
+
+    private static final Map<String, Object> SCRATCH_PROPERTIES = Map.of(
+            "filmorate.replication.role", "none",
+            "filmorate.memory.budget", "0B");
+    private static final String[] SCRATCH_PACKAGES = {
+            "ru.yandex.practicum.filmorate.controller",
+            "ru.yandex.practicum.filmorate.json",
+            "ru.yandex.practicum.filmorate.replication",
+            "ru.yandex.practicum.filmorate.service",
+            "ru.yandex.practicum.filmorate.storage",
+            "ru.yandex.practicum.filmorate.timing"};
+    private static final List<Class<?>> SCRATCH_EXCLUDED = List.of(
+            WarmupService.class, WarmupController.class, ImportService.class, ExportService.class);
+    private static final HttpHeaders JSON_HEADERS = jsonHeaders();
+
+    private final ConfigurableApplicationContext applicationContext;
+    private final Validator validator;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration timeBudget;
+    private final WarmupReport report = new WarmupReport();
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+    public WarmupService(ConfigurableApplicationContext applicationContext,
+                         Validator validator,
+                         @Value("${filmorate.warmup.enabled:false}") boolean enabled,
+                         @Value("${filmorate.warmup.iterations:5000}") int iterations,
+                         @Value("${filmorate.warmup.time-budget:PT20S}") Duration timeBudget) {
+        this.applicationContext = applicationContext;
+        this.validator = validator;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.timeBudget = timeBudget;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        synchronized (report) {
+            report.setEnabled(enabled);
+            if (!enabled) {
+                log.info("Прогрев отключён");
+                return;
+            }
+            report.setStatus(WarmupReport.WarmupStatus.RUNNING);
+        }
+
+        log.info("Прогрев: до {} итераций, бюджет {}", iterations, timeBudget);
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        WarmupReport.WarmupStatus status = WarmupReport.WarmupStatus.DONE;
+        long firstIteration = 0;
+        double warmIteration = 0;
+        int done = 0;
+        Scratch scratch = null;
+        try {
+            for (; done < iterations; done++) {
+                if (System.nanoTime() > deadline) {
+                    status = WarmupReport.WarmupStatus.TIMED_OUT;
+                    break;
+                }
+                if (done % RESET_EVERY == 0) {
+                    if (scratch != null) {
+                        scratch.close();
+                    }
+                    scratch = new Scratch();
+                }
+                long iterationStart = System.nanoTime();
+                scratch.iterate(done % RESET_EVERY);
+                long iterationNanos = System.nanoTime() - iterationStart;
+                if (done == 0) {
+                    firstIteration = iterationNanos;
+                    warmIteration = iterationNanos;
+                } else {
+                    warmIteration = warmIteration * 0.95 + iterationNanos * 0.05;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            status = WarmupReport.WarmupStatus.FAILED;
+            log.warn("Прогрев прерван: {}", e.getMessage());
+        } finally {
+            if (scratch != null) {
+                scratch.close();
+            }
+        }
+
+        synchronized (report) {
+            report.setStatus(status);
+            report.setIterations(done);
+            report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            report.setFirstIterationMicros(firstIteration / 1_000);
+            report.setWarmIterationMicros(Math.round(warmIteration / 1_000));
+            log.info("Прогрев завершён ({}): {} итераций за {} мс, первая итерация {} мкс, прогретая {} мкс",
+                    status, done, report.getElapsedMillis(), report.getFirstIterationMicros(),
+                    report.getWarmIterationMicros());
+        }
+    }
+
+    public void recordFirstRequest(String request, long nanos) {
+        if (firstRequestSeen.compareAndSet(false, true)) {
+            synchronized (report) {
+                report.setFirstRequest(request);
+                report.setFirstRequestMicros(nanos / 1_000);
+            }
+            log.info("Первый запрос {} выполнен за {} мкс (прогрев {})", request, nanos / 1_000,
+                    enabled ? "включён" : "отключён");
+        }
+    }
+
+    public boolean isFirstRequestSeen() {
+        return firstRequestSeen.get();
+    }
+
+    public WarmupReport getReport() {
+        WarmupReport copy = new WarmupReport();
+        synchronized (report) {
+            BeanUtils.copyProperties(report, copy);
+        }
+        return copy;
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    /**
+     * Scratch context built from the application's own component classes and configuration, so
+     * warm-up drives the same controllers, services, storages and JSON converter as real requests
+     * without hand-wiring any of them. Every scratch bean is primary and shadows its application
+     * counterpart, so real data and the real JSON fragment cache never see scratch entities;
+     * replication and budgets are switched off so followers and the budget do not either. Beans
+     * it lacks come from the application's bean factory, but the application context is not its
+     * parent, so its context events stay in it.
+     */
+    private final class Scratch implements AutoCloseable {
+
+        private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        private final UserController userController;
+        private final FilmController filmController;
+        private final MappingJackson2HttpMessageConverter converter;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(4096);
+
+        private Scratch() {
+            StandardEnvironment environment = new StandardEnvironment();
+            environment.merge(applicationContext.getEnvironment());
+            environment.getPropertySources().addFirst(new MapPropertySource("warmup", SCRATCH_PROPERTIES));
+            context.setEnvironment(environment);
+            context.getBeanFactory().setParentBeanFactory(applicationContext.getBeanFactory());
+            context.getBeanFactory().setConversionService(applicationContext.getBeanFactory().getConversionService());
+
+            ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(context, true, environment);
+            SCRATCH_EXCLUDED.forEach(type -> scanner.addExcludeFilter(new AssignableTypeFilter(type)));
+            scanner.scan(SCRATCH_PACKAGES);
+            context.registerBean(ObjectMapper.class, () -> applicationContext.getBean(Jackson2ObjectMapperBuilder.class)
+                    .modulesToInstall(context.getBeanFactory().getBeansOfType(Module.class).values()
+                            .toArray(Module[]::new))
+                    .build());
+            context.addBeanFactoryPostProcessor(factory -> {
+                for (String name : factory.getBeanDefinitionNames()) {
+                    factory.getBeanDefinition(name).setPrimary(true);
+                }
+            });
+            context.refresh();
+
+            userController = context.getBean(UserController.class);
+            filmController = context.getBean(FilmController.class);
+            converter = context.getBeanFactory().getBeansOfType(MappingJackson2HttpMessageConverter.class)
+                    .values().iterator().next();
+        }
+
+        private void iterate(int i) throws IOException {
+            User user = userController.create(read(USER_JSON.formatted(i, i), User.class));
+            Film film = filmController.add(read(FILM_JSON.formatted(i), Film.class));
+            write(user);
+            write(film);
+
+            long previous = user.getId() - 1;
+            if (previous >= 1) {
+                userController.addFriend(user.getId(), previous);
+                write(filmController.like(film.getId(), previous));
+                write(userController.getFriends(user.getId()));
+                write(userController.getCommonFriends(user.getId(), previous));
+                write(userController.findPath(user.getId(), 1L, null));
+            }
+            write(filmController.getPopularFilms(10));
+            write(filmController.getTrendingFilms(null, 10));
+            write(filmController.getStats());
+            if (i % 20 == 0) {
+                write(filmController.findAll());
+                write(userController.findAll());
+            }
+            try {
+                userController.findById(-1L);
+            } catch (NotFoundException ignore) {
+                // ожидаемая ошибка прогревает путь обработки исключений
+            }
+        }
+
+        private <T> T read(String json, Class<T> type) throws IOException {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            HttpInputMessage message = new HttpInputMessage() {
+                @Override
+                public InputStream getBody() {
+                    return new ByteArrayInputStream(bytes);
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return JSON_HEADERS;
+                }
+            };
+            T value = type.cast(converter.read(type, null, message));
+            validator.validate(value);
+            return value;
+        }
+
+        private void write(Object value) throws IOException {
+            body.reset();
+            HttpHeaders headers = new HttpHeaders();
+            converter.write(value, value.getClass(), MediaType.APPLICATION_JSON, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return headers;
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filter-and-aggregate loop over a range of {@link FilmColumns} rows. The Vector API kernel is
+ * used when the JVM was started with --add-modules jdk.incubator.vector; otherwise the scalar
+ * one, which never touches the incubator classes. Only VectorColumnKernel is compiled against
+ * the incubator module (see the vector-kernel execution in pom.xml), so nothing else may
+ * refer to it by type.
+ */
+@Slf4j
+abstract class ColumnKernel {
+
+    static final int COUNT = 0;
+    static final int LIKES = 1;
+    static final int DURATION = 2;
+    static final int TIMED = 3;
+    static final int TOTALS = 4;
+    static final int NO_DURATION = Integer.MIN_VALUE;
+
+    static final ColumnKernel DEFAULT = detect();
+
+    /**
+     * Scans rows [from, to) and adds every matching row to totals (count, likes, duration and
+     * films with a known duration, both skipping {@link #NO_DURATION} rows). When rows is not
+     * null the matching row numbers are written to it from index 0.
+     *
+     * @return the number of matching rows
+     */
+    abstract int scan(int[] released, int[] durations, int[] likes, int from, int to, Bounds bounds,
+                      int[] rows, long[] totals);
+
+    /**
+     * The Vector API kernel, which is compiled on its own and therefore only loaded by name.
+     */
+    static ColumnKernel vector() throws ReflectiveOperationException {
+        return Class.forName(ColumnKernel.class.getPackageName() + ".VectorColumnKernel")
+                .asSubclass(ColumnKernel.class)
+                .getDeclaredConstructor()
+                .newInstance();
+    }
+
+    private static ColumnKernel detect() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                ColumnKernel kernel = vector();
+                log.info("Колоночный каталог фильмов: {}", kernel);
+                return kernel;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("Vector API недоступен: {}", e.toString());
+            }
+        }
+        log.info("Колоночный каталог фильмов: {}", ScalarColumnKernel.INSTANCE);
+        return ScalarColumnKernel.INSTANCE;
+    }
+
+    /**
+     * Inclusive bounds in column units: release epoch day, minutes and like count.
+     */
+    record Bounds(int minReleased, int maxReleased, int minDuration, int maxDuration, int minLikes,
+                  int maxLikes) {
+    }
+}
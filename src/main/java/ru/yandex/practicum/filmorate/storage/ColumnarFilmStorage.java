@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
+
+import java.util.List;
+
+/**
+ * Implemented by film storages that mirror the filterable film fields into primitive columns,
+ * so range filters and aggregates scan arrays instead of film objects.
+ */
+public interface ColumnarFilmStorage {
+
+    /**
+     * Films matching the filter, oldest first, at most limit of them.
+     */
+    public List<Film> search(FilmFilter filter, int limit);
+
+    public FilmSearchStats aggregate(FilmFilter filter);
+}
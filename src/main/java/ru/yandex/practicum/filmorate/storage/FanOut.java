@@ -0,0 +1,61 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Runs one task per partition on a dedicated fork-join pool and returns the results in
+ * partition order. With parallelism 1 the tasks run on the calling thread. Ids are spread
+ * over partitions by a multiplicative hash, so consecutive ids land in different ones.
+ */
+class FanOut implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    FanOut(int parallelism, String name) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = threads == 1 ? null : new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(name + "-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    static int partitionOf(long id, int partitions) {
+        return Math.floorMod(Long.hashCode(id * 0x9E3779B97F4A7C15L), partitions);
+    }
+
+    int parallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    <P, R> List<R> map(P[] partitions, Function<P, R> task) {
+        return map(partitions.length, i -> task.apply(partitions[i]));
+    }
+
+    <R> List<R> map(int tasks, IntFunction<R> task) {
+        if (pool == null || tasks == 1) {
+            return IntStream.range(0, tasks).mapToObj(task).toList();
+        }
+        return pool.submit(() -> IntStream.range(0, tasks).parallel().mapToObj(task).toList()).join();
+    }
+
+    void run(int tasks, IntConsumer task) {
+        map(tasks, i -> {
+            task.accept(i);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
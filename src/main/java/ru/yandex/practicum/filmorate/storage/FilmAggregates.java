@@ -0,0 +1,119 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmCatalogStats;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+class FilmAggregates {
+
+    private static final int[] DURATION_BOUNDS = {60, 90, 120, 150, 180};
+    private static final String[] DURATION_LABELS = {"<60", "60-89", "90-119", "120-149", "150-179", "180+", "unknown"};
+
+    private final LongAdder films = new LongAdder();
+    private final LongAdder likes = new LongAdder();
+    private final Map<Integer, LongAdder> byReleaseYear = new ConcurrentHashMap<>();
+    private final LongAdder[] byDuration = new LongAdder[DURATION_LABELS.length];
+
+    FilmAggregates() {
+        for (int i = 0; i < byDuration.length; i++) {
+            byDuration[i] = new LongAdder();
+        }
+    }
+
+    void add(Film film) {
+        apply(film, 1);
+    }
+
+    void remove(Film film) {
+        apply(film, -1);
+    }
+
+    /**
+     * Moves a film between release-year and duration buckets. The like set is carried over
+     * by the storage, so film and like totals stay as they are.
+     */
+    void replace(Film previous, Film film) {
+        applyAttributes(previous, -1);
+        applyAttributes(film, 1);
+    }
+
+    void likeAdded() {
+        likes.increment();
+    }
+
+    void likeRemoved() {
+        likes.decrement();
+    }
+
+    long likeCount() {
+        return likes.sum();
+    }
+
+    FilmCatalogStats snapshot() {
+        FilmCatalogStats stats = new FilmCatalogStats();
+        long filmCount = films.sum();
+        long likeCount = likes.sum();
+        stats.setFilms(filmCount);
+        stats.setTotalLikes(likeCount);
+        stats.setAverageLikes(filmCount == 0 ? 0 : (double) likeCount / filmCount);
+        new TreeMap<>(byReleaseYear).forEach((year, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                stats.getFilmsByReleaseYear().put(year, value);
+            }
+        });
+        for (int i = 0; i < byDuration.length; i++) {
+            stats.getFilmsByDuration().put(DURATION_LABELS[i], byDuration[i].sum());
+        }
+        return stats;
+    }
+
+    /**
+     * Adds up snapshots of disjoint parts of the catalog.
+     */
+    static FilmCatalogStats merge(Iterable<FilmCatalogStats> parts) {
+        FilmCatalogStats stats = new FilmCatalogStats();
+        Map<Integer, Long> byYear = new TreeMap<>();
+        for (String label : DURATION_LABELS) {
+            stats.getFilmsByDuration().put(label, 0L);
+        }
+        for (FilmCatalogStats part : parts) {
+            stats.setFilms(stats.getFilms() + part.getFilms());
+            stats.setTotalLikes(stats.getTotalLikes() + part.getTotalLikes());
+            part.getFilmsByReleaseYear().forEach((year, count) -> byYear.merge(year, count, Long::sum));
+            part.getFilmsByDuration().forEach((label, count) -> stats.getFilmsByDuration().merge(label, count,
+                    Long::sum));
+        }
+        stats.getFilmsByReleaseYear().putAll(byYear);
+        stats.setAverageLikes(stats.getFilms() == 0 ? 0 : (double) stats.getTotalLikes() / stats.getFilms());
+        return stats;
+    }
+
+    private void apply(Film film, int sign) {
+        films.add(sign);
+        likes.add((long) sign * film.getLikes().size());
+        applyAttributes(film, sign);
+    }
+
+    private void applyAttributes(Film film, int sign) {
+        if (film.getReleaseDate() != null) {
+            byReleaseYear.computeIfAbsent(film.getReleaseDate().getYear(), year -> new LongAdder()).add(sign);
+        }
+        byDuration[durationBucket(film.getDuration())].add(sign);
+    }
+
+    private static int durationBucket(Integer duration) {
+        if (duration == null) {
+            return DURATION_LABELS.length - 1;
+        }
+        int bucket = 0;
+        while (bucket < DURATION_BOUNDS.length && duration >= DURATION_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
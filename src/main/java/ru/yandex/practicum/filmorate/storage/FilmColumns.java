@@ -0,0 +1,242 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar mirror of the filterable film fields: one row per film in insertion order, with
+ * the id, release epoch day, duration and like count in parallel primitive arrays. Storages
+ * keep it in step with their writes, like {@link FilmAggregates}. Scans split the rows into
+ * chunks and run them on the common fork-join pool when there is more than one chunk.
+ * The write lock guards structural changes only; scans may see like counts move under them.
+ * A missing release date or duration is stored as Integer.MIN_VALUE; such films only match
+ * when that field is not filtered at all, as in FilmService.
+ */
+class FilmColumns {
+
+    static final int CHUNK = 1 << 16;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_RELEASE = Integer.MIN_VALUE;
+    private static final int NO_DURATION = ColumnKernel.NO_DURATION;
+    private static final VarHandle LIKES = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final ColumnKernel kernel;
+    private final LongLongIndex rowsById = new LongLongIndex(INITIAL_CAPACITY);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] released = new int[INITIAL_CAPACITY];
+    private int[] durations = new int[INITIAL_CAPACITY];
+    private int[] likes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    FilmColumns() {
+        this(ColumnKernel.DEFAULT);
+    }
+
+    FilmColumns(ColumnKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    /**
+     * Adds the film or overwrites its row, likes included.
+     */
+    void put(Film film) {
+        lock.writeLock().lock();
+        try {
+            int row = (int) rowsById.get(film.getId());
+            if (row == LongLongIndex.MISSING) {
+                if (size == ids.length) {
+                    grow();
+                }
+                row = size++;
+                ids[row] = film.getId();
+                rowsById.put(film.getId(), row);
+            }
+            setAttributes(row, film);
+            likes[row] = film.getLikes().size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates release date and duration; the like count stays, as the storage carries the likes over.
+     */
+    void replace(Film film) {
+        lock.writeLock().lock();
+        try {
+            int row = (int) rowsById.get(film.getId());
+            if (row != LongLongIndex.MISSING) {
+                setAttributes(row, film);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void likeAdded(long filmId) {
+        addLikes(filmId, 1);
+    }
+
+    void likeRemoved(long filmId) {
+        addLikes(filmId, -1);
+    }
+
+    /**
+     * Ids of the matching films in insertion order, at most limit of them.
+     */
+    long[] select(FilmFilter filter, int limit) {
+        ColumnKernel.Bounds bounds = bounds(filter);
+        lock.readLock().lock();
+        try {
+            List<Chunk> chunks = scan(bounds, true);
+            long[] result = new long[(int) Math.min(limit, chunks.stream().mapToLong(c -> c.found).sum())];
+            int n = 0;
+            for (Chunk chunk : chunks) {
+                for (int i = 0; i < chunk.found && n < result.length; i++) {
+                    result[n++] = ids[chunk.rows[i]];
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    FilmSearchStats aggregate(FilmFilter filter) {
+        return stats(totals(filter));
+    }
+
+    /**
+     * Raw sums of the matching rows indexed by the {@link ColumnKernel} total constants, which
+     * unlike averages can be added up across storages.
+     */
+    long[] totals(FilmFilter filter) {
+        ColumnKernel.Bounds bounds = bounds(filter);
+        long[] totals = new long[ColumnKernel.TOTALS];
+        lock.readLock().lock();
+        try {
+            for (Chunk chunk : scan(bounds, false)) {
+                add(totals, chunk.totals);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return totals;
+    }
+
+    static void add(long[] totals, long[] other) {
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] += other[i];
+        }
+    }
+
+    static FilmSearchStats stats(long[] totals) {
+        FilmSearchStats stats = new FilmSearchStats();
+        long films = totals[ColumnKernel.COUNT];
+        stats.setFilms(films);
+        stats.setTotalLikes(totals[ColumnKernel.LIKES]);
+        stats.setAverageLikes(films == 0 ? 0 : (double) totals[ColumnKernel.LIKES] / films);
+        long timed = totals[ColumnKernel.TIMED];
+        stats.setAverageDuration(timed == 0 ? 0 : (double) totals[ColumnKernel.DURATION] / timed);
+        return stats;
+    }
+
+    long capacityBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) ids.length * (Long.BYTES + 3 * Integer.BYTES) + rowsById.capacityBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Must be called under the read lock; the chunks come back in row order.
+     */
+    private List<Chunk> scan(ColumnKernel.Bounds bounds, boolean collect) {
+        int rowCount = size;
+        int chunkCount = (rowCount + CHUNK - 1) / CHUNK;
+        IntStream chunks = IntStream.range(0, chunkCount);
+        if (chunkCount > 1) {
+            chunks = chunks.parallel();
+        }
+        return chunks.mapToObj(chunk -> {
+            int from = chunk * CHUNK;
+            int to = Math.min(from + CHUNK, rowCount);
+            Chunk result = new Chunk(collect ? new int[to - from] : null);
+            result.found = kernel.scan(released, durations, likes, from, to, bounds, result.rows, result.totals);
+            return result;
+        }).toList();
+    }
+
+    private void setAttributes(int row, Film film) {
+        released[row] = film.getReleaseDate() == null ? NO_RELEASE : (int) film.getReleaseDate().toEpochDay();
+        durations[row] = film.getDuration() == null ? NO_DURATION : film.getDuration();
+    }
+
+    /**
+     * Likes only move a counter, so they take the read lock, which keeps the arrays and the
+     * index in place, and add atomically; they neither wait for scans nor for each other.
+     */
+    private void addLikes(long filmId, int delta) {
+        lock.readLock().lock();
+        try {
+            int row = (int) rowsById.get(filmId);
+            if (row != LongLongIndex.MISSING) {
+                LIKES.getAndAdd(likes, row, delta);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        released = Arrays.copyOf(released, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        likes = Arrays.copyOf(likes, capacity);
+    }
+
+    private static ColumnKernel.Bounds bounds(FilmFilter filter) {
+        boolean releaseBounded = filter.getReleasedFrom() != null || filter.getReleasedTo() != null;
+        boolean durationBounded = filter.getMinDuration() != null || filter.getMaxDuration() != null;
+        return new ColumnKernel.Bounds(
+                epochDay(filter.getReleasedFrom(), releaseBounded ? NO_RELEASE + 1 : NO_RELEASE),
+                epochDay(filter.getReleasedTo(), Integer.MAX_VALUE),
+                orDefault(filter.getMinDuration(), durationBounded ? NO_DURATION + 1 : NO_DURATION),
+                orDefault(filter.getMaxDuration(), Integer.MAX_VALUE),
+                orDefault(filter.getMinLikes(), Integer.MIN_VALUE),
+                orDefault(filter.getMaxLikes(), Integer.MAX_VALUE));
+    }
+
+    private static int epochDay(LocalDate date, int open) {
+        return date == null ? open : (int) date.toEpochDay();
+    }
+
+    private static int orDefault(Integer value, int open) {
+        return value == null ? open : value;
+    }
+
+    private static final class Chunk {
+
+        private final int[] rows;
+        private final long[] totals = new long[ColumnKernel.TOTALS];
+        private int found;
+
+        private Chunk(int[] rows) {
+            this.rows = rows;
+        }
+    }
+}
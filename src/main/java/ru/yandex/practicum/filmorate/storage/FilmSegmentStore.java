@@ -0,0 +1,291 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only segment files with film bodies (likes are not stored here).
+ * Record layout: length, id, release epoch day, duration, name, description; strings are
+ * length-prefixed UTF-8 with -1 for null. A rewrite appends a new record and the old one
+ * becomes garbage; segments are never compacted while the process runs.
+ * Segments are scratch space, not persistence: each store writes into its own fresh
+ * scratch-films-* directory under the configured one and deletes it on close.
+ */
+class FilmSegmentStore implements Closeable {
+
+    private static final String DIRECTORY_PREFIX = "scratch-films-";
+    private static final String SEGMENT_FORMAT = "segment-%d.seg";
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int NO_DURATION = Integer.MIN_VALUE;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final List<FileChannel> segments = new ArrayList<>();
+    private final LongLongIndex index = new LongLongIndex(1024);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long writePosition;
+    private long diskBytes;
+    private long garbageBytes;
+
+    FilmSegmentStore(Path scratchDir, int segmentSize) {
+        this.segmentSize = segmentSize;
+        try {
+            this.dir = Files.createTempDirectory(Files.createDirectories(scratchDir), DIRECTORY_PREFIX);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Path directory() {
+        return dir;
+    }
+
+    void write(Film film) {
+        writeAll(List.of(film));
+    }
+
+    void writeAll(Collection<Film> films) {
+        lock.writeLock().lock();
+        try {
+            for (Film film : films) {
+                ByteBuffer record = encode(film);
+                if (segments.isEmpty() || writePosition + record.remaining() > segmentSize) {
+                    openSegment();
+                }
+                int segment = segments.size() - 1;
+                long address = ((long) segment << 32) | writePosition;
+                int length = record.remaining();
+                FileChannel channel = segments.get(segment);
+                while (record.hasRemaining()) {
+                    writePosition += channel.write(record, writePosition);
+                }
+                diskBytes += length;
+
+                long previous = index.get(film.getId());
+                if (previous != LongLongIndex.MISSING) {
+                    garbageBytes += Integer.BYTES + readInt(previous);
+                }
+                index.put(film.getId(), address);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long addressOf(long id) {
+        lock.readLock().lock();
+        try {
+            return index.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Film read(long address) {
+        if (address == LongLongIndex.MISSING) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return decode(readRecord(address));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long[] ids() {
+        lock.readLock().lock();
+        try {
+            return index.keys();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Decodes the films with ids[from, to) under one read lock, skipping ids with no record.
+     */
+    List<Film> readAll(long[] ids, int from, int to) {
+        List<Film> films = new ArrayList<>(to - from);
+        lock.readLock().lock();
+        try {
+            for (int i = from; i < to; i++) {
+                long address = index.get(ids[i]);
+                if (address != LongLongIndex.MISSING) {
+                    films.add(decode(readRecord(address)));
+                }
+            }
+            return films;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long indexBytes() {
+        lock.readLock().lock();
+        try {
+            return index.capacityBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long diskBytes() {
+        lock.readLock().lock();
+        try {
+            return diskBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long garbageBytes() {
+        lock.readLock().lock();
+        try {
+            return garbageBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (FileChannel channel : segments) {
+                channel.close();
+            }
+            for (int segment = 0; segment < segments.size(); segment++) {
+                Files.deleteIfExists(dir.resolve(SEGMENT_FORMAT.formatted(segment)));
+            }
+            segments.clear();
+            Files.deleteIfExists(dir);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path file = dir.resolve(SEGMENT_FORMAT.formatted(segments.size()));
+        segments.add(FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        writePosition = 0;
+    }
+
+    private int readInt(long address) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+        readFully(address, buffer);
+        return buffer.getInt(0);
+    }
+
+    private ByteBuffer readRecord(long address) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(readInt(address));
+        readFully(address + Integer.BYTES, body);
+        return body.flip();
+    }
+
+    private void readFully(long address, ByteBuffer buffer) throws IOException {
+        FileChannel channel = segments.get((int) (address >>> 32));
+        long position = address & 0xFFFFFFFFL;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Неожиданный конец сегмента фильмов");
+            }
+            position += read;
+        }
+    }
+
+    private static ByteBuffer encode(Film film) {
+        byte[] name = encode(film.getName());
+        byte[] description = encode(film.getDescription());
+        int bodyLength = 3 * Long.BYTES + Integer.BYTES + stringBytes(name) + stringBytes(description);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bodyLength);
+        buffer.putInt(bodyLength);
+        buffer.putLong(film.getId());
+        buffer.putLong(film.getVersion());
+        buffer.putLong(film.getReleaseDate() == null ? NO_DATE : film.getReleaseDate().toEpochDay());
+        buffer.putInt(film.getDuration() == null ? NO_DURATION : film.getDuration());
+        putString(buffer, name);
+        putString(buffer, description);
+        return buffer.flip();
+    }
+
+    private static Film decode(ByteBuffer buffer) {
+        Film film = new Film();
+        film.setId(buffer.getLong());
+        film.setVersion(buffer.getLong());
+        long epochDay = buffer.getLong();
+        film.setReleaseDate(epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay));
+        int duration = buffer.getInt();
+        film.setDuration(duration == NO_DURATION ? null : duration);
+        film.setName(getString(buffer));
+        film.setDescription(getString(buffer));
+        return film;
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringBytes(byte[] value) {
+        return Integer.BYTES + (value == null ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,16 +1,48 @@
 package ru.yandex.practicum.filmorate.storage;
 
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmCatalogStats;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface FilmStorage {
 
     public void addFilm(Film film);
 
+    public void addFilms(Collection<Film> films);
+
+    /**
+     * Compare-and-set update: stores the film only if the stored version still equals
+     * expectedVersion, keeping the stored likes and assigning the next version.
+     *
+     * @return false if the film is missing or has been changed concurrently
+     */
+    public boolean replace(Film film, long expectedVersion);
+
     public Optional<Film> findById(Long id);
 
     public Collection<Film> findAll();
 
+    /**
+     * Reserves an id for a new film; concurrent callers never get the same one.
+     */
+    public long allocateId();
+
+    /**
+     * Reserves count consecutive ids and returns the first of them.
+     */
+    public long allocateIds(int count);
+
+    public long size();
+
+    public void recordLike(Film film);
+
+    public void recordUnlike(Film film);
+
+    public FilmCatalogStats getStats();
+
+    public Map<String, Long> getHeapFootprint();
+
 }
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.storage;
+
+/**
+ * Count-min sketch with four rows of saturating 4-bit counters (stored in bytes for simplicity).
+ * All counters are halved after sampleSize increments so old popularity fades (TinyLFU aging).
+ */
+class FrequencySketch {
+
+    private static final int ROWS = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int width = Integer.highestOneBit(Math.max(capacity, 16) * 4 - 1) << 1;
+        this.table = new byte[ROWS][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * Math.max(capacity, 16);
+    }
+
+    void increment(long key) {
+        boolean added = false;
+        for (int row = 0; row < ROWS; row++) {
+            int index = indexOf(key, row);
+            if (table[row][index] < MAX_COUNT) {
+                table[row][index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(long key) {
+        int min = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            min = Math.min(min, table[row][indexOf(key, row)]);
+        }
+        return min;
+    }
+
+    private void reset() {
+        for (byte[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = (byte) (row[i] >>> 1);
+            }
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[(row + 1) % ROWS];
+        hash ^= hash >>> 32;
+        return (int) hash & mask;
+    }
+}
@@ -1,34 +1,183 @@
 package ru.yandex.practicum.filmorate.storage;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.jfr.StorageReadEvent;
+import ru.yandex.practicum.filmorate.jfr.StorageWriteEvent;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmCatalogStats;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Component
-public class InMemoryFilmStorage implements FilmStorage {
+@ConditionalOnProperty(name = "filmorate.storage.films", havingValue = "memory", matchIfMissing = true)
+public class InMemoryFilmStorage implements FilmStorage, RankedFilmStorage, ColumnarFilmStorage {
 
-    private final Map<Long, Film> films = new HashMap<>();
+    private static final String STORAGE = "films";
+    private static final Comparator<Film> BY_LIKES = Comparator.comparingInt((Film film) -> film.getLikes().size());
+
+    private final Map<Long, Film> films = new ConcurrentHashMap<>();
+    private final FilmAggregates aggregates = new FilmAggregates();
+    private final FilmColumns columns = new FilmColumns();
+    private final LongAdder filmBytes = new LongAdder();
+    private final AtomicLong nextId;
+
+    public InMemoryFilmStorage() {
+        this(new AtomicLong(1));
+    }
+
+    /**
+     * A partition drawing ids from a counter shared with the other partitions.
+     */
+    InMemoryFilmStorage(AtomicLong nextId) {
+        this.nextId = nextId;
+    }
 
     public void addFilm(Film film) {
-        films.put(film.getId(), film);
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        put(film);
+        event.finish(STORAGE, "addFilm", 1);
+    }
+
+    public void addFilms(Collection<Film> batch) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        for (Film film : batch) {
+            put(film);
+        }
+        event.finish(STORAGE, "addFilms", batch.size());
+    }
+
+    public boolean replace(Film film, long expectedVersion) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        Film[] previous = new Film[1];
+        films.computeIfPresent(film.getId(), (id, stored) -> {
+            if (stored.getVersion() != expectedVersion) {
+                return stored;
+            }
+            film.setLikes(stored.getLikes());
+            film.setVersion(expectedVersion + 1);
+            previous[0] = stored;
+            return film;
+        });
+        if (previous[0] != null) {
+            aggregates.replace(previous[0], film);
+            columns.replace(film);
+            filmBytes.add(MemoryEstimates.film(film) - MemoryEstimates.film(previous[0]));
+        }
+        event.finish(STORAGE, "replace", previous[0] == null ? 0 : 1);
+        return previous[0] != null;
+    }
+
+    public void recordLike(Film film) {
+        aggregates.likeAdded();
+        columns.likeAdded(film.getId());
+    }
+
+    public void recordUnlike(Film film) {
+        aggregates.likeRemoved();
+        columns.likeRemoved(film.getId());
+    }
+
+    public FilmCatalogStats getStats() {
+        return aggregates.snapshot();
+    }
+
+    public List<Film> search(FilmFilter filter, int limit) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        long[] ids = columns.select(filter, limit);
+        List<Film> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Film film = films.get(id);
+            if (film != null) {
+                result.add(film);
+            }
+        }
+        event.finish(STORAGE, "search", result.size());
+        return result;
+    }
+
+    public FilmSearchStats aggregate(FilmFilter filter) {
+        return columns.aggregate(filter);
+    }
+
+    long[] aggregateTotals(FilmFilter filter) {
+        return columns.totals(filter);
+    }
+
+    public Map<String, Long> getHeapFootprint() {
+        Map<String, Long> footprint = new LinkedHashMap<>();
+        footprint.put("films", filmBytes.sum());
+        footprint.put("likes", aggregates.likeCount() * MemoryEstimates.SET_ENTRY);
+        footprint.put("columns", columns.capacityBytes());
+        return footprint;
     }
 
     public Optional<Film> findById(Long id) {
-        return Optional.ofNullable(films.get(id));
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        Film film = films.get(id);
+        event.finish(STORAGE, "findById", film == null ? 0 : 1);
+        return Optional.ofNullable(film);
     }
 
-    public long getNextId() {
-        long currentMaxId = films.keySet().stream().mapToLong(id -> id).max().orElse(0);
-        return ++currentMaxId;
+    public List<Film> findPopular(int count) {
+        PriorityQueue<Film> top = new PriorityQueue<>(BY_LIKES);
+        for (Film film : films.values()) {
+            if (top.size() < count) {
+                top.add(film);
+            } else if (count > 0 && film.getLikes().size() > top.peek().getLikes().size()) {
+                top.poll();
+                top.add(film);
+            }
+        }
+        List<Film> popular = new ArrayList<>(top);
+        popular.sort(BY_LIKES.reversed());
+        return popular;
+    }
+
+    public long allocateId() {
+        return nextId.getAndIncrement();
+    }
+
+    public long allocateIds(int count) {
+        return nextId.getAndAdd(count);
+    }
+
+    public long size() {
+        return films.size();
     }
 
     public Collection<Film> findAll() {
         return films.values();
     }
+
+    private void put(Film film) {
+        Film previous = films.put(film.getId(), film);
+        if (previous != null) {
+            aggregates.remove(previous);
+            filmBytes.add(-MemoryEstimates.film(previous));
+        }
+        aggregates.add(film);
+        columns.put(film);
+        filmBytes.add(MemoryEstimates.film(film));
+        nextId.accumulateAndGet(film.getId() + 1, Math::max);
+    }
 }
\ No newline at end of file
@@ -1,35 +1,196 @@
 package ru.yandex.practicum.filmorate.storage;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.jfr.StorageReadEvent;
+import ru.yandex.practicum.filmorate.jfr.StorageWriteEvent;
 import ru.yandex.practicum.filmorate.model.User;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
+@ConditionalOnProperty(name = "filmorate.storage.users", havingValue = "memory", matchIfMissing = true)
 public class InMemoryUserStorage implements UserStorage {
 
-    private final Map<Long, User> users = new HashMap<>();
-    private long currentId = 1;
+    private static final String STORAGE = "users";
+
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final UserIndexes indexes;
+    private final AtomicLong nextId;
+    private final LongAdder userBytes = new LongAdder();
+    private final LongAdder friendEntries = new LongAdder();
+
+    public InMemoryUserStorage() {
+        this(new UserIndexes(), new AtomicLong(1));
+    }
+
+    /**
+     * A partition sharing the email and login indexes and the id counter with the other
+     * partitions, see {@link ShardedUserStorage}.
+     */
+    InMemoryUserStorage(UserIndexes indexes, AtomicLong nextId) {
+        this.indexes = indexes;
+        this.nextId = nextId;
+    }
 
     public User create(User user) {
-        user.setId(currentId++);
-        users.put(user.getId(), user);
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        indexes.claimNew(user, nextId::getAndIncrement);
+        insert(user);
+        event.finish(STORAGE, "create", 1);
         return user;
     }
 
+    public List<User> createAll(Collection<User> batch) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        List<User> rejected = new ArrayList<>();
+        for (User user : batch) {
+            try {
+                indexes.claimNew(user, nextId::getAndIncrement);
+            } catch (ConflictException e) {
+                rejected.add(user);
+                continue;
+            }
+            insert(user);
+        }
+        event.finish(STORAGE, "createAll", batch.size() - rejected.size());
+        return rejected;
+    }
+
     public User update(User user) {
-        users.put(user.getId(), user);
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        indexes.claim(user);
+        User previous = users.put(user.getId(), user);
+        if (previous != user) {
+            if (previous != null) {
+                account(previous, -1);
+            }
+            account(user, 1);
+        }
+        event.finish(STORAGE, "update", 1);
         return user;
     }
 
+    public boolean replace(User user, long expectedVersion) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        User[] previous = new User[1];
+        users.computeIfPresent(user.getId(), (id, stored) -> {
+            if (stored.getVersion() != expectedVersion) {
+                return stored;
+            }
+            indexes.claim(user);
+            user.setFriends(stored.getFriends());
+            user.setVersion(expectedVersion + 1);
+            previous[0] = stored;
+            return user;
+        });
+        if (previous[0] != null) {
+            userBytes.add(MemoryEstimates.user(user) - MemoryEstimates.user(previous[0]));
+        }
+        event.finish(STORAGE, "replace", previous[0] == null ? 0 : 1);
+        return previous[0] != null;
+    }
+
     public Collection<User> findAll() {
         return users.values();
     }
 
     public Optional<User> findById(Long id) {
-        return Optional.ofNullable(users.get(id));
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        User user = get(id);
+        event.finish(STORAGE, "findById", user == null ? 0 : 1);
+        return Optional.ofNullable(user);
+    }
+
+    public List<User> findAllById(Collection<Long> ids) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        List<User> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                found.add(user);
+            }
+        }
+        event.finish(STORAGE, "findAllById", found.size());
+        return found;
+    }
+
+    public Optional<User> findByEmail(String email) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        Optional<User> user = indexes.idByEmail(email).map(users::get);
+        event.finish(STORAGE, "findByEmail", user.isPresent() ? 1 : 0);
+        return user;
+    }
+
+    public Optional<User> findByLogin(String login) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        Optional<User> user = indexes.idByLogin(login).map(users::get);
+        event.finish(STORAGE, "findByLogin", user.isPresent() ? 1 : 0);
+        return user;
+    }
+
+    public List<User> searchByLoginPrefix(String prefix, int limit) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        List<User> found = new ArrayList<>();
+        for (Long id : indexes.idsByLoginPrefix(prefix, limit)) {
+            User user = users.get(id);
+            if (user != null) {
+                found.add(user);
+            }
+        }
+        event.finish(STORAGE, "searchByLoginPrefix", found.size());
+        return found;
+    }
+
+    public void recordFriendAdded(User user) {
+        friendEntries.increment();
+    }
+
+    public void recordFriendRemoved(User user) {
+        friendEntries.decrement();
+    }
+
+    public Map<String, Long> getHeapFootprint() {
+        Map<String, Long> footprint = new LinkedHashMap<>();
+        footprint.put("users", userBytes.sum());
+        footprint.put("friends", friendEntries.sum() * MemoryEstimates.SET_ENTRY);
+        footprint.put("userIndexes", indexes.size() * MemoryEstimates.USER_INDEX_ENTRY);
+        return footprint;
+    }
+
+    User get(Long id) {
+        return users.get(id);
+    }
+
+    /**
+     * Stores a new user whose id, email and login have already been claimed.
+     */
+    void insert(User user) {
+        user.setVersion(1);
+        users.put(user.getId(), user);
+        account(user, 1);
+    }
+
+    private void account(User user, int sign) {
+        userBytes.add(sign * MemoryEstimates.user(user));
+        friendEntries.add(sign * user.getFriends().size());
     }
 }
@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+class LongLongIndex {
+
+    static final long MISSING = -1;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongLongIndex(int expected) {
+        allocate(Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1);
+    }
+
+    long get(long key) {
+        int index = indexOf(key);
+        return keys[index] == EMPTY ? MISSING : values[index];
+    }
+
+    void put(long key, long value) {
+        int index = indexOf(key);
+        if (keys[index] == EMPTY) {
+            keys[index] = key;
+            if (++size * 2 > keys.length) {
+                values[index] = value;
+                grow();
+                return;
+            }
+        }
+        values[index] = value;
+    }
+
+    void forEachKey(LongConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i]);
+            }
+        }
+    }
+
+    void forEachValue(LongConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(values[i]);
+            }
+        }
+    }
+
+    long[] keys() {
+        long[] result = new long[size];
+        int next = 0;
+        for (long key : keys) {
+            if (key != EMPTY) {
+                result[next++] = key;
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long capacityBytes() {
+        return (long) keys.length * Long.BYTES * 2;
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int index = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new long[capacity];
+    }
+}
@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+/**
+ * Shallow-plus-owned size estimates for a 64-bit JVM with compressed oops. The numbers are
+ * approximations meant for trend and budget decisions, not exact heap accounting.
+ */
+final class MemoryEstimates {
+
+    static final long BOXED_LONG = 16;
+    static final long BOXED_INTEGER = 16;
+    static final long LOCAL_DATE = 24;
+    /** HashMap / ConcurrentHashMap node plus its share of the table at the default load factor. */
+    static final long MAP_ENTRY = 44;
+    /** ConcurrentCountingSet with no members: the set, its key-set view, backing map and LongAdder. */
+    static final long EMPTY_COUNTING_SET = 128;
+    /** One id inside a like or friend set. */
+    static final long SET_ENTRY = MAP_ENTRY + BOXED_LONG;
+    /** Per-user cost of UserIndexes: two hash entries, a skip-list node and the key record. */
+    static final long USER_INDEX_ENTRY = 3 * MAP_ENTRY + 48 + 24;
+
+    private static final long OBJECT_HEADER = 12;
+    private static final long REFERENCE = 4;
+
+    private MemoryEstimates() {
+    }
+
+    static long film(Film film) {
+        return align(OBJECT_HEADER + 6 * REFERENCE + Long.BYTES)
+                + BOXED_LONG
+                + string(film.getName())
+                + string(film.getDescription())
+                + (film.getReleaseDate() == null ? 0 : LOCAL_DATE)
+                + (film.getDuration() == null ? 0 : BOXED_INTEGER)
+                + EMPTY_COUNTING_SET
+                + MAP_ENTRY;
+    }
+
+    static long user(User user) {
+        return align(OBJECT_HEADER + 6 * REFERENCE + Long.BYTES)
+                + BOXED_LONG
+                + string(user.getEmail())
+                + string(user.getLogin())
+                + string(user.getName())
+                + (user.getBirthday() == null ? 0 : LOCAL_DATE)
+                + EMPTY_COUNTING_SET
+                + MAP_ENTRY;
+    }
+
+    static long string(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return align(OBJECT_HEADER + 12) + align(16 + (long) value.length() * bytesPerChar);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
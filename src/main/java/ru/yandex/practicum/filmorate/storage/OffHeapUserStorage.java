@@ -0,0 +1,415 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.jfr.StorageReadEvent;
+import ru.yandex.practicum.filmorate.jfr.StorageWriteEvent;
+import ru.yandex.practicum.filmorate.model.ConcurrentCountingSet;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Keeps user records in direct ByteBuffer segments instead of on the heap.
+ * Record layout: capacity, length, id, birthday epoch day, email, login, name, friend ids.
+ * Strings are stored as length-prefixed UTF-8 (length -1 means null). Records grow in place
+ * while they fit their capacity, otherwise they are re-appended and the old slot becomes garbage.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.users", havingValue = "offheap")
+public class OffHeapUserStorage implements UserStorage {
+
+    private static final String STORAGE = "users-offheap";
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final long NO_BIRTHDAY = Long.MIN_VALUE;
+
+    private final int segmentSize;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final LongLongIndex index = new LongLongIndex(1024);
+    private final UserIndexes indexes = new UserIndexes();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long currentId = 1;
+    private int writePosition;
+    private long garbageBytes;
+
+    public OffHeapUserStorage(@Value("${filmorate.storage.offheap.segment-size:67108864}") int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public User create(User user) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        lock.writeLock().lock();
+        try {
+            indexes.claimNew(user, () -> currentId++);
+            user.setVersion(1);
+            write(user);
+            event.finish(STORAGE, "create", 1);
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<User> createAll(Collection<User> batch) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        lock.writeLock().lock();
+        try {
+            List<User> rejected = new ArrayList<>();
+            for (User user : batch) {
+                try {
+                    indexes.claimNew(user, () -> currentId++);
+                } catch (ConflictException e) {
+                    rejected.add(user);
+                    continue;
+                }
+                user.setVersion(1);
+                write(user);
+            }
+            event.finish(STORAGE, "createAll", batch.size() - rejected.size());
+            return rejected;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public User update(User user) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        lock.writeLock().lock();
+        try {
+            indexes.claim(user);
+            write(user);
+            event.finish(STORAGE, "update", 1);
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean replace(User user, long expectedVersion) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        lock.writeLock().lock();
+        try {
+            long address = index.get(user.getId());
+            User stored = address == LongLongIndex.MISSING ? null : read(address);
+            if (stored == null || stored.getVersion() != expectedVersion) {
+                event.finish(STORAGE, "replace", 0);
+                return false;
+            }
+            indexes.claim(user);
+            user.setFriends(stored.getFriends());
+            user.setVersion(expectedVersion + 1);
+            write(user);
+            event.finish(STORAGE, "replace", 1);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Collection<User> findAll() {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        lock.readLock().lock();
+        try {
+            List<User> users = new ArrayList<>(index.size());
+            index.forEachValue(address -> users.add(read(address)));
+            event.finish(STORAGE, "findAll", users.size());
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<User> findById(Long id) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        lock.readLock().lock();
+        try {
+            long address = index.get(id);
+            Optional<User> user = address == LongLongIndex.MISSING ? Optional.empty() : Optional.of(read(address));
+            event.finish(STORAGE, "findById", user.isPresent() ? 1 : 0);
+            return user;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<User> findAllById(Collection<Long> ids) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        List<User> found = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                long address = index.get(id);
+                if (address != LongLongIndex.MISSING) {
+                    found.add(read(address));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        event.finish(STORAGE, "findAllById", found.size());
+        return found;
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return indexes.idByEmail(email).flatMap(this::findById);
+    }
+
+    public Optional<User> findByLogin(String login) {
+        return indexes.idByLogin(login).flatMap(this::findById);
+    }
+
+    public List<User> searchByLoginPrefix(String prefix, int limit) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        List<Long> ids = indexes.idsByLoginPrefix(prefix, limit);
+        lock.readLock().lock();
+        try {
+            List<User> found = new ArrayList<>(ids.size());
+            for (long id : ids) {
+                long address = index.get(id);
+                if (address != LongLongIndex.MISSING) {
+                    found.add(read(address));
+                }
+            }
+            event.finish(STORAGE, "searchByLoginPrefix", found.size());
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] findAllIds() {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[index.size()];
+            int[] count = new int[1];
+            index.forEachKey(id -> ids[count[0]++] = id);
+            event.finish(STORAGE, "findAllIds", ids.length);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the friend ids straight from the record, skipping its strings.
+     */
+    public int forEachFriendId(long userId, LongConsumer action) {
+        lock.readLock().lock();
+        try {
+            long address = index.get(userId);
+            if (address == LongLongIndex.MISSING) {
+                return 0;
+            }
+            ByteBuffer segment = segments.get(segmentOf(address));
+            int offset = positionOf(address) + HEADER_BYTES + 3 * Long.BYTES;
+            for (int i = 0; i < 3; i++) {
+                offset += stringBytes(segment.getInt(offset));
+            }
+            int friendCount = segment.getInt(offset);
+            offset += Integer.BYTES;
+            for (int i = 0; i < friendCount; i++) {
+                action.accept(segment.getLong(offset));
+                offset += Long.BYTES;
+            }
+            return friendCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void recordFriendAdded(User user) {
+    }
+
+    public void recordFriendRemoved(User user) {
+    }
+
+    public Map<String, Long> getHeapFootprint() {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> footprint = new LinkedHashMap<>();
+            footprint.put("offHeapIndex", index.capacityBytes());
+            footprint.put("userIndexes", indexes.size() * MemoryEstimates.USER_INDEX_ENTRY);
+            return footprint;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) segments.size() * segmentSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getGarbageBytes() {
+        lock.readLock().lock();
+        try {
+            return garbageBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(User user) {
+        byte[] email = encode(user.getEmail());
+        byte[] login = encode(user.getLogin());
+        byte[] name = encode(user.getName());
+        Set<Long> friends = user.getFriends() == null ? Set.of() : user.getFriends();
+        int length = 3 * Long.BYTES
+                + stringBytes(email) + stringBytes(login) + stringBytes(name)
+                + Integer.BYTES + friends.size() * Long.BYTES;
+
+        long address = index.get(user.getId());
+        ByteBuffer segment;
+        int position;
+        if (address != LongLongIndex.MISSING
+                && segments.get(segmentOf(address)).getInt(positionOf(address)) >= length) {
+            segment = segments.get(segmentOf(address));
+            position = positionOf(address);
+        } else {
+            if (address != LongLongIndex.MISSING) {
+                garbageBytes += HEADER_BYTES + segments.get(segmentOf(address)).getInt(positionOf(address));
+            }
+            int capacity = Math.min(length + length / 2, segmentSize - HEADER_BYTES);
+            if (length > capacity) {
+                throw new IllegalStateException("Запись пользователя " + user.getId()
+                        + " не помещается в сегмент: " + length + " байт");
+            }
+            address = allocate(HEADER_BYTES + capacity);
+            segment = segments.get(segmentOf(address));
+            position = positionOf(address);
+            segment.putInt(position, capacity);
+            index.put(user.getId(), address);
+        }
+
+        int offset = position + Integer.BYTES;
+        segment.putInt(offset, length);
+        offset += Integer.BYTES;
+        segment.putLong(offset, user.getId());
+        offset += Long.BYTES;
+        segment.putLong(offset, user.getVersion());
+        offset += Long.BYTES;
+        segment.putLong(offset, user.getBirthday() == null ? NO_BIRTHDAY : user.getBirthday().toEpochDay());
+        offset += Long.BYTES;
+        offset = putString(segment, offset, email);
+        offset = putString(segment, offset, login);
+        offset = putString(segment, offset, name);
+        segment.putInt(offset, friends.size());
+        offset += Integer.BYTES;
+        for (Long friendId : friends) {
+            segment.putLong(offset, friendId);
+            offset += Long.BYTES;
+        }
+    }
+
+    private User read(long address) {
+        ByteBuffer segment = segments.get(segmentOf(address));
+        int offset = positionOf(address) + HEADER_BYTES;
+        User user = new User();
+        user.setId(segment.getLong(offset));
+        offset += Long.BYTES;
+        user.setVersion(segment.getLong(offset));
+        offset += Long.BYTES;
+        long birthday = segment.getLong(offset);
+        user.setBirthday(birthday == NO_BIRTHDAY ? null : LocalDate.ofEpochDay(birthday));
+        offset += Long.BYTES;
+        int length = segment.getInt(offset);
+        user.setEmail(getString(segment, offset));
+        offset += stringBytes(length);
+        length = segment.getInt(offset);
+        user.setLogin(getString(segment, offset));
+        offset += stringBytes(length);
+        length = segment.getInt(offset);
+        user.setName(getString(segment, offset));
+        offset += stringBytes(length);
+        int friendCount = segment.getInt(offset);
+        offset += Integer.BYTES;
+        // the set setFriends keeps as is, so the friend ids are copied once
+        Set<Long> friends = new ConcurrentCountingSet(friendCount);
+        for (int i = 0; i < friendCount; i++) {
+            friends.add(segment.getLong(offset));
+            offset += Long.BYTES;
+        }
+        user.setFriends(friends);
+        return user;
+    }
+
+    private long allocate(int bytes) {
+        if (segments.isEmpty() || writePosition + bytes > segmentSize) {
+            segments.add(ByteBuffer.allocateDirect(segmentSize));
+            writePosition = 0;
+            log.info("Выделен сегмент вне кучи #{} размером {} байт", segments.size(), segmentSize);
+        }
+        long address = ((long) (segments.size() - 1) << 32) | writePosition;
+        writePosition += bytes;
+        return address;
+    }
+
+    private static int segmentOf(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int positionOf(long address) {
+        return (int) address;
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringBytes(byte[] value) {
+        return Integer.BYTES + (value == null ? 0 : value.length);
+    }
+
+    private static int stringBytes(int length) {
+        return Integer.BYTES + Math.max(length, 0);
+    }
+
+    private static int putString(ByteBuffer segment, int offset, byte[] value) {
+        if (value == null) {
+            segment.putInt(offset, -1);
+            return offset + Integer.BYTES;
+        }
+        segment.putInt(offset, value.length);
+        segment.put(offset + Integer.BYTES, value);
+        return offset + Integer.BYTES + value.length;
+    }
+
+    private static String getString(ByteBuffer segment, int offset) {
+        int length = segment.getInt(offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        segment.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
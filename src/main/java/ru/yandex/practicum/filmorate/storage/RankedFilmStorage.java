@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.List;
+
+/**
+ * Implemented by film storages that can rank by like count without materializing every film,
+ * e.g. when film bodies live on disk.
+ */
+public interface RankedFilmStorage {
+
+    public List<Film> findPopular(int count);
+}
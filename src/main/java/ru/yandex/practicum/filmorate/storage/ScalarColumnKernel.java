@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.storage;
+
+final class ScalarColumnKernel extends ColumnKernel {
+
+    static final ScalarColumnKernel INSTANCE = new ScalarColumnKernel();
+
+    private ScalarColumnKernel() {
+    }
+
+    @Override
+    public String toString() {
+        return "скалярные сканы";
+    }
+
+    @Override
+    int scan(int[] released, int[] durations, int[] likes, int from, int to, Bounds bounds, int[] rows,
+             long[] totals) {
+        return scan(released, durations, likes, from, to, bounds, rows, 0, totals);
+    }
+
+    /**
+     * Same as {@link #scan(int[], int[], int[], int, int, Bounds, int[], long[])}, with the first
+     * found rows already written by the caller.
+     */
+    static int scan(int[] released, int[] durations, int[] likes, int from, int to, Bounds bounds, int[] rows,
+                    int found, long[] totals) {
+        for (int i = from; i < to; i++) {
+            int release = released[i];
+            int duration = durations[i];
+            int like = likes[i];
+            if (release >= bounds.minReleased() && release <= bounds.maxReleased()
+                    && duration >= bounds.minDuration() && duration <= bounds.maxDuration()
+                    && like >= bounds.minLikes() && like <= bounds.maxLikes()) {
+                totals[COUNT]++;
+                totals[LIKES] += like;
+                if (duration != NO_DURATION) {
+                    totals[DURATION] += duration;
+                    totals[TIMED]++;
+                }
+                if (rows != null) {
+                    rows[found] = i;
+                }
+                found++;
+            }
+        }
+        return found;
+    }
+}
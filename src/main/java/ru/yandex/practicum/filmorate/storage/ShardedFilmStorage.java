@@ -0,0 +1,151 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmCatalogStats;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Films split by id hash into independent in-memory partitions, each with its own map,
+ * aggregates and columns, so writes to different films never meet on a shared structure.
+ * Whole-catalog reads run on every partition in parallel and merge the partial results.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.films", havingValue = "sharded")
+public class ShardedFilmStorage implements FilmStorage, RankedFilmStorage, ColumnarFilmStorage, AutoCloseable {
+
+    private static final Comparator<Film> BY_LIKES = Comparator.comparingInt((Film film) -> film.getLikes().size());
+
+    private final InMemoryFilmStorage[] partitions;
+    private final FanOut fanOut;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public ShardedFilmStorage(@Value("${filmorate.storage.sharded.partitions:16}") int partitions,
+                              @Value("${filmorate.storage.sharded.parallelism:0}") int parallelism) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Число разделов должно быть положительным: " + partitions);
+        }
+        this.partitions = new InMemoryFilmStorage[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new InMemoryFilmStorage(nextId);
+        }
+        this.fanOut = new FanOut(parallelism, "filmorate-films-fanout");
+        log.info("Шардированное хранилище фильмов: {} разделов, {} потоков", partitions, fanOut.parallelism());
+    }
+
+    public void addFilm(Film film) {
+        partition(film.getId()).addFilm(film);
+    }
+
+    public void addFilms(Collection<Film> batch) {
+        List<List<Film>> groups = new ArrayList<>(partitions.length);
+        for (int i = 0; i < partitions.length; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (Film film : batch) {
+            groups.get(FanOut.partitionOf(film.getId(), partitions.length)).add(film);
+        }
+        fanOut.run(partitions.length, i -> {
+            if (!groups.get(i).isEmpty()) {
+                partitions[i].addFilms(groups.get(i));
+            }
+        });
+    }
+
+    public boolean replace(Film film, long expectedVersion) {
+        return partition(film.getId()).replace(film, expectedVersion);
+    }
+
+    public Optional<Film> findById(Long id) {
+        return partition(id).findById(id);
+    }
+
+    public Collection<Film> findAll() {
+        List<List<Film>> parts = fanOut.map(partitions, partition -> new ArrayList<>(partition.findAll()));
+        List<Film> films = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        parts.forEach(films::addAll);
+        return films;
+    }
+
+    public List<Film> findPopular(int count) {
+        List<Film> candidates = new ArrayList<>();
+        fanOut.map(partitions, partition -> partition.findPopular(count)).forEach(candidates::addAll);
+        candidates.sort(BY_LIKES.reversed());
+        return new ArrayList<>(candidates.subList(0, Math.min(Math.max(count, 0), candidates.size())));
+    }
+
+    public List<Film> search(FilmFilter filter, int limit) {
+        List<Film> films = new ArrayList<>();
+        fanOut.map(partitions, partition -> partition.search(filter, limit)).forEach(films::addAll);
+        films.sort(Comparator.comparing(Film::getId));
+        return new ArrayList<>(films.subList(0, Math.min(limit, films.size())));
+    }
+
+    public FilmSearchStats aggregate(FilmFilter filter) {
+        long[] totals = new long[ColumnKernel.TOTALS];
+        fanOut.map(partitions, partition -> partition.aggregateTotals(filter))
+                .forEach(part -> FilmColumns.add(totals, part));
+        return FilmColumns.stats(totals);
+    }
+
+    public long allocateId() {
+        return nextId.getAndIncrement();
+    }
+
+    public long allocateIds(int count) {
+        return nextId.getAndAdd(count);
+    }
+
+    public long size() {
+        long size = 0;
+        for (InMemoryFilmStorage partition : partitions) {
+            size += partition.size();
+        }
+        return size;
+    }
+
+    public void recordLike(Film film) {
+        partition(film.getId()).recordLike(film);
+    }
+
+    public void recordUnlike(Film film) {
+        partition(film.getId()).recordUnlike(film);
+    }
+
+    public FilmCatalogStats getStats() {
+        return FilmAggregates.merge(fanOut.map(partitions, InMemoryFilmStorage::getStats));
+    }
+
+    public Map<String, Long> getHeapFootprint() {
+        Map<String, Long> footprint = new LinkedHashMap<>();
+        for (InMemoryFilmStorage partition : partitions) {
+            partition.getHeapFootprint().forEach((component, bytes) -> footprint.merge(component, bytes, Long::sum));
+        }
+        return footprint;
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        fanOut.close();
+    }
+
+    private InMemoryFilmStorage partition(long id) {
+        return partitions[FanOut.partitionOf(id, partitions.length)];
+    }
+}
@@ -0,0 +1,173 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.jfr.StorageReadEvent;
+import ru.yandex.practicum.filmorate.jfr.StorageWriteEvent;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Users split by id hash into {@link InMemoryUserStorage} partitions; whole-table reads fan out
+ * to all partitions in parallel. Email and login must stay unique across the whole table, so
+ * the partitions share one {@link UserIndexes} and one id counter.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.users", havingValue = "sharded")
+public class ShardedUserStorage implements UserStorage {
+
+    private static final String STORAGE = "users-sharded";
+
+    private final InMemoryUserStorage[] partitions;
+    private final FanOut fanOut;
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final UserIndexes indexes = new UserIndexes();
+
+    public ShardedUserStorage(@Value("${filmorate.storage.sharded.partitions:16}") int partitions,
+                              @Value("${filmorate.storage.sharded.parallelism:0}") int parallelism) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Число разделов должно быть положительным: " + partitions);
+        }
+        this.partitions = new InMemoryUserStorage[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new InMemoryUserStorage(indexes, nextId);
+        }
+        this.fanOut = new FanOut(parallelism, "filmorate-users-fanout");
+        log.info("Шардированное хранилище пользователей: {} разделов, {} потоков", partitions,
+                fanOut.parallelism());
+    }
+
+    public User create(User user) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        indexes.claimNew(user, nextId::getAndIncrement);
+        partition(user.getId()).insert(user);
+        event.finish(STORAGE, "create", 1);
+        return user;
+    }
+
+    public List<User> createAll(Collection<User> batch) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        List<User> rejected = new ArrayList<>();
+        for (User user : batch) {
+            try {
+                indexes.claimNew(user, nextId::getAndIncrement);
+            } catch (ConflictException e) {
+                rejected.add(user);
+                continue;
+            }
+            partition(user.getId()).insert(user);
+        }
+        event.finish(STORAGE, "createAll", batch.size() - rejected.size());
+        return rejected;
+    }
+
+    public User update(User user) {
+        return partition(user.getId()).update(user);
+    }
+
+    public boolean replace(User user, long expectedVersion) {
+        return partition(user.getId()).replace(user, expectedVersion);
+    }
+
+    public Collection<User> findAll() {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        List<List<User>> parts = fanOut.map(partitions, partition -> new ArrayList<>(partition.findAll()));
+        List<User> all = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        parts.forEach(all::addAll);
+        event.finish(STORAGE, "findAll", all.size());
+        return all;
+    }
+
+    public Optional<User> findById(Long id) {
+        return partition(id).findById(id);
+    }
+
+    public List<User> findAllById(Collection<Long> ids) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        List<User> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = get(id);
+            if (user != null) {
+                found.add(user);
+            }
+        }
+        event.finish(STORAGE, "findAllById", found.size());
+        return found;
+    }
+
+    public Optional<User> findByEmail(String email) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        Optional<User> user = indexes.idByEmail(email).map(this::get);
+        event.finish(STORAGE, "findByEmail", user.isPresent() ? 1 : 0);
+        return user;
+    }
+
+    public Optional<User> findByLogin(String login) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        Optional<User> user = indexes.idByLogin(login).map(this::get);
+        event.finish(STORAGE, "findByLogin", user.isPresent() ? 1 : 0);
+        return user;
+    }
+
+    public List<User> searchByLoginPrefix(String prefix, int limit) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        List<User> found = new ArrayList<>();
+        for (Long id : indexes.idsByLoginPrefix(prefix, limit)) {
+            User user = get(id);
+            if (user != null) {
+                found.add(user);
+            }
+        }
+        event.finish(STORAGE, "searchByLoginPrefix", found.size());
+        return found;
+    }
+
+    public void recordFriendAdded(User user) {
+        partition(user.getId()).recordFriendAdded(user);
+    }
+
+    public void recordFriendRemoved(User user) {
+        partition(user.getId()).recordFriendRemoved(user);
+    }
+
+    public Map<String, Long> getHeapFootprint() {
+        Map<String, Long> footprint = new LinkedHashMap<>();
+        for (InMemoryUserStorage partition : partitions) {
+            partition.getHeapFootprint().forEach((component, bytes) -> footprint.merge(component, bytes, Long::sum));
+        }
+        footprint.put("userIndexes", indexes.size() * MemoryEstimates.USER_INDEX_ENTRY);
+        return footprint;
+    }
+
+    @PreDestroy
+    public void close() {
+        fanOut.close();
+    }
+
+    private User get(Long id) {
+        return partition(id).get(id);
+    }
+
+    private InMemoryUserStorage partition(long id) {
+        return partitions[FanOut.partitionOf(id, partitions.length)];
+    }
+}
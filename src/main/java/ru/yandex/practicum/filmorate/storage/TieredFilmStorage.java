@@ -0,0 +1,329 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.jfr.StorageReadEvent;
+import ru.yandex.practicum.filmorate.jfr.StorageWriteEvent;
+import ru.yandex.practicum.filmorate.model.ConcurrentCountingSet;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmCatalogStats;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
+import ru.yandex.practicum.filmorate.model.FilmTierStats;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Film storage with a W-TinyLFU hot tier on heap and every film body written through to
+ * append-only scratch segment files, which do not outlive the process. Like sets stay on heap
+ * for all films and are shared by every instance handed out for an id, so likes on a film
+ * loaded from disk are never lost and popularity is ranked without reading cold films.
+ * {@link #findAll()} pages cold bodies in while iterating instead of decoding them all at once.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.films", havingValue = "tiered")
+public class TieredFilmStorage implements FilmStorage, RankedFilmStorage, ColumnarFilmStorage {
+
+    private static final String STORAGE = "films-tiered";
+    private static final int PAGE_SIZE = 256;
+
+    private final int hotCapacity;
+    private final TinyLfuCache<Film> hot;
+    private final FilmSegmentStore cold;
+    private final Map<Long, Set<Long>> likes = new ConcurrentHashMap<>();
+    private final FilmAggregates aggregates = new FilmAggregates();
+    private final FilmColumns columns = new FilmColumns();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Object writeLock = new Object();
+    private final LongAdder hotHits = new LongAdder();
+    private final LongAdder hotNanos = new LongAdder();
+    private final LongAdder coldHits = new LongAdder();
+    private final LongAdder coldNanos = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TieredFilmStorage(@Value("${filmorate.storage.tiered.hot-capacity:10000}") int hotCapacity,
+                             @Value("${filmorate.storage.tiered.scratch-dir:${java.io.tmpdir}}") String scratchDir,
+                             @Value("${filmorate.storage.tiered.segment-size:67108864}") int segmentSize) {
+        this.hotCapacity = hotCapacity;
+        this.hot = new TinyLfuCache<>(hotCapacity, MemoryEstimates::film);
+        this.cold = new FilmSegmentStore(Path.of(scratchDir), segmentSize);
+        log.info("Многоуровневое хранилище фильмов: {} фильмов в памяти, временные сегменты в {}", hotCapacity,
+                cold.directory());
+    }
+
+    public void addFilm(Film film) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        synchronized (writeLock) {
+            put(film);
+        }
+        event.finish(STORAGE, "addFilm", 1);
+    }
+
+    public void addFilms(Collection<Film> batch) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        synchronized (writeLock) {
+            for (Film film : batch) {
+                put(film);
+            }
+        }
+        event.finish(STORAGE, "addFilms", batch.size());
+    }
+
+    public boolean replace(Film film, long expectedVersion) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        boolean replaced = false;
+        synchronized (writeLock) {
+            Film stored = hot.peek(film.getId());
+            if (stored == null) {
+                stored = cold.read(cold.addressOf(film.getId()));
+            }
+            if (stored != null && stored.getVersion() == expectedVersion) {
+                film.setLikes(likes.computeIfAbsent(film.getId(), id -> new ConcurrentCountingSet()));
+                film.setVersion(expectedVersion + 1);
+                cold.write(film);
+                synchronized (hot) {
+                    hot.put(film.getId(), film);
+                }
+                aggregates.replace(stored, film);
+                columns.replace(film);
+                replaced = true;
+            }
+        }
+        event.finish(STORAGE, "replace", replaced ? 1 : 0);
+        return replaced;
+    }
+
+    public Optional<Film> findById(Long id) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Film film = hot.get(id);
+        if (film != null) {
+            hotNanos.add(System.nanoTime() - start);
+            hotHits.increment();
+            event.finish(STORAGE, "findById.hot", 1);
+            return Optional.of(film);
+        }
+
+        long address = cold.addressOf(id);
+        film = withLikes(cold.read(address));
+        if (film == null) {
+            misses.increment();
+            event.finish(STORAGE, "findById", 0);
+            return Optional.empty();
+        }
+        synchronized (hot) {
+            // a concurrent rewrite moves the address; never cache the older body over it
+            if (cold.addressOf(id) == address && !hot.putIfAbsent(id, film)) {
+                film = hot.peek(id);
+            }
+        }
+        coldNanos.add(System.nanoTime() - start);
+        coldHits.increment();
+        event.finish(STORAGE, "findById.cold", 1);
+        return Optional.of(film);
+    }
+
+    public Collection<Film> findAll() {
+        return new PagedFilms(cold.ids());
+    }
+
+    public List<Film> findPopular(int count) {
+        PriorityQueue<Map.Entry<Long, Set<Long>>> top = new PriorityQueue<>(
+                Comparator.comparingInt((Map.Entry<Long, Set<Long>> entry) -> entry.getValue().size()));
+        for (Map.Entry<Long, Set<Long>> entry : likes.entrySet()) {
+            if (top.size() < count) {
+                top.add(entry);
+            } else if (count > 0 && entry.getValue().size() > top.peek().getValue().size()) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+        List<Film> popular = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            findById(top.poll().getKey()).ifPresent(popular::add);
+        }
+        popular.sort(Comparator.comparingInt((Film film) -> film.getLikes().size()).reversed());
+        return popular;
+    }
+
+    public long allocateId() {
+        return nextId.getAndIncrement();
+    }
+
+    public long allocateIds(int count) {
+        return nextId.getAndAdd(count);
+    }
+
+    public long size() {
+        return likes.size();
+    }
+
+    public void recordLike(Film film) {
+        aggregates.likeAdded();
+        columns.likeAdded(film.getId());
+    }
+
+    public void recordUnlike(Film film) {
+        aggregates.likeRemoved();
+        columns.likeRemoved(film.getId());
+    }
+
+    public FilmCatalogStats getStats() {
+        return aggregates.snapshot();
+    }
+
+    public List<Film> search(FilmFilter filter, int limit) {
+        long[] ids = columns.select(filter, limit);
+        List<Film> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            findById(id).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    public FilmSearchStats aggregate(FilmFilter filter) {
+        return columns.aggregate(filter);
+    }
+
+    public Map<String, Long> getHeapFootprint() {
+        Map<String, Long> footprint = new LinkedHashMap<>();
+        footprint.put("hotFilms", hot.weight());
+        footprint.put("likes", aggregates.likeCount() * MemoryEstimates.SET_ENTRY
+                + likes.size() * (MemoryEstimates.MAP_ENTRY + MemoryEstimates.EMPTY_COUNTING_SET));
+        footprint.put("coldIndex", cold.indexBytes());
+        footprint.put("columns", columns.capacityBytes());
+        return footprint;
+    }
+
+    public FilmTierStats getTierStats() {
+        FilmTierStats stats = new FilmTierStats();
+        stats.setHotCapacity(hotCapacity);
+        stats.setHotFilms(hot.size());
+        stats.setHotBytes(hot.weight());
+        stats.setHotHits(hotHits.sum());
+        stats.setHotAverageMicros(averageMicros(hotNanos, stats.getHotHits()));
+        stats.setColdHits(coldHits.sum());
+        stats.setColdAverageMicros(averageMicros(coldNanos, stats.getColdHits()));
+        stats.setMisses(misses.sum());
+        stats.setEvictions(hot.evictions());
+        stats.setColdFilms(cold.size());
+        stats.setSegments(cold.segmentCount());
+        stats.setDiskBytes(cold.diskBytes());
+        stats.setGarbageBytes(cold.garbageBytes());
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        cold.close();
+    }
+
+    private void put(Film film) {
+        Film previous = hot.peek(film.getId());
+        if (previous == null) {
+            previous = withLikes(cold.read(cold.addressOf(film.getId())));
+        }
+        if (previous != null) {
+            aggregates.remove(previous);
+        }
+
+        cold.write(film);
+        likes.put(film.getId(), film.getLikes());
+        synchronized (hot) {
+            hot.put(film.getId(), film);
+        }
+        aggregates.add(film);
+        columns.put(film);
+        nextId.accumulateAndGet(film.getId() + 1, Math::max);
+    }
+
+    private List<Film> readPage(long[] ids, int from) {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        List<Film> page = cold.readAll(ids, from, Math.min(from + PAGE_SIZE, ids.length));
+        page.replaceAll(stored -> {
+            Film cached = hot.peek(stored.getId());
+            return cached != null ? cached : withLikes(stored);
+        });
+        event.finish(STORAGE, "findAll.page", page.size());
+        return page;
+    }
+
+    private Film withLikes(Film stored) {
+        if (stored != null) {
+            stored.setLikes(likes.computeIfAbsent(stored.getId(), id -> new ConcurrentCountingSet()));
+        }
+        return stored;
+    }
+
+    /**
+     * Films stored when findAll was called, decoded {@link #PAGE_SIZE} at a time by each iterator.
+     */
+    private final class PagedFilms extends AbstractCollection<Film> {
+
+        private final long[] ids;
+
+        private PagedFilms(long[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        @Override
+        public Iterator<Film> iterator() {
+            return new Iterator<>() {
+                private int next;
+                private Iterator<Film> page = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!page.hasNext() && next < ids.length) {
+                        page = readPage(ids, next).iterator();
+                        next += PAGE_SIZE;
+                    }
+                    return page.hasNext();
+                }
+
+                @Override
+                public Film next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return page.next();
+                }
+            };
+        }
+    }
+
+    private static double averageMicros(LongAdder nanos, long hits) {
+        return hits == 0 ? 0 : nanos.sum() / 1_000.0 / hits;
+    }
+}
@@ -0,0 +1,142 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * W-TinyLFU cache keyed by id: a small LRU admission window (1%) in front of a segmented LRU
+ * main area (20% probation, 80% protected). An entry leaving the window only replaces the
+ * probation victim if the frequency sketch has seen it more often, which keeps one-off scans
+ * of the long tail from flushing frequently read films. All methods are synchronized.
+ */
+class TinyLfuCache<V> {
+
+    private final int windowCapacity;
+    private final int probationCapacity;
+    private final int protectedCapacity;
+    private final Map<Long, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, V> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final ToLongFunction<V> weigher;
+    private long weight;
+    private long evictions;
+
+    TinyLfuCache(int capacity, ToLongFunction<V> weigher) {
+        int total = Math.max(capacity, 4);
+        this.windowCapacity = Math.max(1, total / 100);
+        int main = total - windowCapacity;
+        this.protectedCapacity = Math.max(1, main * 8 / 10);
+        this.probationCapacity = Math.max(1, main - protectedCapacity);
+        this.sketch = new FrequencySketch(total);
+        this.weigher = weigher;
+    }
+
+    synchronized V get(long key) {
+        sketch.increment(key);
+        V value = window.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = probation.remove(key);
+        if (value != null) {
+            protectedArea.put(key, value);
+            if (protectedArea.size() > protectedCapacity) {
+                Map.Entry<Long, V> demoted = removeEldest(protectedArea);
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+            return value;
+        }
+        return protectedArea.get(key);
+    }
+
+    synchronized V peek(long key) {
+        V value = window.get(key);
+        if (value == null) {
+            value = probation.get(key);
+        }
+        if (value == null) {
+            value = protectedArea.get(key);
+        }
+        return value;
+    }
+
+    synchronized void put(long key, V value) {
+        if (!replace(key, value)) {
+            admit(key, value);
+        }
+    }
+
+    synchronized boolean putIfAbsent(long key, V value) {
+        if (peek(key) != null) {
+            return false;
+        }
+        admit(key, value);
+        return true;
+    }
+
+    synchronized int size() {
+        return window.size() + probation.size() + protectedArea.size();
+    }
+
+    synchronized long weight() {
+        return weight;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    private boolean replace(long key, V value) {
+        return replaceIn(window, key, value) || replaceIn(probation, key, value)
+                || replaceIn(protectedArea, key, value);
+    }
+
+    private boolean replaceIn(Map<Long, V> area, long key, V value) {
+        V previous = area.get(key);
+        if (previous == null) {
+            return false;
+        }
+        area.put(key, value);
+        weight += weigher.applyAsLong(value) - weigher.applyAsLong(previous);
+        return true;
+    }
+
+    private void admit(long key, V value) {
+        sketch.increment(key);
+        window.put(key, value);
+        weight += weigher.applyAsLong(value);
+        if (window.size() <= windowCapacity) {
+            return;
+        }
+        Map.Entry<Long, V> candidate = removeEldest(window);
+        if (probation.size() + protectedArea.size() < probationCapacity + protectedCapacity) {
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        Map<Long, V> victimArea = probation.isEmpty() ? protectedArea : probation;
+        Map.Entry<Long, V> victim = victimArea.entrySet().iterator().next();
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+            victimArea.remove(victim.getKey());
+            evict(victim.getValue());
+            probation.put(candidate.getKey(), candidate.getValue());
+        } else {
+            evict(candidate.getValue());
+        }
+    }
+
+    private void evict(V value) {
+        weight -= weigher.applyAsLong(value);
+        evictions++;
+    }
+
+    private static <V> Map.Entry<Long, V> removeEldest(Map<Long, V> area) {
+        Iterator<Map.Entry<Long, V>> iterator = area.entrySet().iterator();
+        Map.Entry<Long, V> entry = iterator.next();
+        Map.Entry<Long, V> eldest = Map.entry(entry.getKey(), entry.getValue());
+        iterator.remove();
+        return eldest;
+    }
+}
@@ -0,0 +1,130 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Unique email/login indexes shared by the user storages. Exact lookups go through hash maps,
+ * login typeahead goes through a sorted map scanned from the prefix. Keys are stored lower-cased.
+ * Callers must not claim the same user id concurrently (UserService serializes updates per id).
+ * New users claim their keys under a negative placeholder first, so a conflict doesn't burn an id.
+ */
+class UserIndexes {
+
+    private final Map<String, Long> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, Long> byLogin = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Long> loginsSorted = new ConcurrentSkipListMap<>();
+    private final Map<Long, Keys> keysById = new ConcurrentHashMap<>();
+    private final AtomicLong placeholders = new AtomicLong();
+
+    public long claimNew(User user, LongSupplier ids) {
+        long placeholder = placeholders.decrementAndGet();
+        user.setId(placeholder);
+        try {
+            claim(user);
+        } catch (ConflictException e) {
+            user.setId(null);
+            throw e;
+        }
+        long id = ids.getAsLong();
+        Keys keys = keysById.remove(placeholder);
+        keysById.put(id, keys);
+        if (keys.email() != null) {
+            byEmail.replace(keys.email(), placeholder, id);
+        }
+        if (keys.login() != null) {
+            byLogin.replace(keys.login(), placeholder, id);
+            loginsSorted.replace(keys.login(), placeholder, id);
+        }
+        user.setId(id);
+        return id;
+    }
+
+    public void claim(User user) {
+        long id = user.getId();
+        String email = normalize(user.getEmail());
+        String login = normalize(user.getLogin());
+
+        boolean emailClaimed = claimKey(byEmail, email, id, "email");
+        try {
+            claimKey(byLogin, login, id, "логином");
+        } catch (ConflictException e) {
+            if (emailClaimed) {
+                byEmail.remove(email, id);
+            }
+            throw e;
+        }
+        if (login != null) {
+            loginsSorted.put(login, id);
+        }
+
+        Keys previous = keysById.put(id, new Keys(email, login));
+        if (previous != null) {
+            if (previous.email() != null && !previous.email().equals(email)) {
+                byEmail.remove(previous.email(), id);
+            }
+            if (previous.login() != null && !previous.login().equals(login)) {
+                byLogin.remove(previous.login(), id);
+                loginsSorted.remove(previous.login(), id);
+            }
+        }
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    public Optional<Long> idByEmail(String email) {
+        String key = normalize(email);
+        return key == null ? Optional.empty() : Optional.ofNullable(byEmail.get(key));
+    }
+
+    public Optional<Long> idByLogin(String login) {
+        String key = normalize(login);
+        return key == null ? Optional.empty() : Optional.ofNullable(byLogin.get(key));
+    }
+
+    public List<Long> idsByLoginPrefix(String prefix, int limit) {
+        String from = normalize(prefix);
+        List<Long> ids = new ArrayList<>(limit);
+        for (Map.Entry<String, Long> entry : loginsSorted.tailMap(from, true).entrySet()) {
+            if (ids.size() >= limit || !entry.getKey().startsWith(from)) {
+                break;
+            }
+            ids.add(entry.getValue());
+        }
+        return ids;
+    }
+
+    private static boolean claimKey(Map<String, Long> index, String key, long id, String field) {
+        if (key == null) {
+            return false;
+        }
+        Long owner = index.putIfAbsent(key, id);
+        if (owner == null) {
+            return true;
+        }
+        if (owner == id) {
+            return false;
+        }
+        throw new ConflictException("Пользователь с " + field + " = " + key + " уже существует.");
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Keys(String email, String login) {
+    }
+}
@@ -3,15 +3,69 @@ package ru.yandex.practicum.filmorate.storage;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongConsumer;
 
 public interface UserStorage {
 
     public User create(User user);
 
+    public List<User> createAll(Collection<User> batch);
+
     public User update(User user);
 
+    /**
+     * Compare-and-set update: stores the user only if the stored version still equals
+     * expectedVersion, keeping the stored friends and assigning the next version.
+     *
+     * @return false if the user is missing or has been changed concurrently
+     */
+    public boolean replace(User user, long expectedVersion);
+
     public Collection<User> findAll();
 
     public Optional<User> findById(Long id);
+
+    /**
+     * Multi-get: the users with the given ids in the same order, skipping missing ones.
+     */
+    public List<User> findAllById(Collection<Long> ids);
+
+    public Optional<User> findByEmail(String email);
+
+    public Optional<User> findByLogin(String login);
+
+    public List<User> searchByLoginPrefix(String prefix, int limit);
+
+    public void recordFriendAdded(User user);
+
+    public void recordFriendRemoved(User user);
+
+    public Map<String, Long> getHeapFootprint();
+
+    /**
+     * Adjacency view for whole-graph scans: ids of all stored users. Storages that do not keep
+     * users as objects answer it without building them.
+     */
+    public default long[] findAllIds() {
+        return findAll().stream().mapToLong(User::getId).toArray();
+    }
+
+    /**
+     * Passes every friend id of the user to the action without building the user.
+     *
+     * @return the number of friend ids passed, 0 if the user is missing
+     */
+    public default int forEachFriendId(long userId, LongConsumer action) {
+        Set<Long> friends = findById(userId).map(User::getFriends).orElse(Set.of());
+        int count = 0;
+        for (Long friendId : friends) {
+            action.accept(friendId);
+            count++;
+        }
+        return count;
+    }
 }
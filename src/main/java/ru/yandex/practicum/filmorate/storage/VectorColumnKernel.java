@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Compares a full vector of rows against all six bounds at once and reduces the matching
+ * lanes; the tail shorter than a vector goes through the scalar loop. Only loaded when the
+ * incubator module is present, see {@link ColumnKernel#vector()}.
+ */
+final class VectorColumnKernel extends ColumnKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public String toString() {
+        return "Vector API, " + SPECIES.length() + " полос";
+    }
+
+    @Override
+    int scan(int[] released, int[] durations, int[] likes, int from, int to, Bounds bounds, int[] rows,
+             long[] totals) {
+        int step = SPECIES.length();
+        int found = 0;
+        int i = from;
+        for (; i <= to - step; i += step) {
+            IntVector release = IntVector.fromArray(SPECIES, released, i);
+            IntVector duration = IntVector.fromArray(SPECIES, durations, i);
+            IntVector like = IntVector.fromArray(SPECIES, likes, i);
+            VectorMask<Integer> match = release.compare(VectorOperators.GE, bounds.minReleased())
+                    .and(release.compare(VectorOperators.LE, bounds.maxReleased()))
+                    .and(duration.compare(VectorOperators.GE, bounds.minDuration()))
+                    .and(duration.compare(VectorOperators.LE, bounds.maxDuration()))
+                    .and(like.compare(VectorOperators.GE, bounds.minLikes()))
+                    .and(like.compare(VectorOperators.LE, bounds.maxLikes()));
+            if (!match.anyTrue()) {
+                continue;
+            }
+            totals[COUNT] += match.trueCount();
+            totals[LIKES] += like.reduceLanesToLong(VectorOperators.ADD, match);
+            VectorMask<Integer> timed = match.and(duration.compare(VectorOperators.NE, NO_DURATION));
+            totals[DURATION] += duration.reduceLanesToLong(VectorOperators.ADD, timed);
+            totals[TIMED] += timed.trueCount();
+            if (rows == null) {
+                found += match.trueCount();
+                continue;
+            }
+            for (long bits = match.toLong(); bits != 0; bits &= bits - 1) {
+                rows[found++] = i + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return ScalarColumnKernel.scan(released, durations, likes, i, to, bounds, rows, found, totals);
+    }
+}
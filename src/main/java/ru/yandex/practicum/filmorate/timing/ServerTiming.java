@@ -0,0 +1,121 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread phase recorder for the Server-Timing header. Time is attributed exclusively:
+ * entering a nested phase pauses the enclosing one, so the phases add up to the request total.
+ * Instances are reused by their thread and do nothing unless the current request was sampled.
+ */
+public final class ServerTiming {
+
+    public enum Phase {
+        FILTERS("filters"),
+        MVC("mvc"),
+        JSON("json"),
+        VALIDATION("validation"),
+        CONTROLLER("controller"),
+        SERVICE("service"),
+        STORAGE("storage");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final int MAX_DEPTH = 64;
+    private static final ThreadLocal<ServerTiming> CURRENT = ThreadLocal.withInitial(ServerTiming::new);
+
+    private final long[] nanos = new long[PHASES.length];
+    private final Phase[] stack = new Phase[MAX_DEPTH];
+    private final StringBuilder header = new StringBuilder(128);
+    private int depth;
+    private int overflow;
+    private long mark;
+    private long started;
+    private boolean active;
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    void start() {
+        Arrays.fill(nanos, 0);
+        depth = 0;
+        overflow = 0;
+        active = true;
+        started = System.nanoTime();
+        mark = started;
+    }
+
+    public void enter(Phase phase) {
+        if (!active) {
+            return;
+        }
+        if (depth == MAX_DEPTH) {
+            overflow++;
+            return;
+        }
+        long now = System.nanoTime();
+        if (depth > 0) {
+            nanos[stack[depth - 1].ordinal()] += now - mark;
+        }
+        stack[depth++] = phase;
+        mark = now;
+    }
+
+    public void exit() {
+        if (!active) {
+            return;
+        }
+        if (overflow > 0) {
+            overflow--;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        nanos[stack[--depth].ordinal()] += now - mark;
+        mark = now;
+    }
+
+    String finish() {
+        long total = System.nanoTime() - started;
+        while (depth > 0) {
+            exit();
+        }
+        active = false;
+        header.setLength(0);
+        for (Phase phase : PHASES) {
+            if (nanos[phase.ordinal()] > 0) {
+                appendMetric(phase.metric, nanos[phase.ordinal()]);
+            }
+        }
+        appendMetric("total", total);
+        return header.toString();
+    }
+
+    private void appendMetric(String name, long durationNanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        long micros = durationNanos / 1_000;
+        long fraction = micros % 1_000;
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
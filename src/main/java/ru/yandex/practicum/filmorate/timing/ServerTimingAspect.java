@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+@Aspect
+public class ServerTimingAspect {
+
+    @Around("execution(public * ru.yandex.practicum.filmorate.controller..*(..))")
+    public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(joinPoint, ServerTiming.Phase.CONTROLLER);
+    }
+
+    @Around("execution(public * ru.yandex.practicum.filmorate.service..*(..))")
+    public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(joinPoint, ServerTiming.Phase.SERVICE);
+    }
+
+    @Around("execution(public * ru.yandex.practicum.filmorate.storage..*(..))")
+    public Object storage(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(joinPoint, ServerTiming.Phase.STORAGE);
+    }
+
+    private Object timed(ProceedingJoinPoint joinPoint, ServerTiming.Phase phase) throws Throwable {
+        ServerTiming timing = ServerTiming.current();
+        if (!timing.isActive()) {
+            return joinPoint.proceed();
+        }
+        timing.enter(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exit();
+        }
+    }
+}
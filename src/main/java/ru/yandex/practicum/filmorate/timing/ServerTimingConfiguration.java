@@ -0,0 +1,54 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers Server-Timing instrumentation only when filmorate.timing.enabled is set, so a
+ * disabled deployment has no extra proxies or filters. A request is timed when it
+ * carries the X-Server-Timing header or falls into filmorate.timing.sample-rate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "filmorate.timing.enabled", havingValue = "true")
+public class ServerTimingConfiguration implements WebMvcConfigurer {
+
+    private final jakarta.validation.Validator validator;
+
+    public ServerTimingConfiguration(jakarta.validation.Validator validator) {
+        this.validator = validator;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${filmorate.timing.sample-rate:0.0}") double sampleRate) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(sampleRate));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter.Dispatch> serverTimingDispatchFilter() {
+        FilterRegistrationBean<ServerTimingFilter.Dispatch> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter.Dispatch());
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ServerTimingAspect serverTimingAspect() {
+        return new ServerTimingAspect();
+    }
+
+    @Override
+    public Validator getValidator() {
+        return new TimedValidator(new SpringValidatorAdapter(validator));
+    }
+}
@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Outermost filter: decides whether the request is timed and emits the Server-Timing header.
+ * Timed responses are buffered so the header can still be set after the body is serialized.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_HEADER = "X-Server-Timing";
+    public static final String RESPONSE_HEADER = "Server-Timing";
+
+    private final double sampleRate;
+
+    public ServerTimingFilter(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getHeader(REQUEST_HEADER) == null
+                && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = ServerTiming.current();
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        timing.start();
+        timing.enter(ServerTiming.Phase.FILTERS);
+        String header;
+        try {
+            chain.doFilter(request, buffered);
+        } finally {
+            header = timing.finish();
+        }
+        response.setHeader(RESPONSE_HEADER, header);
+        buffered.copyBodyToResponse();
+    }
+
+    /**
+     * Innermost filter: everything between the two filters (Logbook and the rest of the
+     * servlet filters) is charged to the filters phase, the dispatcher itself to mvc.
+     */
+    public static class Dispatch extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            ServerTiming timing = ServerTiming.current();
+            timing.enter(ServerTiming.Phase.MVC);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                timing.exit();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.json.CachingJacksonConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter registered instead of {@link CachingJacksonConverter} when timing is enabled:
+ * additionally reports body conversion of sampled requests as the json phase of Server-Timing.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.timing.enabled", havingValue = "true")
+public class TimedJacksonConverter extends CachingJacksonConverter {
+
+    public TimedJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        ServerTiming timing = ServerTiming.current();
+        timing.enter(ServerTiming.Phase.JSON);
+        try {
+            return super.read(type, contextClass, inputMessage);
+        } finally {
+            timing.exit();
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ServerTiming timing = ServerTiming.current();
+        timing.enter(ServerTiming.Phase.JSON);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timing.exit();
+        }
+    }
+}
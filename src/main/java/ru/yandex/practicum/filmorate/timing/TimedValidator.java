@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+public class TimedValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+
+    public TimedValidator(SmartValidator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        ServerTiming timing = ServerTiming.current();
+        timing.enter(ServerTiming.Phase.VALIDATION);
+        try {
+            delegate.validate(target, errors);
+        } finally {
+            timing.exit();
+        }
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        ServerTiming timing = ServerTiming.current();
+        timing.enter(ServerTiming.Phase.VALIDATION);
+        try {
+            delegate.validate(target, errors, validationHints);
+        } finally {
+            timing.exit();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import ru.yandex.practicum.filmorate.exception.CapacityExceededException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorLogTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ErrorLog.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void report_shouldCountEveryError_andLogOnlyBurstPerInterval() {
+        ErrorLog errorLog = new ErrorLog(registry, Duration.ofHours(1), 3);
+
+        for (long id = 1; id <= 100; id++) {
+            errorLog.report(HttpStatus.NOT_FOUND, NotFoundException.film(id));
+        }
+        errorLog.report(HttpStatus.INTERNAL_SERVER_ERROR, new IllegalStateException("boom"));
+
+        assertEquals(100, registry.get("filmorate.errors").tag("status", "404")
+                .tag("exception", "NotFoundException").counter().count());
+        assertEquals(1, registry.get("filmorate.errors").tag("status", "500").counter().count());
+        assertEquals(4, appender.list.size());
+        assertEquals(Level.WARN, appender.list.get(0).getLevel());
+        assertEquals("404 NotFoundException: Фильм с id = 1 не найден.", appender.list.get(0).getFormattedMessage());
+        assertEquals(Level.ERROR, appender.list.get(3).getLevel());
+        assertNotNull(appender.list.get(3).getThrowableProxy());
+    }
+
+    @Test
+    void report_shouldLogCapacityRejectionOnce_atWarn() {
+        ErrorLog errorLog = new ErrorLog(registry, Duration.ofHours(1), 3);
+
+        errorLog.report(HttpStatus.SERVICE_UNAVAILABLE, new CapacityExceededException("Хранилище заполнено."));
+
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.WARN, appender.list.get(0).getLevel());
+        assertNull(appender.list.get(0).getThrowableProxy());
+    }
+
+    @Test
+    void report_shouldMentionDroppedLines_inNextInterval() throws InterruptedException {
+        ErrorLog errorLog = new ErrorLog(registry, Duration.ofMillis(50), 1);
+
+        errorLog.report(HttpStatus.NOT_FOUND, NotFoundException.user(1L));
+        errorLog.report(HttpStatus.NOT_FOUND, NotFoundException.user(2L));
+        errorLog.report(HttpStatus.NOT_FOUND, NotFoundException.user(3L));
+        Thread.sleep(60);
+        errorLog.report(HttpStatus.NOT_FOUND, NotFoundException.user(4L));
+
+        assertEquals(2, appender.list.size());
+        assertTrue(appender.list.get(1).getFormattedMessage().endsWith("(пропущено ещё 2 таких же)"));
+        assertEquals(0, NotFoundException.user(1L).getStackTrace().length);
+    }
+}
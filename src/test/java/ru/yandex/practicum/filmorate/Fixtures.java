@@ -0,0 +1,112 @@
+package ru.yandex.practicum.filmorate;
+
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.replication.ReplicationLog;
+import ru.yandex.practicum.filmorate.service.ConsistentCut;
+import ru.yandex.practicum.filmorate.service.FeedService;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.FriendshipAnalyticsService;
+import ru.yandex.practicum.filmorate.service.LikeCoalescer;
+import ru.yandex.practicum.filmorate.service.MemoryBudgetService;
+import ru.yandex.practicum.filmorate.service.TrendingService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test data and service wiring shared by the tests. The static factories return valid entities
+ * that are not stored yet. An instance wires FilmService and UserService over the given storages,
+ * with the side services mocked unless a test supplies its own.
+ */
+public final class Fixtures {
+
+    private ReplicationLog replicationLog = mock(ReplicationLog.class);
+    private JsonFragmentCache jsonFragmentCache = mock(JsonFragmentCache.class);
+    private FeedService feedService = mock(FeedService.class);
+    private TrendingService trendingService = mock(TrendingService.class);
+    private MemoryBudgetService memoryBudgetService = mock(MemoryBudgetService.class);
+    private ConsistentCut consistentCut = new ConsistentCut();
+
+    public static User user(String email, String login) {
+        User user = new User();
+        user.setEmail(email);
+        user.setLogin(login);
+        user.setBirthday(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+
+    public static User user(String login) {
+        return user(login + "@test.com", login);
+    }
+
+    public static User user(int i) {
+        return user("user" + i);
+    }
+
+    public static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(100);
+        return film;
+    }
+
+    public static Film film() {
+        return film("Film");
+    }
+
+    public Fixtures with(ReplicationLog replicationLog) {
+        this.replicationLog = replicationLog;
+        return this;
+    }
+
+    public Fixtures with(FeedService feedService) {
+        this.feedService = feedService;
+        return this;
+    }
+
+    public Fixtures with(TrendingService trendingService) {
+        this.trendingService = trendingService;
+        return this;
+    }
+
+    public Fixtures with(MemoryBudgetService memoryBudgetService) {
+        this.memoryBudgetService = memoryBudgetService;
+        return this;
+    }
+
+    public Fixtures with(ConsistentCut consistentCut) {
+        this.consistentCut = consistentCut;
+        return this;
+    }
+
+    public LikeCoalescer likeCoalescer(FilmStorage filmStorage, boolean enabled, Duration flushInterval,
+                                       int maxPending) {
+        return new LikeCoalescer(filmStorage, replicationLog, jsonFragmentCache, feedService, trendingService,
+                consistentCut, enabled, flushInterval, maxPending);
+    }
+
+    /**
+     * Likes are applied directly, without coalescing.
+     */
+    public FilmService filmService(FilmStorage filmStorage, UserStorage userStorage) {
+        return filmService(filmStorage, userStorage, likeCoalescer(filmStorage, false, Duration.ZERO, 0));
+    }
+
+    public FilmService filmService(FilmStorage filmStorage, UserStorage userStorage, LikeCoalescer likeCoalescer) {
+        return new FilmService(filmStorage, userStorage, likeCoalescer, memoryBudgetService, replicationLog,
+                jsonFragmentCache, feedService, trendingService, consistentCut);
+    }
+
+    public UserService userService(UserStorage userStorage, FriendshipAnalyticsService analytics) {
+        return new UserService(userStorage, analytics, memoryBudgetService, replicationLog, jsonFragmentCache,
+                feedService, consistentCut);
+    }
+}
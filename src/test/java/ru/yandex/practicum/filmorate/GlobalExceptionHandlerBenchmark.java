@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.org.zalando.logbook=OFF")
+@AutoConfigureMockMvc
+class GlobalExceptionHandlerBenchmark {
+
+    private static final int WARMUP = 5_000;
+    private static final int REQUESTS = 20_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void notFound_throughputUnderScraping() throws Exception {
+        run(WARMUP);
+        long start = System.nanoTime();
+        run(REQUESTS);
+        long nanos = System.nanoTime() - start;
+        System.out.printf("404 path: %d req/s over %d requests%n", REQUESTS * 1_000_000_000L / nanos, REQUESTS);
+    }
+
+    private void run(int requests) throws Exception {
+        for (int i = 0; i < requests; i++) {
+            long id = 1_000_000L + i;
+            RequestBuilder request = i % 2 == 0 ? get("/users/" + id) : put("/films/" + id + "/like/1");
+            assertEquals(404, mockMvc.perform(request).andReturn().getResponse().getStatus());
+        }
+    }
+}
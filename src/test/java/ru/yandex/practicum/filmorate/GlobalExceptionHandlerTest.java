@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"filmorate.errors.log-interval=PT1H", "filmorate.errors.log-burst=3"})
+@AutoConfigureMockMvc
+class GlobalExceptionHandlerTest {
+
+    private static final String USER = "{\"email\":\"%s@test.com\",\"login\":\"%s\",\"birthday\":\"1990-01-01\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ErrorLog.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void notFound_shouldReturn404WithMessage() throws Exception {
+        mockMvc.perform(get("/users/1000001"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Объект не найден."))
+                .andExpect(jsonPath("$.message").value("Пользователь с id = 1000001 не найден."));
+        mockMvc.perform(put("/films/1000001/like/1"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Фильм с id = 1000001 не найден."));
+    }
+
+    @Test
+    void invalidBody_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content(USER.formatted("not an email", "bad login")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Ошибка валидации."));
+    }
+
+    @Test
+    void duplicateUser_shouldReturn409() throws Exception {
+        String body = USER.formatted("handler", "handler");
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Конфликт данных."));
+    }
+
+    @Test
+    void repeatedNotFound_shouldBeCountedEveryTime_andLoggedOnlyBurst() throws Exception {
+        double before = notFoundCount();
+
+        for (long id = 2_000_001; id <= 2_000_020; id++) {
+            mockMvc.perform(put("/films/" + id + "/like/1")).andExpect(status().isNotFound());
+        }
+
+        assertEquals(20, notFoundCount() - before);
+        assertTrue(appender.list.size() <= 3, () -> "Логов слишком много: " + appender.list.size());
+        assertTrue(appender.list.stream().allMatch(event -> event.getLevel() == Level.WARN));
+    }
+
+    private double notFoundCount() {
+        var counter = registry.find("filmorate.errors").tag("status", "404")
+                .tag("exception", "NotFoundException").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.PreconditionFailedException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTagsTest {
+
+    @Test
+    void parseIfMatch_shouldAcceptEveryListedStrongTag() {
+        assertEquals(Set.of(1L, 2L), EntityTags.parseIfMatch("\"1\", \"2\""));
+        assertEquals(Set.of(3L), EntityTags.parseIfMatch("W/\"2\", \"3\""));
+        assertEquals(Set.of(4L), EntityTags.parseIfMatch("\"4\""));
+        assertNull(EntityTags.parseIfMatch("*"));
+        assertNull(EntityTags.parseIfMatch(null));
+    }
+
+    @Test
+    void parseIfMatch_shouldRejectMalformedOrOnlyWeakTags() {
+        assertThrows(ValidationException.class, () -> EntityTags.parseIfMatch("\"1\", abc"));
+        assertThrows(PreconditionFailedException.class, () -> EntityTags.parseIfMatch("W/\"1\""));
+    }
+}
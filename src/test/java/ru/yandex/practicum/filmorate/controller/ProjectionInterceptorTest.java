@@ -0,0 +1,62 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.yandex.practicum.filmorate.Fixtures.film;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectionInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FilmService filmService;
+
+    @Test
+    void update_shouldBeRejectedBeforeApplying_whenProjectionIsInvalid() throws Exception {
+        Film film = filmService.add(film("Original"));
+        String renamed = "{\"id\":" + film.getId() + ",\"name\":\"Renamed\",\"releaseDate\":\"2000-01-01\","
+                + "\"duration\":100}";
+
+        mockMvc.perform(put("/films").param("fields", "bogus")
+                        .contentType(MediaType.APPLICATION_JSON).content(renamed))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/films").param("view", "tiny")
+                        .contentType(MediaType.APPLICATION_JSON).content(renamed))
+                .andExpect(status().isBadRequest());
+
+        Film stored = filmService.findAll().stream()
+                .filter(candidate -> candidate.getId().equals(film.getId()))
+                .findFirst().orElseThrow();
+        assertEquals("Original", stored.getName());
+        assertEquals(1, stored.getVersion());
+    }
+
+    @Test
+    void update_shouldApplyValidProjectionToResponse() throws Exception {
+        Film film = filmService.add(film("Projected"));
+
+        mockMvc.perform(put("/films").param("fields", "id,name")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + film.getId() + ",\"name\":\"Renamed\",\"releaseDate\":\"2000-01-01\","
+                                + "\"duration\":100}"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":" + film.getId() + ",\"name\":\"Renamed\"}", true));
+        mockMvc.perform(get("/films").param("fields", "id"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,121 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.json.CachingJacksonConverter;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.FriendshipAnalyticsService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.Fixtures.film;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class FilmorateEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void settingsProfile_shouldParseAndCoverAllEvents() throws Exception {
+        Configuration configuration = loadProfile();
+
+        Map<String, String> settings = configuration.getSettings();
+        for (String event : List.of("StorageRead", "StorageWrite", "Like", "Friendship", "PopularFilms", "Json",
+                "HandledException")) {
+            assertEquals("true", settings.get("filmorate." + event + "#enabled"), event);
+        }
+        assertEquals("false", settings.get("filmorate.HandledException#stackTrace"));
+    }
+
+    @Test
+    void recording_shouldCaptureServiceAndStorageEvents() throws Exception {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        FriendshipAnalyticsService analytics = new FriendshipAnalyticsService(userStorage, 1);
+        Fixtures fixtures = new Fixtures();
+        UserService userService = fixtures.userService(userStorage, analytics);
+        FilmService filmService = fixtures.filmService(filmStorage, userStorage);
+
+        Path dump = tempDir.resolve("test.jfr");
+        try (Recording recording = new Recording(loadProfile())) {
+            for (String event : List.of("StorageRead", "StorageWrite", "Like", "Friendship")) {
+                recording.enable("filmorate." + event).withoutThreshold();
+            }
+            recording.start();
+
+            User first = userService.create(user("first"));
+            User second = userService.create(user("second"));
+            userService.addFriend(first.getId(), second.getId());
+            Film film = filmService.add(film());
+            filmService.like(film.getId(), first.getId());
+            filmService.getPopularFilms(10);
+
+            recording.stop();
+            recording.dump(dump);
+        } finally {
+            analytics.shutdown();
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().startsWith("filmorate."))
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        assertTrue(events.containsKey("filmorate.StorageRead"));
+        assertTrue(events.containsKey("filmorate.StorageWrite"));
+        assertEquals(1, events.get("filmorate.Friendship").size());
+        RecordedEvent like = events.get("filmorate.Like").get(0);
+        assertTrue(like.getBoolean("changed"));
+        RecordedEvent popular = events.get("filmorate.PopularFilms").get(0);
+        assertEquals(1, popular.getInt("filmsScanned"));
+    }
+
+    @Test
+    void recording_shouldCaptureJsonConversion_withDefaultConverter() throws Exception {
+        CachingJacksonConverter converter = new CachingJacksonConverter(
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        Path dump = tempDir.resolve("json.jfr");
+        try (Recording recording = new Recording(loadProfile())) {
+            recording.enable("filmorate.Json").withoutThreshold();
+            recording.start();
+            converter.write(film(), MediaType.APPLICATION_JSON, new MockHttpOutputMessage());
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("filmorate.Json"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("write", events.get(0).getString("direction"));
+        assertEquals(Film.class.getName(), events.get(0).getString("type"));
+    }
+
+    private Configuration loadProfile() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/jfr/filmorate.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+}
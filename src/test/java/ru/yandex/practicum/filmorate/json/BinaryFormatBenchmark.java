@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BinaryFormatBenchmark {
+
+    private static final int ENTITIES = 1_000;
+    private static final int LINKS = 50;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Test
+    void binaryFormats_shouldShrinkPayloads_andReportCodecCost() throws Exception {
+        List<Film> films = BinaryFormatTest.films(ENTITIES, LINKS);
+        List<User> users = BinaryFormatTest.users(ENTITIES, LINKS);
+        ObjectMapper[] mappers = {objectMapper, smileConverter.getObjectMapper(), cborConverter.getObjectMapper()};
+        String[] names = {"json", "smile", "cbor"};
+
+        long[][] filmCosts = new long[mappers.length][];
+        long[][] userCosts = new long[mappers.length][];
+        for (ObjectMapper mapper : mappers) {
+            measure(mapper, films, new TypeReference<List<Film>>() {
+            });
+        }
+        for (int i = 0; i < mappers.length; i++) {
+            filmCosts[i] = measure(mappers[i], films, new TypeReference<List<Film>>() {
+            });
+            userCosts[i] = measure(mappers[i], users, new TypeReference<List<User>>() {
+            });
+            System.out.printf("%-5s films: %d KB, encode %d ms, decode %d ms; users: %d KB, encode %d ms, decode %d ms"
+                            + " (x%d, CPU)%n", names[i],
+                    filmCosts[i][0] / 1024, filmCosts[i][1] / 1_000_000, filmCosts[i][2] / 1_000_000,
+                    userCosts[i][0] / 1024, userCosts[i][1] / 1_000_000, userCosts[i][2] / 1_000_000, ROUNDS);
+        }
+        for (int i = 1; i < mappers.length; i++) {
+            assertTrue(filmCosts[i][0] < filmCosts[0][0], names[i] + " не меньше JSON");
+            assertTrue(userCosts[i][0] < userCosts[0][0], names[i] + " не меньше JSON");
+        }
+    }
+
+    private <T> long[] measure(ObjectMapper mapper, List<T> values, TypeReference<List<T>> type) throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(values);
+        assertEquals(values.size(), mapper.readValue(payload, type).size());
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long cpu = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.writeValueAsBytes(values);
+        }
+        long encode = threads.getCurrentThreadCpuTime() - cpu;
+        cpu = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readValue(payload, type);
+        }
+        return new long[]{payload.length, encode, threads.getCurrentThreadCpuTime() - cpu};
+    }
+}
@@ -0,0 +1,137 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BinaryFormatTest {
+
+    private static final int ENTITIES = 20;
+    private static final int LINKS = 5;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Test
+    void endpoints_shouldNegotiateBinaryFormats_andDefaultToJson() throws Exception {
+        ObjectMapper cbor = cborConverter.getObjectMapper();
+        ObjectMapper smile = smileConverter.getObjectMapper();
+        User user = new User();
+        user.setEmail("binary@test.com");
+        user.setLogin("binary");
+        user.setBirthday(LocalDate.of(1990, 1, 1));
+
+        ResponseEntity<byte[]> created = exchange(HttpMethod.POST, "/users", cbor.writeValueAsBytes(user),
+                BinaryFormatConfiguration.CBOR, BinaryFormatConfiguration.CBOR);
+        assertEquals(200, created.getStatusCode().value());
+        assertEquals(BinaryFormatConfiguration.CBOR, created.getHeaders().getContentType().toString());
+        User body = cbor.readValue(created.getBody(), User.class);
+        assertNotNull(body.getId());
+        assertEquals("binary", body.getName());
+
+        ResponseEntity<byte[]> users = exchange(HttpMethod.GET, "/users", null, null,
+                BinaryFormatConfiguration.SMILE);
+        assertEquals(BinaryFormatConfiguration.SMILE, users.getHeaders().getContentType().toString());
+        List<User> listed = smile.readValue(users.getBody(), new TypeReference<>() {
+        });
+        assertTrue(listed.stream().anyMatch(u -> body.getId().equals(u.getId())));
+
+        ResponseEntity<String> json = restTemplate.getForEntity("/users/" + body.getId(), String.class);
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(json.getHeaders().getContentType()));
+        assertTrue(json.getBody().contains("\"login\":\"binary\""));
+    }
+
+    @Test
+    void binaryFormats_shouldRoundTripEntities_inSmallerPayloads() throws Exception {
+        List<Film> films = films(ENTITIES, LINKS);
+        List<User> users = users(ENTITIES, LINKS);
+        byte[] filmsJson = objectMapper.writeValueAsBytes(films);
+        byte[] usersJson = objectMapper.writeValueAsBytes(users);
+
+        for (ObjectMapper mapper : List.of(smileConverter.getObjectMapper(), cborConverter.getObjectMapper())) {
+            byte[] filmsBinary = mapper.writeValueAsBytes(films);
+            byte[] usersBinary = mapper.writeValueAsBytes(users);
+
+            assertEquals(films, mapper.readValue(filmsBinary, new TypeReference<List<Film>>() {
+            }));
+            assertEquals(users, mapper.readValue(usersBinary, new TypeReference<List<User>>() {
+            }));
+            assertTrue(filmsBinary.length < filmsJson.length, mapper.getFactory().getFormatName());
+            assertTrue(usersBinary.length < usersJson.length, mapper.getFactory().getFormatName());
+        }
+    }
+
+    private ResponseEntity<byte[]> exchange(HttpMethod method, String url, byte[] body, String contentType,
+                                            String accept) {
+        HttpHeaders headers = new HttpHeaders();
+        if (contentType != null) {
+            headers.setContentType(MediaType.parseMediaType(contentType));
+        }
+        headers.setAccept(List.of(MediaType.parseMediaType(accept)));
+        return restTemplate.exchange(url, method, new HttpEntity<>(body, headers), byte[].class);
+    }
+
+    static List<Film> films(int count, int likes) {
+        List<Film> films = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Film film = new Film();
+            film.setId((long) i);
+            film.setVersion(1);
+            film.setName("Film " + i);
+            film.setDescription("Описание фильма " + i);
+            film.setReleaseDate(LocalDate.of(2000, 1, 1).plusDays(i));
+            film.setDuration(90 + i % 60);
+            for (long like = 1; like <= likes; like++) {
+                film.getLikes().add(like * i);
+            }
+            films.add(film);
+        }
+        return films;
+    }
+
+    static List<User> users(int count, int friends) {
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setVersion(1);
+            user.setEmail("user" + i + "@test.com");
+            user.setLogin("user" + i);
+            user.setName("User " + i);
+            user.setBirthday(LocalDate.of(1990, 1, 1).plusDays(i));
+            for (long friend = 1; friend <= friends; friend++) {
+                user.getFriends().add((friend * 7 + i) % count + 1);
+            }
+            users.add(user);
+        }
+        return users;
+    }
+}
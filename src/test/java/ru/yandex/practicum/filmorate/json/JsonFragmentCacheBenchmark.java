@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+class JsonFragmentCacheBenchmark {
+
+    private static final int FILMS = 2_000;
+    private static final int LIKES = 200;
+    private static final int ROUNDS = 20;
+
+    private final JsonFragmentCache cache = new JsonFragmentCache(true, DataSize.ofMegabytes(64));
+    private final ObjectWriter plain = new ObjectMapper().registerModule(new JavaTimeModule()).writer();
+    private final ObjectWriter cached = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new JsonFragmentModule(cache))
+            .writer()
+            .withAttribute(JsonFragmentCache.ATTRIBUTE, Boolean.TRUE);
+
+    @Test
+    void write_shouldAllocateLessForUnchangedLists() throws Exception {
+        List<Film> films = JsonFragmentCacheTest.films(FILMS, LIKES);
+        cached.writeValue(OutputStream.nullOutputStream(), films);
+        plain.writeValue(OutputStream.nullOutputStream(), films);
+
+        long[] plainCost = measure(plain, films);
+        long[] cachedCost = measure(cached, films);
+
+        System.out.printf("GET /films x%d (%d films, %d likes each): plain %d KB / %d ms CPU, cached %d KB / %d ms CPU%n",
+                ROUNDS, FILMS, LIKES, plainCost[0] / 1024, plainCost[1] / 1_000_000,
+                cachedCost[0] / 1024, cachedCost[1] / 1_000_000);
+        assertTrue(cachedCost[0] * 2 < plainCost[0], "Кэш не снизил аллокации");
+    }
+
+    private long[] measure(ObjectWriter writer, List<Film> films) throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long cpu = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            writer.writeValue(OutputStream.nullOutputStream(), films);
+        }
+        return new long[]{threads.getThreadAllocatedBytes(thread) - allocated,
+                threads.getCurrentThreadCpuTime() - cpu};
+    }
+}
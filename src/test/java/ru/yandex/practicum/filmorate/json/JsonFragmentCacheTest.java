@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFragmentCacheTest {
+
+    private static final int FILMS = 50;
+    private static final int LIKES = 20;
+
+    private final JsonFragmentCache cache = new JsonFragmentCache(true, DataSize.ofMegabytes(64));
+    private final ObjectMapper plain = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ObjectWriter cached = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new JsonFragmentModule(cache))
+            .writer()
+            .withAttribute(JsonFragmentCache.ATTRIBUTE, Boolean.TRUE);
+
+    @Test
+    void write_shouldMatchPlainJackson_andFollowInvalidation() throws Exception {
+        List<Film> films = films(3, 2);
+
+        assertArrayEquals(plain.writeValueAsBytes(films), cached.writeValueAsBytes(films));
+        assertArrayEquals(plain.writeValueAsBytes(films), cached.writeValueAsBytes(films));
+        assertEquals(3, cache.getStats().getHits());
+
+        films.get(1).getLikes().add(99L);
+        cache.invalidateFilm(films.get(1).getId());
+        assertArrayEquals(plain.writeValueAsBytes(films), cached.writeValueAsBytes(films));
+
+        films.get(2).setName("Renamed");
+        films.get(2).setVersion(2);
+        assertArrayEquals(plain.writeValueAsBytes(films), cached.writeValueAsBytes(films));
+    }
+
+    @Test
+    void put_shouldDropFragmentEncodedBeforeInvalidation() {
+        JsonFragmentCache.Region films = cache.films();
+        long stamp = films.stamp(1);
+        films.invalidate(1);
+        films.put(1, 1, stamp, new JsonFragment("{}".getBytes()));
+
+        assertNull(films.get(1, 1));
+        assertEquals(0, cache.getStats().getBytes());
+    }
+
+    @Test
+    void write_shouldServeUnchangedListFromCache() throws Exception {
+        List<Film> films = films(FILMS, LIKES);
+
+        byte[] first = cached.writeValueAsBytes(films);
+        assertEquals(0, cache.getStats().getHits());
+        byte[] second = cached.writeValueAsBytes(films);
+
+        assertEquals(FILMS, cache.getStats().getHits());
+        assertArrayEquals(first, second);
+        assertArrayEquals(plain.writeValueAsBytes(films), second);
+    }
+
+    static List<Film> films(int count, int likes) {
+        List<Film> films = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Film film = new Film();
+            film.setId((long) i);
+            film.setVersion(1);
+            film.setName("Film " + i);
+            film.setDescription("Описание фильма " + i);
+            film.setReleaseDate(LocalDate.of(2000, 1, 1).plusDays(i));
+            film.setDuration(90 + i % 60);
+            for (long like = 1; like <= likes; like++) {
+                film.getLikes().add(like * i);
+            }
+            films.add(film);
+        }
+        return films;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectionTest {
+
+    private final JsonFragmentCache cache = new JsonFragmentCache(true, DataSize.ofMegabytes(1));
+    private final ObjectMapper plain = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ObjectWriter projected = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new JsonFragmentModule(cache))
+            .registerModule(new ProjectionModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .writer()
+            .withAttribute(JsonFragmentCache.ATTRIBUTE, Boolean.TRUE);
+
+    @Test
+    void write_shouldKeepDefaultContract_withoutProjection() throws Exception {
+        List<Film> films = List.of(film(1, 3), film(2, 0));
+
+        assertArrayEquals(plain.writeValueAsBytes(films), projected.writeValueAsBytes(films));
+        assertArrayEquals(plain.writeValueAsBytes(films), projected.writeValueAsBytes(films));
+        assertEquals(2, cache.getStats().getHits());
+    }
+
+    @Test
+    void write_shouldReplaceCollectionsWithCounts_inSparseFieldset() throws Exception {
+        List<Film> films = List.of(film(1, 3), film(2, 0));
+
+        String json = projected.with(Projection.FILM.filters("id, likeCount", null)).writeValueAsString(films);
+
+        assertEquals("[{\"id\":1,\"likeCount\":3},{\"id\":2,\"likeCount\":0}]", json);
+    }
+
+    @Test
+    void write_shouldUseSummaryView_andBypassCache() throws Exception {
+        User user = Fixtures.user("user@test.com", "login");
+        user.setId(7L);
+        user.setName("Name");
+        user.getFriends().addAll(List.of(1L, 2L));
+
+        String summary = projected.with(Projection.USER.filters(null, Projection.VIEW_SUMMARY))
+                .writeValueAsString(user);
+
+        assertEquals("{\"id\":7,\"login\":\"login\",\"name\":\"Name\",\"friendCount\":2}", summary);
+        assertEquals(0, cache.getStats().getUsers());
+        assertEquals(plain.writeValueAsString(user), projected.writeValueAsString(user));
+    }
+
+    @Test
+    void filters_shouldRejectUnknownFieldsAndViews() {
+        assertNull(Projection.FILM.filters(null, null));
+        assertNull(Projection.FILM.filters(null, Projection.VIEW_FULL));
+        assertThrows(ValidationException.class, () -> Projection.FILM.filters("id,friends", null));
+        assertThrows(ValidationException.class, () -> Projection.USER.filters(" , ", null));
+        assertThrows(ValidationException.class, () -> Projection.USER.filters(null, "tiny"));
+        assertThrows(ValidationException.class, () -> Projection.USER.filters("id", Projection.VIEW_SUMMARY));
+    }
+
+    private Film film(long id, int likes) {
+        Film film = Fixtures.film("Film " + id);
+        film.setId(id);
+        film.setVersion(1);
+        for (long like = 1; like <= likes; like++) {
+            film.getLikes().add(like);
+        }
+        return film;
+    }
+}
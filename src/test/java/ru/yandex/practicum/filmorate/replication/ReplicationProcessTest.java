@@ -0,0 +1,153 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.Fixtures.film;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+/**
+ * Leader in this JVM, follower as a separate java process started from the test classpath.
+ */
+@SpringBootTest(properties = {"filmorate.replication.role=leader", "filmorate.replication.port=0"})
+class ReplicationProcessTest {
+
+    private static final Duration STARTUP = Duration.ofSeconds(120);
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Autowired
+    private LeaderServer leaderServer;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FilmService filmService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path dir;
+
+    private Process follower;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (follower != null) {
+            follower.destroy();
+            follower.waitFor();
+        }
+    }
+
+    @Test
+    void followerProcess_shouldReplicateLeaderWrites_andRejectItsOwn() throws Exception {
+        User first = userService.create(user("process1"));
+        User second = userService.create(user("process2"));
+        Film film = filmService.add(film());
+        filmService.like(film.getId(), first.getId());
+
+        int port = freePort();
+        follower = startFollower(port);
+        String filmsUrl = "http://localhost:" + port + "/films";
+        await(filmsUrl, films -> likesOf(films, film.getId()) == 1, STARTUP);
+
+        filmService.like(film.getId(), second.getId());
+        await(filmsUrl, films -> likesOf(films, film.getId()) == 2, Duration.ofSeconds(10));
+
+        HttpResponse<String> context = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/films/context?filmId=" + film.getId() + "&viewerId=" + first.getId())).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, context.statusCode(), context::body);
+        assertEquals(2, objectMapper.readTree(context.body()).path("likeCount").asInt());
+
+        HttpResponse<String> rejected = http.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(user("replica"))))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(503, rejected.statusCode());
+        assertTrue(userService.findAll().stream().noneMatch(user -> "replica".equals(user.getLogin())));
+    }
+
+    private Process startFollower(int port) throws IOException {
+        Path log = dir.resolve("follower.log");
+        List<String> command = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "--add-modules", "jdk.incubator.vector",
+                "-cp", System.getProperty("surefire.test.class.path", System.getProperty("java.class.path")),
+                FilmorateApplication.class.getName(),
+                "--server.port=" + port,
+                "--filmorate.replication.role=follower",
+                "--filmorate.replication.port=" + leaderServer.getPort(),
+                "--filmorate.replication.reconnect-delay=PT0.1S",
+                "--logging.level.root=WARN",
+                "--logging.level.org.zalando.logbook=OFF");
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+    }
+
+    private void await(String url, Predicate<JsonNode> condition, Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            assertTrue(follower.isAlive(), () -> "Реплика завершилась:\n" + followerLog());
+            try {
+                HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200 && condition.test(objectMapper.readTree(response.body()))) {
+                    return;
+                }
+            } catch (IOException e) {
+                // the follower is still starting
+            }
+            assertTrue(System.nanoTime() < deadline, () -> "Реплика не догнала лидера:\n" + followerLog());
+            Thread.sleep(100);
+        }
+    }
+
+    private static int likesOf(JsonNode films, long filmId) {
+        for (JsonNode film : films) {
+            if (film.path("id").asLong() == filmId) {
+                return film.path("likes").size();
+            }
+        }
+        return -1;
+    }
+
+    private String followerLog() {
+        try {
+            return Files.readString(dir.resolve("follower.log"));
+        } catch (IOException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
+import ru.yandex.practicum.filmorate.model.FeedEvent;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.ConsistentCut;
+import ru.yandex.practicum.filmorate.service.FeedService;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.FriendshipAnalyticsService;
+import ru.yandex.practicum.filmorate.service.TrendingService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static ru.yandex.practicum.filmorate.Fixtures.film;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class ReplicationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final InMemoryFilmStorage leaderFilms = new InMemoryFilmStorage();
+    private final InMemoryUserStorage leaderUsers = new InMemoryUserStorage();
+    private final InMemoryFilmStorage followerFilms = new InMemoryFilmStorage();
+    private final InMemoryUserStorage followerUsers = new InMemoryUserStorage();
+    private final FriendshipAnalyticsService leaderAnalytics = new FriendshipAnalyticsService(leaderUsers, 1);
+    private final FriendshipAnalyticsService followerAnalytics = new FriendshipAnalyticsService(followerUsers, 1);
+    private final JsonFragmentCache jsonFragmentCache = mock(JsonFragmentCache.class);
+    private final TrendingService followerTrending = new TrendingService(List.of(Duration.ofHours(1)),
+            Duration.ofHours(1), TrendingService.MODE_EXACT, 0);
+    private final FeedService followerFeed = new FeedService(followerUsers, true, 10, 10);
+    private ReplicationLog replicationLog;
+    private LeaderServer leader;
+    private FollowerClient follower;
+    private UserService userService;
+    private FilmService filmService;
+
+    @AfterEach
+    void tearDown() {
+        follower.stop();
+        leader.stop();
+        leaderAnalytics.shutdown();
+        followerAnalytics.shutdown();
+    }
+
+    @Test
+    void follower_shouldApplyLiveStream() throws Exception {
+        startLeader(1000);
+        startFollower();
+        awaitCaughtUp();
+
+        User first = userService.create(user(1));
+        User second = userService.create(user(2));
+        userService.addFriend(first.getId(), second.getId());
+        Film film = filmService.add(film());
+        filmService.like(film.getId(), first.getId());
+        awaitCaughtUp();
+        assertEquals(List.of(FeedEvent.Type.LIKE, FeedEvent.Type.FRIEND),
+                followerFeed.getFeed(second.getId(), null, 10).getEvents().stream().map(FeedEvent::getType).toList());
+
+        filmService.like(film.getId(), second.getId());
+        filmService.deleteLike(film.getId(), second.getId());
+        userService.removeFriend(second.getId(), first.getId());
+        awaitCaughtUp();
+
+        assertEquals(Set.of(first.getId()), followerFilms.findById(film.getId()).orElseThrow().getLikes());
+        assertEquals(1, followerFilms.getStats().getTotalLikes());
+        assertEquals(List.of(film.getId()), followerTrending.findTrending(null, 10));
+        assertTrue(followerUsers.findById(first.getId()).orElseThrow().getFriends().isEmpty());
+        assertEquals(first.getId(), followerUsers.findByLogin("user1").orElseThrow().getId());
+        assertEquals(0, follower.getStatus().getLagEvents());
+    }
+
+    @Test
+    void follower_shouldCatchUpFromSnapshot_whenJoiningLate() throws Exception {
+        startLeader(2);
+        User first = userService.create(user(1));
+        User second = userService.create(user(2));
+        userService.addFriend(first.getId(), second.getId());
+        Film film = filmService.add(film());
+        filmService.like(film.getId(), first.getId());
+
+        startFollower();
+        awaitCaughtUp();
+        filmService.like(film.getId(), second.getId());
+        awaitCaughtUp();
+
+        assertEquals(1, follower.getStatus().getSnapshots());
+        assertEquals(2, followerFilms.findById(film.getId()).orElseThrow().getLikes().size());
+        assertEquals(List.of(film.getId()), followerTrending.findTrending(null, 10));
+        assertEquals(Set.of(second.getId()), followerUsers.findById(first.getId()).orElseThrow().getFriends());
+        assertEquals(0, follower.getStatus().getLagEvents());
+    }
+
+    private void startLeader(int retain) throws Exception {
+        replicationLog = new ReplicationLog(leaderFilms, leaderUsers, objectMapper, ReplicationLog.ROLE_LEADER, retain);
+        Fixtures fixtures = new Fixtures().with(replicationLog);
+        userService = fixtures.userService(leaderUsers, leaderAnalytics);
+        filmService = fixtures.filmService(leaderFilms, leaderUsers);
+        leader = new LeaderServer(replicationLog, objectMapper, 0);
+        leader.start();
+    }
+
+    private void startFollower() {
+        follower = new FollowerClient(followerFilms, followerUsers, followerAnalytics, objectMapper, jsonFragmentCache,
+                new ConsistentCut(), followerTrending, followerFeed, "localhost", leader.getPort(), Duration.ofMillis(50));
+        follower.start();
+    }
+
+    private void awaitCaughtUp() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (follower.getAppliedSeq() < replicationLog.currentSeq() || follower.getAppliedSeq() < 0) {
+            assertTrue(System.nanoTime() < deadline, "Реплика не догнала лидера");
+            Thread.sleep(10);
+        }
+    }
+}
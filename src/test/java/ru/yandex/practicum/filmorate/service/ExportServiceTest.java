@@ -0,0 +1,169 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.ExportReport;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static ru.yandex.practicum.filmorate.Fixtures.film;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class ExportServiceTest {
+
+    @TempDir
+    Path exportDir;
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+
+        User first = user("first@test.com", "first");
+        User second = user("second@test.com", "second");
+        userStorage.create(first);
+        userStorage.create(second);
+        first.getFriends().add(second.getId());
+        second.getFriends().add(first.getId());
+
+        Film film = film();
+        film.setId(1L);
+        film.getLikes().add(first.getId());
+        filmStorage.addFilm(film);
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        exportService = new ExportService(filmStorage, userStorage, new ConsistentCut(), objectMapper,
+                exportDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportService.shutdown();
+    }
+
+    @Test
+    void export_shouldWriteCompressedFilePerEntityType() throws IOException {
+        ExportReport report = exportService.export();
+
+        assertEquals(1L, report.getRecords().get("films.jsonl.gz"));
+        assertEquals(2L, report.getRecords().get("users.jsonl.gz"));
+        assertEquals(1L, report.getRecords().get("likes.csv.gz"));
+        assertEquals(2L, report.getRecords().get("friendships.csv.gz"));
+
+        Path dir = Path.of(report.getDirectory());
+        assertEquals(List.of("film_id,user_id", "1,1"), readGzip(dir.resolve("likes.csv.gz")));
+        assertTrue(readGzip(dir.resolve("films.jsonl.gz")).get(0).contains("\"name\":\"Film\""));
+        assertEquals(3, readGzip(dir.resolve("friendships.csv.gz")).size());
+        try (var files = Files.list(dir)) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".part")));
+        }
+    }
+
+    @Test
+    void export_shouldWriteStateAsOfCut_whenWritesRaceIt() throws IOException {
+        ConsistentCut consistentCut = new ConsistentCut();
+        List<Runnable> duringExport = new ArrayList<>();
+        InMemoryFilmStorage films = new InMemoryFilmStorage();
+        InMemoryUserStorage users = new InMemoryUserStorage() {
+            @Override
+            public Collection<User> findAll() {
+                duringExport.forEach(Runnable::run);
+                duringExport.clear();
+                return super.findAll();
+            }
+        };
+        Fixtures fixtures = new Fixtures().with(consistentCut);
+        UserService userService = fixtures.userService(users, mock(FriendshipAnalyticsService.class));
+        FilmService filmService = fixtures.filmService(films, users);
+        User first = userService.create(user(1));
+        User second = userService.create(user(2));
+        Film film = filmService.add(film());
+        filmService.like(film.getId(), first.getId());
+        Film renamed = film("Renamed");
+        renamed.setId(film.getId());
+        duringExport.add(() -> {
+            userService.addFriend(first.getId(), second.getId());
+            userService.create(user(3));
+            filmService.like(film.getId(), second.getId());
+            filmService.update(renamed);
+        });
+
+        ExportService export = new ExportService(films, users, consistentCut,
+                new ObjectMapper().registerModule(new JavaTimeModule()), exportDir.toString());
+        try {
+            ExportReport report = export.export();
+
+            Path dir = Path.of(report.getDirectory());
+            assertEquals(2L, report.getRecords().get("users.jsonl.gz"));
+            assertEquals(List.of("user_id,friend_id"), readGzip(dir.resolve("friendships.csv.gz")));
+            assertEquals(List.of("film_id,user_id", "1,1"), readGzip(dir.resolve("likes.csv.gz")));
+            String exported = readGzip(dir.resolve("films.jsonl.gz")).get(0);
+            assertTrue(exported.contains("\"name\":\"Film\""), exported);
+            assertTrue(exported.contains("\"version\":1"), exported);
+        } finally {
+            export.shutdown();
+        }
+        assertEquals(3, users.findAll().size());
+        assertEquals(2, films.findById(film.getId()).orElseThrow().getLikes().size());
+    }
+
+    @Test
+    void export_shouldRejectConcurrentRun_withConflict() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilmStorage blockingStorage = mock(FilmStorage.class);
+        when(blockingStorage.findAll()).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return List.of();
+        });
+        ExportService blocked = new ExportService(blockingStorage, new InMemoryUserStorage(), new ConsistentCut(),
+                new ObjectMapper(), exportDir.resolve("blocked").toString());
+        try {
+            CompletableFuture<ExportReport> first = CompletableFuture.supplyAsync(blocked::export);
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ConflictException.class, blocked::export);
+            release.countDown();
+            assertEquals(0L, first.get(5, TimeUnit.SECONDS).getRecords().get("films.jsonl.gz"));
+        } finally {
+            release.countDown();
+            blocked.shutdown();
+        }
+    }
+
+    private List<String> readGzip(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.FeedEvent;
+import ru.yandex.practicum.filmorate.model.FeedPage;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.Fixtures.film;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class FeedServiceTest {
+
+    private FriendshipAnalyticsService analyticsService;
+    private FeedService feedService;
+    private UserService userService;
+    private FilmService filmService;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        analyticsService = new FriendshipAnalyticsService(userStorage, 1);
+        feedService = new FeedService(userStorage, true, 4, 3);
+        Fixtures fixtures = new Fixtures().with(feedService);
+        userService = fixtures.userService(userStorage, analyticsService);
+        filmService = fixtures.filmService(filmStorage, userStorage);
+        for (int i = 1; i <= 6; i++) {
+            userService.create(user(i));
+            filmService.add(film("Film " + i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyticsService.shutdown();
+    }
+
+    @Test
+    void getFeed_shouldReturnFriendsEventsNewestFirst_withCursorPages() {
+        userService.addFriend(1L, 2L);
+        filmService.like(1L, 2L);
+        filmService.like(2L, 2L);
+        filmService.like(2L, 2L);
+        filmService.like(3L, 2L);
+
+        FeedPage first = feedService.getFeed(1L, null, 2);
+        assertEquals(List.of(3L, 2L), filmIds(first));
+        assertNotNull(first.getNextCursor());
+
+        FeedPage second = feedService.getFeed(1L, first.getNextCursor(), 2);
+        assertEquals(List.of(1L), filmIds(second));
+        assertNull(second.getNextCursor());
+
+        List<FeedEvent> friendEvents = feedService.getFeed(2L, null, 10).getEvents();
+        assertEquals(1, friendEvents.size());
+        assertEquals(FeedEvent.Type.FRIEND, friendEvents.get(0).getType());
+        assertEquals(2L, friendEvents.get(0).getFriendId());
+    }
+
+    @Test
+    void getFeed_shouldKeepOnlyLatestEvents_perInbox() {
+        userService.addFriend(1L, 2L);
+        for (long filmId = 1; filmId <= 6; filmId++) {
+            filmService.like(filmId, 2L);
+        }
+
+        assertEquals(List.of(6L, 5L, 4L, 3L), filmIds(feedService.getFeed(1L, null, 10)));
+    }
+
+    @Test
+    void getFeed_shouldMergeCelebrityOutbox_atReadTime() {
+        for (long friendId = 2; friendId <= 5; friendId++) {
+            userService.addFriend(1L, friendId);
+        }
+        filmService.like(6L, 1L);
+
+        List<FeedEvent> events = feedService.getFeed(2L, null, 10).getEvents();
+        assertEquals(5, events.size());
+        assertEquals(FeedEvent.Type.LIKE, events.get(0).getType());
+        assertEquals(List.of(5L, 4L, 3L, 2L),
+                events.subList(1, 5).stream().map(FeedEvent::getFriendId).toList());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i - 1).getSeq() > events.get(i).getSeq());
+        }
+        assertEquals(2, feedService.getFeed(5L, null, 10).getEvents().size());
+        assertTrue(feedService.getFeed(6L, null, 10).getEvents().isEmpty());
+    }
+
+    @Test
+    void getFeed_shouldHideEventsOfRemovedFriends() {
+        userService.addFriend(1L, 2L);
+        filmService.like(1L, 2L);
+        userService.removeFriend(1L, 2L);
+
+        assertTrue(feedService.getFeed(1L, null, 10).getEvents().isEmpty());
+    }
+
+    @Test
+    void getFeed_shouldPageInSeqOrder_whenEventsAreAppendedOutOfOrder() {
+        List<Runnable> beforeFanOut = new ArrayList<>();
+        InMemoryUserStorage userStorage = new InMemoryUserStorage() {
+            @Override
+            public Optional<User> findById(Long id) {
+                if (!beforeFanOut.isEmpty()) {
+                    beforeFanOut.remove(0).run();
+                }
+                return super.findById(id);
+            }
+        };
+        FeedService feed = new FeedService(userStorage, true, 10, 10);
+        UserService users = new Fixtures().userService(userStorage, analyticsService);
+        for (int i = 1; i <= 3; i++) {
+            users.create(user(i));
+        }
+        users.addFriend(1L, 2L);
+        users.addFriend(1L, 3L);
+        // each event is numbered before its fan-out, so the later ones land in the inbox first
+        beforeFanOut.add(() -> feed.filmLiked(3L, 2L));
+        beforeFanOut.add(() -> feed.filmLiked(2L, 3L));
+
+        feed.filmLiked(2L, 1L);
+
+        List<Long> paged = new ArrayList<>();
+        Long cursor = null;
+        do {
+            FeedPage page = feed.getFeed(1L, cursor, 1);
+            paged.addAll(filmIds(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(List.of(3L, 2L, 1L), paged);
+    }
+
+    @Test
+    void getFeed_shouldValidateArguments() {
+        assertThrows(ValidationException.class, () -> feedService.getFeed(1L, null, 0));
+        assertThrows(ValidationException.class, () -> feedService.getFeed(1L, null, 101));
+        assertThrows(NotFoundException.class, () -> feedService.getFeed(99L, null, 10));
+    }
+
+    private List<Long> filmIds(FeedPage page) {
+        return page.getEvents().stream().map(FeedEvent::getFilmId).toList();
+    }
+
+}
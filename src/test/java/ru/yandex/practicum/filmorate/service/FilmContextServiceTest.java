@@ -0,0 +1,109 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmContext;
+import ru.yandex.practicum.filmorate.model.FilmContextQuery;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static ru.yandex.practicum.filmorate.Fixtures.film;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+@ExtendWith(MockitoExtension.class)
+class FilmContextServiceTest {
+
+    @Spy
+    private InMemoryFilmStorage filmStorage;
+    @Spy
+    private InMemoryUserStorage userStorage;
+    @Mock
+    private LikeCoalescer likeCoalescer;
+    @InjectMocks
+    private FilmContextService service;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 6; i++) {
+            userStorage.create(user(i));
+        }
+        Film film = film();
+        film.setId(1L);
+        film.setLikes(Set.of(4L, 2L, 3L));
+        filmStorage.addFilm(film);
+        // viewer 1 is friends with 5 and 6; liker 2 shares both, liker 3 shares 6, liker 4 none
+        befriend(1, 5);
+        befriend(1, 6);
+        befriend(2, 5);
+        befriend(2, 6);
+        befriend(3, 6);
+    }
+
+    @Test
+    void resolve_shouldReturnLikersAndMutualFriends_inOneResponse() {
+        FilmContext context = service.resolve(query(1L, 1L, 2));
+
+        assertEquals(1L, context.getFilm().getId());
+        assertEquals(3, context.getLikeCount());
+        assertEquals(List.of(2L, 3L), context.getLikers().stream().map(FilmContext.Liker::getUserId).toList());
+        assertEquals(List.of(5L, 6L), context.getLikers().get(0).getMutualFriends());
+        assertEquals(List.of(6L), context.getLikers().get(1).getMutualFriends());
+        assertEquals(2, context.getLikers().get(0).getMutualFriendCount());
+        assertEquals(List.of(2L, 3L, 5L, 6L), List.copyOf(context.getUsers().keySet()));
+        assertEquals("user5", context.getUsers().get(5L).getLogin());
+        verify(likeCoalescer).flush();
+    }
+
+    @Test
+    void resolve_shouldCapMutualFriendsPerLiker_andKeepTheirCount() {
+        FilmContextQuery query = query(1L, 1L, 1);
+        query.setMutualFriends(1);
+
+        FilmContext context = service.resolve(query);
+
+        assertEquals(List.of(5L), context.getLikers().get(0).getMutualFriends());
+        assertEquals(2, context.getLikers().get(0).getMutualFriendCount());
+        assertEquals(List.of(2L, 5L), List.copyOf(context.getUsers().keySet()));
+    }
+
+    @Test
+    void resolve_shouldSkipMutualFriends_withoutViewer() {
+        FilmContext context = service.resolve(query(1L, null, 10));
+
+        assertEquals(3, context.getLikers().size());
+        assertNull(context.getLikers().get(2).getMutualFriends());
+        assertEquals(Set.of(2L, 3L, 4L), context.getUsers().keySet());
+    }
+
+    @Test
+    void resolve_shouldThrowNotFound_forMissingFilmOrViewer() {
+        assertThrows(NotFoundException.class, () -> service.resolve(query(9L, null, 10)));
+        assertThrows(NotFoundException.class, () -> service.resolve(query(1L, 99L, 10)));
+    }
+
+    private void befriend(long first, long second) {
+        userStorage.findById(first).orElseThrow().getFriends().add(second);
+        userStorage.findById(second).orElseThrow().getFriends().add(first);
+    }
+
+    private FilmContextQuery query(Long filmId, Long viewerId, int likers) {
+        FilmContextQuery query = new FilmContextQuery();
+        query.setFilmId(filmId);
+        query.setViewerId(viewerId);
+        query.setLikers(likers);
+        return query;
+    }
+
+}
@@ -6,10 +6,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.yandex.practicum.filmorate.Fixtures;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.PreconditionFailedException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmCatalogStats;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.replication.ReplicationLog;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
 import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
 
@@ -24,11 +32,32 @@ import static org.mockito.Mockito.*;
 class FilmServiceTest {
 
     @Mock
-    private InMemoryFilmStorage filmStorage;
+    private FilmStorage filmStorage;
 
     @Mock
     private InMemoryUserStorage userStorage;
 
+    @Mock
+    private LikeCoalescer likeCoalescer;
+
+    @Mock
+    private MemoryBudgetService memoryBudgetService;
+
+    @Mock
+    private ReplicationLog replicationLog;
+
+    @Mock
+    private JsonFragmentCache jsonFragmentCache;
+
+    @Mock
+    private FeedService feedService;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private ConsistentCut consistentCut;
+
     @InjectMocks
     private FilmService filmService;
 
@@ -56,7 +85,7 @@ class FilmServiceTest {
     @Test
     void add_shouldAddFilmSuccessfully() {
 
-        when(filmStorage.getNextId()).thenReturn(1L);
+        when(filmStorage.allocateId()).thenReturn(1L);
 
         Film result = filmService.add(film);
 
@@ -81,7 +110,7 @@ class FilmServiceTest {
     void add_shouldAcceptMinReleaseDate() {
 
         film.setReleaseDate(LocalDate.of(1895, 12, 28));
-        when(filmStorage.getNextId()).thenReturn(1L);
+        when(filmStorage.allocateId()).thenReturn(1L);
 
         Film result = filmService.add(film);
 
@@ -93,12 +122,29 @@ class FilmServiceTest {
     void update_shouldUpdateFilmSuccessfully() {
 
         when(filmStorage.findById(1L)).thenReturn(Optional.of(film));
+        when(filmStorage.replace(film, 0L)).thenReturn(true);
 
         Film result = filmService.update(film);
 
         assertNotNull(result);
         assertEquals(film.getId(), result.getId());
-        verify(filmStorage, times(1)).addFilm(film);
+        verify(filmStorage, times(1)).replace(film, 0L);
+        verify(filmStorage, never()).addFilm(any());
+    }
+
+    @Test
+    void update_shouldThrowPreconditionFailed_whenVersionIsStale() {
+        Film stored = new Film();
+        stored.setId(1L);
+        stored.setVersion(3);
+        when(filmStorage.findById(1L)).thenReturn(Optional.of(stored));
+
+        PreconditionFailedException exception = assertThrows(
+                PreconditionFailedException.class,
+                () -> filmService.update(film, Set.of(2L))
+        );
+        assertEquals("Фильм с id = 1 изменён: ожидалась версия 2, текущая 3", exception.getMessage());
+        verify(filmStorage, never()).replace(any(), anyLong());
     }
 
     @Test
@@ -113,6 +159,26 @@ class FilmServiceTest {
         assertEquals("Фильм с id = 1 не найден.", exception.getMessage());
     }
 
+    @Test
+    void update_shouldThrowNotFoundException_whenIdIsMissing() {
+        film.setId(null);
+
+        NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> filmService.update(film)
+        );
+        assertEquals("Фильм с id = null не найден.", exception.getMessage());
+        verify(filmStorage, never()).replace(any(), anyLong());
+    }
+
+    @Test
+    void update_shouldAcceptAnyListedVersion() {
+        when(filmStorage.findById(1L)).thenReturn(Optional.of(film));
+        when(filmStorage.replace(film, 0L)).thenReturn(true);
+
+        assertEquals(film, filmService.update(film, Set.of(3L, 0L)));
+    }
+
     @Test
     void update_shouldThrowValidationException_whenReleaseDateIsInvalid() {
 
@@ -153,6 +219,168 @@ class FilmServiceTest {
         assertEquals(1, result.getLikes().size());
     }
 
+    @Test
+    void like_shouldRecordLikeInStorageAggregates_onlyOnce() {
+
+        when(filmStorage.findById(1L)).thenReturn(Optional.of(film));
+        when(userStorage.findById(1L)).thenReturn(Optional.of(user));
+
+        filmService.like(1L, 1L);
+        filmService.like(1L, 1L);
+
+        verify(filmStorage, times(1)).recordLike(film);
+    }
+
+    @Test
+    void deleteLike_shouldNotRecordUnlike_whenLikeAbsent() {
+
+        when(filmStorage.findById(1L)).thenReturn(Optional.of(film));
+        when(userStorage.findById(1L)).thenReturn(Optional.of(user));
+
+        filmService.deleteLike(1L, 1L);
+
+        verify(filmStorage, never()).recordUnlike(any());
+    }
+
+    @Test
+    void getStats_shouldAggregateIncrementallyInStorage() {
+        InMemoryFilmStorage storage = new InMemoryFilmStorage();
+        InMemoryUserStorage users = new InMemoryUserStorage();
+        users.create(user);
+        FilmService service = new Fixtures().filmService(storage, users);
+
+        Film old = new Film();
+        old.setName("Old");
+        old.setReleaseDate(LocalDate.of(1950, 5, 5));
+        old.setDuration(95);
+        service.add(film);
+        service.add(old);
+        service.like(film.getId(), user.getId());
+
+        FilmCatalogStats stats = service.getStats();
+        assertEquals(2, stats.getFilms());
+        assertEquals(1, stats.getTotalLikes());
+        assertEquals(0.5, stats.getAverageLikes());
+        assertEquals(Map.of(1950, 1L, 2020, 1L), stats.getFilmsByReleaseYear());
+        assertEquals(1L, stats.getFilmsByDuration().get("90-119"));
+        assertEquals(1L, stats.getFilmsByDuration().get("120-149"));
+
+        Film updated = new Film();
+        updated.setId(old.getId());
+        updated.setName("Old");
+        updated.setReleaseDate(LocalDate.of(2020, 2, 2));
+        updated.setDuration(95);
+        service.update(updated);
+        service.deleteLike(film.getId(), user.getId());
+
+        stats = service.getStats();
+        assertEquals(Map.of(2020, 2L), stats.getFilmsByReleaseYear());
+        assertEquals(0, stats.getTotalLikes());
+    }
+
+    @Test
+    void search_shouldFilterAndAggregateColumnsOfStorage() {
+        InMemoryFilmStorage storage = new InMemoryFilmStorage();
+        InMemoryUserStorage users = new InMemoryUserStorage();
+        users.create(user);
+        FilmService service = new Fixtures().filmService(storage, users);
+
+        Film old = new Film();
+        old.setName("Old");
+        old.setReleaseDate(LocalDate.of(1950, 5, 5));
+        old.setDuration(95);
+        service.add(film);
+        service.add(old);
+        service.like(film.getId(), user.getId());
+
+        FilmFilter liked = new FilmFilter();
+        liked.setMinLikes(1);
+        assertEquals(List.of(film), service.search(liked, 10));
+
+        FilmFilter longFilms = new FilmFilter();
+        longFilms.setMinDuration(100);
+        FilmSearchStats stats = service.aggregate(longFilms);
+        assertEquals(1, stats.getFilms());
+        assertEquals(1, stats.getTotalLikes());
+        assertEquals(120.0, stats.getAverageDuration());
+
+        Film updated = new Film();
+        updated.setId(old.getId());
+        updated.setName("Old");
+        updated.setReleaseDate(LocalDate.of(1950, 5, 5));
+        updated.setDuration(150);
+        service.update(updated);
+        service.deleteLike(film.getId(), user.getId());
+
+        assertEquals(2, service.aggregate(longFilms).getFilms());
+        assertEquals(List.of(film, updated), service.search(new FilmFilter(), 10));
+        assertTrue(service.search(liked, 10).isEmpty());
+        assertThrows(ValidationException.class, () -> service.search(liked, 0));
+    }
+
+    @Test
+    void search_shouldTreatMissingFieldsAlike_inColumnsAndObjectFilter() {
+        InMemoryFilmStorage columnar = new InMemoryFilmStorage();
+        FilmStorage plain = mock(FilmStorage.class);
+        List<Film> films = new ArrayList<>();
+        Integer[] durations = {null, 90, 150};
+        LocalDate[] releases = {LocalDate.of(2000, 1, 1), null, LocalDate.of(2010, 1, 1)};
+        for (int i = 0; i < durations.length; i++) {
+            Film candidate = new Film();
+            candidate.setId(i + 1L);
+            candidate.setName("Film " + i);
+            candidate.setReleaseDate(releases[i]);
+            candidate.setDuration(durations[i]);
+            columnar.addFilm(candidate);
+            films.add(candidate);
+        }
+        when(plain.findAll()).thenReturn(films);
+        Fixtures fixtures = new Fixtures();
+        FilmService columns = fixtures.filmService(columnar, userStorage);
+        FilmService objects = fixtures.filmService(plain, userStorage);
+
+        List<FilmFilter> filters = new ArrayList<>();
+        for (Integer[] bounds : new Integer[][]{{null, null}, {0, null}, {null, 1000}, {100, null}}) {
+            FilmFilter filter = new FilmFilter();
+            filter.setMinDuration(bounds[0]);
+            filter.setMaxDuration(bounds[1]);
+            filters.add(filter);
+        }
+        FilmFilter released = new FilmFilter();
+        released.setReleasedFrom(LocalDate.of(1900, 1, 1));
+        filters.add(released);
+
+        for (FilmFilter filter : filters) {
+            assertEquals(objects.search(filter, 10), columns.search(filter, 10), filter.toString());
+            assertEquals(objects.aggregate(filter), columns.aggregate(filter), filter.toString());
+        }
+        FilmFilter anyDuration = filters.get(1);
+        assertEquals(List.of(2L, 3L), columns.search(anyDuration, 10).stream().map(Film::getId).toList());
+        assertEquals(120.0, columns.aggregate(new FilmFilter()).getAverageDuration());
+    }
+
+    @Test
+    void update_shouldKeepLikesAndBumpVersion() {
+        InMemoryFilmStorage storage = new InMemoryFilmStorage();
+        InMemoryUserStorage users = new InMemoryUserStorage();
+        users.create(user);
+        FilmService service = new Fixtures().filmService(storage, users);
+        service.add(film);
+        service.like(film.getId(), user.getId());
+
+        Film stale = new Film();
+        stale.setId(film.getId());
+        stale.setName("Renamed");
+        stale.setReleaseDate(film.getReleaseDate());
+        stale.setDuration(film.getDuration());
+        Film result = service.update(stale, Set.of(1L));
+
+        assertEquals(2, result.getVersion());
+        assertEquals(Set.of(user.getId()), storage.findById(film.getId()).orElseThrow().getLikes());
+        assertEquals(1, service.getStats().getTotalLikes());
+        assertThrows(PreconditionFailedException.class, () -> service.update(stale, Set.of(1L)));
+    }
+
     @Test
     void like_shouldThrowNotFoundException_whenFilmNotExists() {
 
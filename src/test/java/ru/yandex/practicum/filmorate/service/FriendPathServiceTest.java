@@ -0,0 +1,126 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.FriendPath;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class FriendPathServiceTest {
+
+    private InMemoryUserStorage userStorage;
+    private FriendshipAnalyticsService analyticsService;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userStorage = new InMemoryUserStorage();
+        analyticsService = new FriendshipAnalyticsService(userStorage, 1);
+        userService = new Fixtures().userService(userStorage, analyticsService);
+        IntStream.rangeClosed(1, 8).forEach(i -> userService.create(user(i)));
+        // 1-2-3-4-5-6 chain with a shortcut 2-7-5, user 8 is isolated
+        userService.addFriend(1L, 2L);
+        userService.addFriend(2L, 3L);
+        userService.addFriend(3L, 4L);
+        userService.addFriend(4L, 5L);
+        userService.addFriend(5L, 6L);
+        userService.addFriend(2L, 7L);
+        userService.addFriend(7L, 5L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyticsService.shutdown();
+    }
+
+    @Test
+    void findPath_shouldReturnShortestChain() {
+        FriendPath path = service(100).findPath(1L, 6L, null);
+
+        assertTrue(path.isFound());
+        assertEquals(4, path.getLength());
+        assertEquals(List.of(1L, 2L, 7L, 5L, 6L), path.getPath());
+        assertTrue(path.getNodesExpanded() > 0);
+    }
+
+    @Test
+    void findPath_shouldReturnSingleUser_whenSameUser() {
+        FriendPath path = service(100).findPath(3L, 3L, null);
+
+        assertTrue(path.isFound());
+        assertEquals(0, path.getLength());
+        assertEquals(List.of(3L), path.getPath());
+    }
+
+    @Test
+    void findPath_shouldNotFindPath_whenDeeperThanMaxDepth() {
+        FriendPath path = service(100).findPath(1L, 6L, 3);
+
+        assertFalse(path.isFound());
+        assertTrue(path.getPath().isEmpty());
+    }
+
+    @Test
+    void findPath_shouldNotFindPath_whenUsersAreDisconnected() {
+        FriendPath path = service(100).findPath(1L, 8L, null);
+
+        assertFalse(path.isFound());
+        assertFalse(path.isBudgetExhausted());
+    }
+
+    @Test
+    void findPath_shouldStop_whenNodeBudgetExhausted() {
+        FriendPath path = service(4).findPath(1L, 6L, null);
+
+        assertFalse(path.isFound());
+        assertTrue(path.isBudgetExhausted());
+        assertEquals(4, path.getNodesVisited());
+    }
+
+    @Test
+    void findPath_shouldBoundVisitedNodes_throughHighDegreeUser() {
+        for (int i = 0; i < 200; i++) {
+            User fan = userService.create(user(100 + i));
+            userService.addFriend(3L, fan.getId());
+        }
+
+        userService.addFriend(6L, 8L);
+
+        FriendPath path = service(50).findPath(3L, 8L, null);
+
+        assertTrue(path.isBudgetExhausted());
+        assertTrue(path.getNodesVisited() <= 50);
+    }
+
+    @Test
+    void findPath_shouldPickShortestMeeting_withinLevel() {
+        // 1-2-3-4-5-6 is longer than 1-2-7-5-6; both meet the backward search in the same level
+        FriendPath path = service(100).findPath(6L, 1L, null);
+
+        assertEquals(List.of(6L, 5L, 7L, 2L, 1L), path.getPath());
+    }
+
+    @Test
+    void findPath_shouldThrowNotFoundException_whenUserNotExists() {
+        assertThrows(NotFoundException.class, () -> service(100).findPath(1L, 99L, null));
+    }
+
+    @Test
+    void findPath_shouldThrowValidationException_whenDepthOutOfRange() {
+        assertThrows(ValidationException.class, () -> service(100).findPath(1L, 6L, 50));
+    }
+
+    private FriendPathService service(long budget) {
+        return new FriendPathService(userService, userStorage, 6, 12, budget);
+    }
+}
@@ -0,0 +1,121 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.model.FriendshipStats;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.OffHeapUserStorage;
+
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class FriendshipAnalyticsServiceTest {
+
+    private FriendshipAnalyticsService analyticsService;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        analyticsService = new FriendshipAnalyticsService(userStorage, 2);
+        userService = new Fixtures().userService(userStorage, analyticsService);
+        IntStream.rangeClosed(1, 6).forEach(i -> userService.create(user(i)));
+        analyticsService.recompute();
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyticsService.shutdown();
+    }
+
+    @Test
+    void addFriend_shouldMergeComponentsIncrementally() {
+        userService.addFriend(1L, 2L);
+        userService.addFriend(2L, 3L);
+        userService.addFriend(4L, 5L);
+
+        assertTrue(analyticsService.connected(1L, 3L));
+        assertFalse(analyticsService.connected(1L, 4L));
+        assertFalse(analyticsService.isStale());
+    }
+
+    @Test
+    void getStats_shouldKeepComponentFiguresFromOneSnapshot() {
+        userService.addFriend(1L, 2L);
+        userService.addFriend(2L, 3L);
+
+        FriendshipStats stats = analyticsService.getStats();
+
+        assertTrue(stats.isStale());
+        assertEquals(6, stats.getComponents());
+        assertEquals(1, stats.getLargestComponentSize());
+
+        analyticsService.recomputeIfDirty();
+        stats = analyticsService.getStats();
+
+        assertFalse(stats.isStale());
+        assertEquals(4, stats.getComponents());
+        assertEquals(3, stats.getLargestComponentSize());
+    }
+
+    @Test
+    void recompute_shouldReportComponentsAndDegrees() {
+        userService.addFriend(1L, 2L);
+        userService.addFriend(2L, 3L);
+        userService.addFriend(4L, 5L);
+
+        FriendshipStats stats = analyticsService.recompute();
+
+        assertEquals(6, stats.getUsers());
+        assertEquals(3, stats.getFriendships());
+        assertEquals(3, stats.getComponents());
+        assertEquals(3, stats.getLargestComponentSize());
+        assertEquals(1, stats.getIsolatedUsers());
+        assertEquals(2, stats.getMaxDegree());
+        assertEquals(1L, stats.getDegreeDistribution().get("0"));
+        assertEquals(4L, stats.getDegreeDistribution().get("1"));
+        assertEquals(1L, stats.getDegreeDistribution().get("2-3"));
+    }
+
+    @Test
+    void removeFriend_shouldMarkStatsStaleUntilRecomputed() {
+        userService.addFriend(1L, 2L);
+        userService.removeFriend(1L, 2L);
+
+        assertTrue(analyticsService.getStats().isStale());
+
+        FriendshipStats stats = analyticsService.recompute();
+
+        assertFalse(analyticsService.connected(1L, 2L));
+        assertEquals(6, stats.getComponents());
+    }
+
+    @Test
+    void recompute_shouldReadOffHeapAdjacency_withoutBuildingUsers() {
+        OffHeapUserStorage offHeap = spy(new OffHeapUserStorage(4096));
+        for (int id = 1; id <= 4; id++) {
+            User user = user(id);
+            user.setFriends(id == 1 ? Set.of(2L) : id == 2 ? Set.of(1L) : Set.of());
+            offHeap.create(user);
+        }
+        FriendshipAnalyticsService offHeapAnalytics = new FriendshipAnalyticsService(offHeap, 2);
+
+        FriendshipStats stats = offHeapAnalytics.recompute();
+        offHeapAnalytics.shutdown();
+
+        assertEquals(4, stats.getUsers());
+        assertEquals(1, stats.getFriendships());
+        assertEquals(3, stats.getComponents());
+        assertEquals(2, stats.getLargestComponentSize());
+        verify(offHeap, never()).findAll();
+        verify(offHeap, never()).findById(any());
+    }
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.OffHeapUserStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class FriendshipConcurrencyTest {
+
+    private static final int USERS = 40;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 5_000;
+
+    private FriendshipAnalyticsService analyticsService;
+
+    @AfterEach
+    void tearDown() {
+        analyticsService.shutdown();
+    }
+
+    @Test
+    void friendshipGraph_shouldStaySymmetric_withInMemoryStorage() throws Exception {
+        stressAndVerify(new InMemoryUserStorage());
+    }
+
+    @Test
+    void friendshipGraph_shouldStaySymmetric_withOffHeapStorage() throws Exception {
+        stressAndVerify(new OffHeapUserStorage(1 << 20));
+    }
+
+    private void stressAndVerify(UserStorage userStorage) throws Exception {
+        analyticsService = new FriendshipAnalyticsService(userStorage, 1);
+        UserService userService = new Fixtures().userService(userStorage, analyticsService);
+        for (int i = 1; i <= USERS; i++) {
+            userService.create(user(i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    long userId = random.nextLong(1, USERS + 1);
+                    long friendId = random.nextLong(1, USERS + 1);
+                    if (userId == friendId) {
+                        continue;
+                    }
+                    if (random.nextBoolean()) {
+                        userService.addFriend(userId, friendId);
+                    } else {
+                        userService.removeFriend(friendId, userId);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        for (User user : userStorage.findAll()) {
+            for (Long friendId : user.getFriends()) {
+                User friend = userStorage.findById(friendId).orElseThrow();
+                assertTrue(friend.getFriends().contains(user.getId()),
+                        "Дружба " + user.getId() + " -> " + friendId + " односторонняя");
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportServiceTest {
+
+    @TempDir
+    Path rejectDir;
+
+    private ValidatorFactory validatorFactory;
+    private InMemoryFilmStorage filmStorage;
+    private InMemoryUserStorage userStorage;
+    private FriendshipAnalyticsService friendshipAnalyticsService;
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        filmStorage = new InMemoryFilmStorage();
+        userStorage = new InMemoryUserStorage();
+        Fixtures fixtures = new Fixtures();
+        FilmService filmService = fixtures.filmService(filmStorage, userStorage);
+        friendshipAnalyticsService = new FriendshipAnalyticsService(userStorage, 1);
+        UserService userService = fixtures.userService(userStorage, friendshipAnalyticsService);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        importService = new ImportService(filmService, userService, validatorFactory.getValidator(), objectMapper,
+                2, 2, 1, rejectDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+        friendshipAnalyticsService.shutdown();
+        validatorFactory.close();
+    }
+
+    @Test
+    void importFilms_shouldInsertValidFilmsAndRejectInvalid() throws Exception {
+        String json = "["
+                + "{\"name\":\"Film 1\",\"releaseDate\":\"2000-01-01\",\"duration\":100},"
+                + "{\"name\":\"Old\",\"releaseDate\":\"1800-01-01\",\"duration\":100},"
+                + "{\"name\":\"\",\"releaseDate\":\"2000-01-01\",\"duration\":100},"
+                + "{\"name\":\"Film 2\",\"releaseDate\":\"2001-01-01\",\"duration\":90},"
+                + "{\"name\":\"Film 3\",\"releaseDate\":\"not-a-date\",\"duration\":90}"
+                + "]";
+
+        ImportReport report = importService.importFilms(stream(json), ImportService.FORMAT_JSON);
+
+        assertEquals(ImportReport.ImportStatus.DONE, report.getStatus());
+        assertEquals(5, report.getProcessed());
+        assertEquals(2, report.getAccepted());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(1L, 2L), filmStorage.findAll().stream().map(Film::getId).sorted().toList());
+        List<String> rejects = Files.readAllLines(Path.of(report.getRejectFile()));
+        assertEquals(3, rejects.size());
+        assertTrue(rejects.get(0).contains("28 декабря 1895"));
+    }
+
+    @Test
+    void importUsers_shouldReadCsvAndApplyUserRules() {
+        String csv = "email,login,name,birthday\n"
+                + "a@test.com,alice,,1990-01-01\n"
+                + "bad-email,bob,Bob,1990-01-01\n"
+                + "c@test.com,carol,Carol,2999-01-01\n";
+
+        ImportReport report = importService.importUsers(stream(csv), ImportService.FORMAT_CSV);
+
+        assertEquals(1, report.getAccepted());
+        assertEquals(2, report.getRejected());
+        User user = userStorage.findById(1L).orElseThrow();
+        assertEquals("alice", user.getName());
+        assertTrue(importService.getActiveImports().isEmpty());
+    }
+
+    @Test
+    void import_shouldDropRelationIdsOfSourceSystem() {
+        String users = "[{\"email\":\"a@test.com\",\"login\":\"alice\",\"birthday\":\"1990-01-01\","
+                + "\"friends\":[42,7]}]";
+        String films = "[{\"name\":\"Film\",\"releaseDate\":\"2000-01-01\",\"duration\":100,"
+                + "\"likes\":[42,1]}]";
+
+        importService.importUsers(stream(users), ImportService.FORMAT_JSON);
+        importService.importFilms(stream(films), ImportService.FORMAT_JSON);
+
+        assertTrue(userStorage.findById(1L).orElseThrow().getFriends().isEmpty());
+        assertTrue(filmStorage.findById(1L).orElseThrow().getLikes().isEmpty());
+        assertEquals(0, filmStorage.getStats().getTotalLikes());
+    }
+
+    @Test
+    void importFilms_shouldFail_whenJsonIsNotArray() {
+        ImportReport report = importService.importFilms(stream("{\"name\":\"x\"}"), ImportService.FORMAT_JSON);
+
+        assertEquals(ImportReport.ImportStatus.FAILED, report.getStatus());
+        assertEquals(0, report.getAccepted());
+        assertTrue(filmStorage.findAll().isEmpty());
+    }
+
+    @Test
+    void importFilms_shouldReportCommittedRows_whenStreamBreaksMidway() {
+        String json = "["
+                + "{\"name\":\"Film 1\",\"releaseDate\":\"2000-01-01\",\"duration\":100},"
+                + "{\"name\":\"Film 2\",\"releaseDate\":\"2000-01-01\",\"duration\":100},"
+                + "{\"name\":\"Film 3\",\"releaseDate\":\"2000-01-01\",\"duration\":100},"
+                + "{\"name\": oops";
+
+        ImportReport report = importService.importFilms(stream(json), ImportService.FORMAT_JSON);
+
+        assertEquals(ImportReport.ImportStatus.FAILED, report.getStatus());
+        assertTrue(report.getError().startsWith("Некорректный JSON"));
+        assertEquals(3, report.getAccepted());
+        assertEquals(3, filmStorage.size());
+    }
+
+    @Test
+    void importFilms_shouldRejectUnsupportedFormat() {
+        assertThrows(ValidationException.class,
+                () -> importService.importFilms(stream("[]"), "xml"));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,160 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static ru.yandex.practicum.filmorate.Fixtures.film;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class LikeCoalescerTest {
+
+    private static final int THREADS = 8;
+    private static final int USERS_PER_THREAD = 250;
+
+    private final FeedService feedService = mock(FeedService.class);
+    private final TrendingService trendingService = mock(TrendingService.class);
+
+    private final InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+    private final InMemoryUserStorage userStorage = new InMemoryUserStorage();
+    private LikeCoalescer likeCoalescer;
+
+    @AfterEach
+    void tearDown() {
+        likeCoalescer.shutdown();
+    }
+
+    @Test
+    void like_shouldCountHotFilmExactly_underConcurrentWriters() throws Exception {
+        FilmService filmService = service(false);
+        Film film = prepare(filmService);
+
+        hammer(filmService, film.getId());
+
+        assertEquals(THREADS * USERS_PER_THREAD, film.getLikes().size());
+        assertEquals(THREADS * USERS_PER_THREAD, filmService.getStats().getTotalLikes());
+        assertEquals(film.getId(), filmService.getPopularFilms(1).iterator().next().getId());
+    }
+
+    @Test
+    void like_shouldApplyCoalescedLikesBeforePopularityRead() throws Exception {
+        FilmService filmService = service(true);
+        Film film = prepare(filmService);
+
+        hammer(filmService, film.getId());
+        filmService.deleteLike(film.getId(), 1L);
+
+        Film popular = filmService.getPopularFilms(1).iterator().next();
+        assertEquals(THREADS * USERS_PER_THREAD - 1, popular.getLikes().size());
+        assertEquals(THREADS * USERS_PER_THREAD - 1, filmService.getStats().getTotalLikes());
+    }
+
+    @Test
+    void like_shouldRespondWithSubmittedLike_beforeFlush() {
+        FilmService filmService = service(true);
+        Film film = prepare(filmService);
+
+        Film liked = filmService.like(film.getId(), 7L);
+
+        assertTrue(liked.getLikes().contains(7L));
+        assertEquals(film.getName(), liked.getName());
+        assertFalse(film.getLikes().contains(7L));
+        likeCoalescer.flush();
+        assertTrue(film.getLikes().contains(7L));
+
+        Film unliked = filmService.deleteLike(film.getId(), 7L);
+
+        assertFalse(unliked.getLikes().contains(7L));
+        assertTrue(film.getLikes().contains(7L));
+    }
+
+    @Test
+    void like_shouldRespondWithAllPendingLikesOfFilm_withoutCopyingStoredOnes() {
+        FilmService filmService = service(true);
+        Film film = prepare(filmService);
+        filmService.like(film.getId(), 7L);
+        filmService.like(film.getId(), 8L);
+        likeCoalescer.flush();
+
+        filmService.like(film.getId(), 9L);
+        filmService.deleteLike(film.getId(), 7L);
+        Film view = filmService.like(film.getId(), 10L);
+
+        assertEquals(Set.of(8L, 9L, 10L), Set.copyOf(view.getLikes()));
+        assertEquals(3, view.getLikes().size());
+        assertEquals(Set.of(7L, 8L), film.getLikes());
+        likeCoalescer.flush();
+        assertSame(film, likeCoalescer.pendingView(film));
+        assertEquals(Set.of(8L, 9L, 10L), film.getLikes());
+    }
+
+    @Test
+    void like_shouldFireTrendingAndFeedOnce_forDuplicateCoalescedLikes() {
+        FilmService filmService = service(true);
+        Film film = prepare(filmService);
+
+        filmService.like(film.getId(), 7L);
+        filmService.like(film.getId(), 7L);
+        likeCoalescer.flush();
+        filmService.like(film.getId(), 7L);
+        filmService.deleteLike(film.getId(), 8L);
+        likeCoalescer.flush();
+
+        verify(trendingService, times(1)).liked(film.getId());
+        verify(feedService, times(1)).filmLiked(7L, film.getId());
+        verify(trendingService, never()).unliked(anyLong());
+    }
+
+    private FilmService service(boolean coalescing) {
+        Fixtures fixtures = new Fixtures().with(feedService).with(trendingService);
+        likeCoalescer = fixtures.likeCoalescer(filmStorage, coalescing, Duration.ofSeconds(10), 64);
+        return fixtures.filmService(filmStorage, userStorage, likeCoalescer);
+    }
+
+    private Film prepare(FilmService filmService) {
+        for (int i = 0; i < THREADS * USERS_PER_THREAD; i++) {
+            userStorage.create(user(i));
+        }
+        Film other = film("Other");
+        filmService.add(other);
+        Film hot = film("Hot");
+        return filmService.add(hot);
+    }
+
+    private void hammer(FilmService filmService, long filmId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long firstUser = 1L + (long) t * USERS_PER_THREAD;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long userId = firstUser; userId < firstUser + USERS_PER_THREAD; userId++) {
+                    filmService.like(filmId, userId);
+                    filmService.like(filmId, userId);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.Fixtures;
+import ru.yandex.practicum.filmorate.exception.CapacityExceededException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.MemoryReport;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.Fixtures.film;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class MemoryBudgetServiceTest {
+
+    private final InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+    private final InMemoryUserStorage userStorage = new InMemoryUserStorage();
+    private final FriendshipAnalyticsService analytics = new FriendshipAnalyticsService(userStorage, 1);
+
+    @AfterEach
+    void tearDown() {
+        analytics.shutdown();
+    }
+
+    @Test
+    void report_shouldTrackFootprintIncrementally() {
+        MemoryBudgetService budget = new MemoryBudgetService(filmStorage, userStorage, DataSize.ofMegabytes(1),
+                0.8, 0.95);
+        Fixtures fixtures = new Fixtures().with(budget);
+        UserService userService = fixtures.userService(userStorage, analytics);
+        FilmService filmService = fixtures.filmService(filmStorage, userStorage);
+
+        User first = userService.create(user(1));
+        User second = userService.create(user(2));
+        Film film = filmService.add(film());
+        MemoryReport before = budget.getReport();
+
+        userService.addFriend(first.getId(), second.getId());
+        filmService.like(film.getId(), first.getId());
+        MemoryReport after = budget.getReport();
+
+        assertEquals(MemoryReport.BudgetStatus.OK, after.getStatus());
+        assertTrue(before.getComponents().get("users") > 0);
+        assertTrue(before.getComponents().get("films") > 0);
+        assertTrue(before.getComponents().get("userIndexes") > 0);
+        assertTrue(after.getComponents().get("friends") > before.getComponents().get("friends"));
+        assertTrue(after.getComponents().get("likes") > before.getComponents().get("likes"));
+
+        userService.removeFriend(first.getId(), second.getId());
+        filmService.deleteLike(film.getId(), first.getId());
+        assertEquals(before.getEstimatedHeapBytes(), budget.getReport().getEstimatedHeapBytes());
+    }
+
+    @Test
+    void create_shouldBeRejected_whenBudgetIsExhausted() {
+        MemoryBudgetService budget = new MemoryBudgetService(filmStorage, userStorage, DataSize.ofBytes(4096),
+                0.5, 0.9);
+        UserService userService = new Fixtures().with(budget).userService(userStorage, analytics);
+
+        int created = 0;
+        try {
+            for (int i = 1; i <= 100; i++) {
+                userService.create(user(i));
+                created++;
+            }
+            fail("Бюджет памяти не сработал");
+        } catch (CapacityExceededException e) {
+            assertTrue(created > 0);
+        }
+        assertEquals(created, userStorage.findAll().size());
+        assertEquals(MemoryReport.BudgetStatus.REJECTING, budget.getReport().getStatus());
+    }
+}
@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingServiceTest {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+    private static final Duration WEEK = Duration.ofDays(7);
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void findTrending_shouldFavourRecentLikes_inShortWindow() {
+        TrendingService service = service(TrendingService.MODE_EXACT, 0);
+        for (int i = 0; i < 3; i++) {
+            service.liked(1L, START);
+        }
+        long later = START + Duration.ofHours(3).toMillis();
+        service.liked(2L, later);
+        service.liked(2L, later);
+
+        assertEquals(List.of(2L, 1L), service.findTrending(HOUR, 10));
+        assertEquals(List.of(1L, 2L), service.findTrending(WEEK, 10));
+        assertEquals(List.of(1L), service.findTrending(null, 1));
+    }
+
+    @Test
+    void unliked_shouldRemoveScore() {
+        TrendingService service = service(TrendingService.MODE_EXACT, 0);
+        service.liked(1L, START);
+        service.liked(2L, START);
+        service.liked(2L, START);
+        service.unliked(2L);
+        service.unliked(2L);
+        service.unliked(3L);
+
+        assertEquals(List.of(1L), service.findTrending(HOUR, 10));
+    }
+
+    @Test
+    void unliked_shouldKeepFilm_withOlderDecayedLikes() {
+        TrendingService service = service(TrendingService.MODE_EXACT, 0);
+        for (int i = 0; i < 10; i++) {
+            service.liked(1L, START);
+        }
+        service.liked(2L, START + Duration.ofHours(5).toMillis());
+        service.unliked(1L);
+
+        assertEquals(List.of(2L, 1L), service.findTrending(HOUR, 10));
+    }
+
+    @Test
+    void liked_shouldDropFilms_whoseScoreDecayedToNothing() {
+        TrendingService service = service(TrendingService.MODE_EXACT, 0);
+        for (long filmId = 1; filmId <= 100; filmId++) {
+            service.liked(filmId, START);
+        }
+        long later = START + HOUR.multipliedBy(TrendingService.NEGLIGIBLE + 1).toMillis();
+        service.liked(101L, later);
+
+        assertEquals(List.of(101L), service.findTrending(HOUR, 10));
+        assertEquals(1, service.tracked(HOUR));
+        assertEquals(101, service.tracked(WEEK));
+    }
+
+    @Test
+    void seed_shouldCountExistingLikes_onlyForUntrackedFilms() {
+        TrendingService service = service(TrendingService.MODE_EXACT, 0);
+        service.liked(1L, System.currentTimeMillis());
+        service.seed(1L, 100);
+        service.seed(2L, 3);
+
+        assertEquals(List.of(2L, 1L), service.findTrending(HOUR, 10));
+    }
+
+    @Test
+    void spaceSaving_shouldKeepHeavyHitters_withinCapacity() {
+        TrendingService service = service(TrendingService.MODE_SPACE_SAVING, 2);
+        for (long filmId = 1; filmId <= 50; filmId++) {
+            service.liked(filmId, START);
+            if (filmId % 10 == 0) {
+                for (int i = 0; i < 20; i++) {
+                    service.liked(7L, START);
+                }
+            }
+        }
+
+        List<Long> trending = service.findTrending(WEEK, 10);
+        assertEquals(2, trending.size());
+        assertEquals(7L, trending.get(0));
+    }
+
+    @Test
+    void findTrending_shouldRejectUnknownWindow() {
+        TrendingService service = service(TrendingService.MODE_EXACT, 0);
+
+        assertThrows(ValidationException.class, () -> service.findTrending(Duration.ofMinutes(5), 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TrendingService(List.of(HOUR), WEEK, TrendingService.MODE_EXACT, 0));
+    }
+
+    private TrendingService service(String mode, int capacity) {
+        return new TrendingService(List.of(HOUR, WEEK), WEEK, mode, capacity);
+    }
+}
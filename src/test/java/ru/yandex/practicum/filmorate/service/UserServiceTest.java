@@ -8,7 +8,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.replication.ReplicationLog;
 import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
 
 import java.time.LocalDate;
@@ -24,6 +26,24 @@ class UserServiceTest {
     @Mock
     private InMemoryUserStorage userStorage;
 
+    @Mock
+    private FriendshipAnalyticsService friendshipAnalyticsService;
+
+    @Mock
+    private MemoryBudgetService memoryBudgetService;
+
+    @Mock
+    private ReplicationLog replicationLog;
+
+    @Mock
+    private JsonFragmentCache jsonFragmentCache;
+
+    @Mock
+    private FeedService feedService;
+
+    @Mock
+    private ConsistentCut consistentCut;
+
     @InjectMocks
     private UserService userService;
 
@@ -108,13 +128,13 @@ class UserServiceTest {
     @Test
     void update_shouldUpdateUserSuccessfully() {
         when(userStorage.findById(1L)).thenReturn(Optional.of(user));
-        when(userStorage.update(user)).thenReturn(user);
+        when(userStorage.replace(user, 0L)).thenReturn(true);
 
         User result = userService.update(user);
 
         assertNotNull(result);
         assertEquals(user.getId(), result.getId());
-        verify(userStorage, times(1)).update(user);
+        verify(userStorage, times(1)).replace(user, 0L);
     }
 
     @Test
@@ -128,11 +148,23 @@ class UserServiceTest {
         assertEquals("Пользователь с id = 1 не найден.", exception.getMessage());
     }
 
+    @Test
+    void update_shouldThrowNotFoundException_whenIdIsMissing() {
+        user.setId(null);
+
+        NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> userService.update(user)
+        );
+        assertEquals("Пользователь с id = null не найден.", exception.getMessage());
+        verify(userStorage, never()).replace(any(), anyLong());
+    }
+
     @Test
     void update_shouldSetLoginAsName_whenNameIsBlank() {
         user.setName("");
         when(userStorage.findById(1L)).thenReturn(Optional.of(user));
-        when(userStorage.update(user)).thenReturn(user);
+        when(userStorage.replace(user, 0L)).thenReturn(true);
 
         User result = userService.update(user);
 
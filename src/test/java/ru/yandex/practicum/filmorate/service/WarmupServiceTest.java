@@ -0,0 +1,102 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ApplicationContextEvent;
+import ru.yandex.practicum.filmorate.json.JsonFragmentCache;
+import ru.yandex.practicum.filmorate.model.WarmupReport;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class WarmupServiceTest {
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private FilmStorage filmStorage;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private JsonFragmentCache jsonFragmentCache;
+
+    @Test
+    void run_shouldCompleteConfiguredIterations_withoutTouchingApplicationData() {
+        long films = filmStorage.size();
+        long users = userStorage.findAll().size();
+        long cachedFilms = jsonFragmentCache.getStats().getFilms();
+        WarmupService warmupService = service(true, 450, Duration.ofMinutes(1));
+
+        warmupService.run(null);
+
+        WarmupReport report = warmupService.getReport();
+        assertEquals(WarmupReport.WarmupStatus.DONE, report.getStatus());
+        assertEquals(450, report.getIterations());
+        assertTrue(report.getFirstIterationMicros() > 0);
+        assertEquals(films, filmStorage.size());
+        assertEquals(users, userStorage.findAll().size());
+        assertEquals(cachedFilms, jsonFragmentCache.getStats().getFilms());
+    }
+
+    @Test
+    void run_shouldKeepScratchContextEventsToItself() {
+        List<ApplicationContextEvent> events = new CopyOnWriteArrayList<>();
+        ApplicationListener<ApplicationContextEvent> listener = events::add;
+        applicationContext.addApplicationListener(listener);
+        try {
+            service(true, 10, Duration.ofMinutes(1)).run(null);
+        } finally {
+            applicationContext.removeApplicationListener(listener);
+        }
+
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    void run_shouldStopAtTimeBudget() {
+        WarmupService warmupService = service(true, 1_000_000, Duration.ZERO);
+
+        warmupService.run(null);
+
+        WarmupReport report = warmupService.getReport();
+        assertEquals(WarmupReport.WarmupStatus.TIMED_OUT, report.getStatus());
+        assertTrue(report.getIterations() < 1_000_000);
+    }
+
+    @Test
+    void run_shouldSkip_whenDisabled() {
+        WarmupService warmupService = service(false, 100, Duration.ofMinutes(1));
+
+        warmupService.run(null);
+
+        assertEquals(WarmupReport.WarmupStatus.SKIPPED, warmupService.getReport().getStatus());
+    }
+
+    @Test
+    void recordFirstRequest_shouldKeepOnlyFirstRequest() {
+        WarmupService warmupService = service(false, 100, Duration.ofMinutes(1));
+
+        warmupService.recordFirstRequest("GET /films", 5_000);
+        warmupService.recordFirstRequest("GET /users", 9_000);
+
+        WarmupReport report = warmupService.getReport();
+        assertEquals("GET /films", report.getFirstRequest());
+        assertEquals(5, report.getFirstRequestMicros());
+    }
+
+    private WarmupService service(boolean enabled, int iterations, Duration budget) {
+        return new WarmupService(applicationContext, validator, enabled, iterations, budget);
+    }
+}
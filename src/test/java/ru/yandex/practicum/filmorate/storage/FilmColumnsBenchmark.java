@@ -0,0 +1,58 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+class FilmColumnsBenchmark {
+
+    private static final int FILMS = FilmColumns.CHUNK * 2 + 1234;
+    private static final int ROUNDS = 50;
+
+    @Test
+    void aggregate_benchmarkAgainstObjectScan() throws Exception {
+        List<Film> films = FilmColumnsTest.films(new Random(42), FILMS);
+        FilmColumns scalar = FilmColumnsTest.columns(ScalarColumnKernel.INSTANCE, films);
+        ColumnKernel vectorKernel = ColumnKernel.vector();
+        FilmColumns vector = FilmColumnsTest.columns(vectorKernel, films);
+        FilmFilter filter = new FilmFilter();
+        filter.setReleasedFrom(LocalDate.of(1990, 1, 1));
+        filter.setReleasedTo(LocalDate.of(2010, 12, 31));
+        filter.setMinDuration(90);
+        filter.setMaxDuration(150);
+        filter.setMinLikes(10);
+        Predicate<Film> predicate = FilmColumnsTest.predicate(filter);
+
+        FilmSearchStats expected = FilmColumnsTest.stats(films, predicate);
+        long objects = 0;
+        long scalarNanos = 0;
+        long vectorNanos = 0;
+        for (int round = 0; round < ROUNDS * 2; round++) {
+            boolean measured = round >= ROUNDS;
+            long start = System.nanoTime();
+            assertEquals(expected, FilmColumnsTest.stats(films, predicate));
+            long mid = System.nanoTime();
+            assertEquals(expected, scalar.aggregate(filter));
+            long end = System.nanoTime();
+            assertEquals(expected, vector.aggregate(filter));
+            if (measured) {
+                objects += mid - start;
+                scalarNanos += end - mid;
+                vectorNanos += System.nanoTime() - end;
+            }
+        }
+        System.out.printf("Aggregate over %d films: objects %.2f ms, scalar columns %.2f ms, "
+                        + "vector columns (%s) %.2f ms%n", films.size(), objects / 1e6 / ROUNDS,
+                scalarNanos / 1e6 / ROUNDS, vectorKernel, vectorNanos / 1e6 / ROUNDS);
+    }
+}
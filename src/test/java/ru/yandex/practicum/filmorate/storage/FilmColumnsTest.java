@@ -0,0 +1,194 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmSearchStats;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilmColumnsTest {
+
+    private static final int FILMS = FilmColumns.CHUNK * 2 + 1234;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void scan_shouldMatchObjectFilter_forScalarAndVectorKernels() throws Exception {
+        List<Film> films = films(random, FILMS);
+        FilmColumns scalar = columns(ScalarColumnKernel.INSTANCE, films);
+        FilmColumns vector = columns(ColumnKernel.vector(), films);
+
+        for (int i = 0; i < 20; i++) {
+            FilmFilter filter = randomFilter();
+            Predicate<Film> predicate = predicate(filter);
+            long[] expected = films.stream().filter(predicate).mapToLong(Film::getId).limit(500).toArray();
+            FilmSearchStats expectedStats = stats(films, predicate);
+
+            assertArrayEquals(expected, scalar.select(filter, 500), filter.toString());
+            assertArrayEquals(expected, vector.select(filter, 500), filter.toString());
+            assertEquals(expectedStats, scalar.aggregate(filter), filter.toString());
+            assertEquals(expectedStats, vector.aggregate(filter), filter.toString());
+        }
+    }
+
+    @Test
+    void writes_shouldUpdateRowsInPlace() {
+        FilmColumns columns = new FilmColumns();
+        Film film = film(1, LocalDate.of(2000, 1, 1), 90);
+        columns.put(film);
+        columns.put(film(2, null, null));
+        columns.likeAdded(1);
+        columns.likeAdded(1);
+        columns.likeRemoved(1);
+
+        FilmFilter liked = new FilmFilter();
+        liked.setMinLikes(1);
+        assertArrayEquals(new long[]{1}, columns.select(liked, 10));
+
+        FilmFilter nineties = new FilmFilter();
+        nineties.setReleasedTo(LocalDate.of(1999, 12, 31));
+        assertEquals(0, columns.select(nineties, 10).length);
+        film.setReleaseDate(LocalDate.of(1995, 5, 5));
+        columns.replace(film);
+        assertArrayEquals(new long[]{1}, columns.select(nineties, 10));
+
+        FilmSearchStats all = columns.aggregate(new FilmFilter());
+        assertEquals(2, all.getFilms());
+        assertEquals(1, all.getTotalLikes());
+        assertEquals(90.0, all.getAverageDuration());
+    }
+
+    @Test
+    void likes_shouldCountExactly_whenAddedConcurrentlyWithPutsAndScans() throws Exception {
+        FilmColumns columns = new FilmColumns();
+        columns.put(film(1, LocalDate.of(2000, 1, 1), 90));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    columns.likeAdded(1);
+                }
+            }));
+        }
+        futures.add(executor.submit(() -> {
+            for (int id = 2; id < 2_000; id++) {
+                columns.put(film(id, null, null));
+                columns.totals(new FilmFilter());
+            }
+        }));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(30_000, columns.aggregate(new FilmFilter()).getTotalLikes());
+    }
+
+    static FilmColumns columns(ColumnKernel kernel, List<Film> films) {
+        FilmColumns columns = new FilmColumns(kernel);
+        films.forEach(columns::put);
+        return columns;
+    }
+
+    static List<Film> films(Random random, int count) {
+        List<Film> films = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            LocalDate released = random.nextInt(50) == 0 ? null
+                    : LocalDate.of(1950, 1, 1).plusDays(random.nextInt(365 * 75));
+            Integer duration = random.nextInt(50) == 0 ? null : 40 + random.nextInt(200);
+            Film film = film(id, released, duration);
+            LongStream.range(0, random.nextInt(40)).forEach(film.getLikes()::add);
+            films.add(film);
+        }
+        return films;
+    }
+
+    private static Film film(long id, LocalDate released, Integer duration) {
+        Film film = new Film();
+        film.setId(id);
+        film.setName("Фильм " + id);
+        film.setReleaseDate(released);
+        film.setDuration(duration);
+        return film;
+    }
+
+    private FilmFilter randomFilter() {
+        FilmFilter filter = new FilmFilter();
+        if (random.nextBoolean()) {
+            filter.setReleasedFrom(LocalDate.of(1950 + random.nextInt(75), 1, 1));
+        }
+        if (random.nextBoolean()) {
+            filter.setReleasedTo(LocalDate.of(1960 + random.nextInt(75), 6, 30));
+        }
+        if (random.nextBoolean()) {
+            filter.setMinDuration(40 + random.nextInt(150));
+        }
+        if (random.nextBoolean()) {
+            filter.setMaxDuration(90 + random.nextInt(150));
+        }
+        if (random.nextBoolean()) {
+            filter.setMinLikes(random.nextInt(30));
+        }
+        if (random.nextInt(4) == 0) {
+            filter.setMaxLikes(random.nextInt(40));
+        }
+        return filter;
+    }
+
+    static Predicate<Film> predicate(FilmFilter filter) {
+        return film -> {
+            boolean releaseBounded = filter.getReleasedFrom() != null || filter.getReleasedTo() != null;
+            LocalDate released = film.getReleaseDate();
+            if (releaseBounded && (released == null
+                    || filter.getReleasedFrom() != null && released.isBefore(filter.getReleasedFrom())
+                    || filter.getReleasedTo() != null && released.isAfter(filter.getReleasedTo()))) {
+                return false;
+            }
+            boolean durationBounded = filter.getMinDuration() != null || filter.getMaxDuration() != null;
+            Integer duration = film.getDuration();
+            if (durationBounded && (duration == null
+                    || filter.getMinDuration() != null && duration < filter.getMinDuration()
+                    || filter.getMaxDuration() != null && duration > filter.getMaxDuration())) {
+                return false;
+            }
+            int likes = film.getLikes().size();
+            return (filter.getMinLikes() == null || likes >= filter.getMinLikes())
+                    && (filter.getMaxLikes() == null || likes <= filter.getMaxLikes());
+        };
+    }
+
+    static FilmSearchStats stats(List<Film> films, Predicate<Film> predicate) {
+        long count = 0;
+        long likes = 0;
+        long timed = 0;
+        long duration = 0;
+        for (Film film : films) {
+            if (predicate.test(film)) {
+                count++;
+                likes += film.getLikes().size();
+                if (film.getDuration() != null) {
+                    timed++;
+                    duration += film.getDuration();
+                }
+            }
+        }
+        FilmSearchStats stats = new FilmSearchStats();
+        stats.setFilms(count);
+        stats.setTotalLikes(likes);
+        stats.setAverageLikes(count == 0 ? 0 : (double) likes / count);
+        stats.setAverageDuration(timed == 0 ? 0 : (double) duration / timed);
+        return stats;
+    }
+}
@@ -0,0 +1,99 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class InMemoryUserStorageTest {
+
+    private final InMemoryUserStorage storage = new InMemoryUserStorage();
+
+    @Test
+    void create_shouldRejectDuplicateEmailAndLogin_ignoringCase() {
+        storage.create(user("user@test.com", "login"));
+
+        assertThrows(ConflictException.class, () -> storage.create(user("USER@test.com", "other")));
+        assertThrows(ConflictException.class, () -> storage.create(user("other@test.com", "Login")));
+        assertEquals(1, storage.findAll().size());
+        assertTrue(storage.findByLogin("other").isEmpty());
+    }
+
+    @Test
+    void create_shouldNotConsumeId_whenRejectedByConflict() {
+        User first = storage.create(user("user@test.com", "login"));
+        assertThrows(ConflictException.class, () -> storage.create(user("user@test.com", "other")));
+        storage.createAll(List.of(user("x@test.com", "LOGIN")));
+
+        User next = storage.create(user("next@test.com", "next"));
+
+        assertEquals(first.getId() + 1, next.getId());
+        assertEquals(next.getId(), storage.findByLogin("next").orElseThrow().getId());
+        assertEquals(next.getId(), storage.searchByLoginPrefix("ne", 10).get(0).getId());
+    }
+
+    @Test
+    void update_shouldReleaseOldKeys() {
+        User user = storage.create(user("old@test.com", "oldlogin"));
+
+        User changed = user("new@test.com", "newlogin");
+        changed.setId(user.getId());
+        storage.update(changed);
+
+        assertTrue(storage.findByEmail("old@test.com").isEmpty());
+        assertTrue(storage.searchByLoginPrefix("old", 10).isEmpty());
+        assertEquals(user.getId(), storage.findByLogin("newlogin").orElseThrow().getId());
+        assertDoesNotThrow(() -> storage.create(user("old@test.com", "oldlogin")));
+    }
+
+    @Test
+    void createAll_shouldReturnConflictingUsers() {
+        storage.create(user("taken@test.com", "taken"));
+        User fresh = user("fresh@test.com", "fresh");
+        User duplicate = user("taken@test.com", "another");
+
+        List<User> rejected = storage.createAll(List.of(fresh, duplicate));
+
+        assertEquals(List.of(duplicate), rejected);
+        assertNull(duplicate.getId());
+        assertTrue(storage.findByLogin("another").isEmpty());
+        assertEquals(fresh.getId(), storage.findByEmail("fresh@test.com").orElseThrow().getId());
+    }
+
+    @Test
+    void searchByLoginPrefix_shouldReturnSortedMatchesUpToLimit() {
+        storage.create(user("a@test.com", "anna"));
+        storage.create(user("b@test.com", "andrew"));
+        storage.create(user("c@test.com", "boris"));
+        storage.create(user("d@test.com", "Anton"));
+
+        List<String> logins = storage.searchByLoginPrefix("An", 2).stream()
+                .map(User::getLogin)
+                .toList();
+
+        assertEquals(List.of("andrew", "anna"), logins);
+        assertEquals(3, storage.searchByLoginPrefix("an", 10).size());
+    }
+
+    @Test
+    void replace_shouldKeepFriendsAndRejectStaleVersion() {
+        User user = storage.create(user("user@test.com", "login"));
+        user.getFriends().add(42L);
+
+        User changed = user("user@test.com", "renamed");
+        changed.setId(user.getId());
+
+        assertTrue(storage.replace(changed, 1));
+        assertEquals(2, storage.findById(user.getId()).orElseThrow().getVersion());
+        assertEquals(Set.of(42L), storage.findById(user.getId()).orElseThrow().getFriends());
+        User stale = user("user@test.com", "again");
+        stale.setId(user.getId());
+        assertFalse(storage.replace(stale, 1));
+        assertEquals("renamed", storage.findById(user.getId()).orElseThrow().getLogin());
+    }
+}
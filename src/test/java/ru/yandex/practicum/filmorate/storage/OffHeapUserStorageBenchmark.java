@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+class OffHeapUserStorageBenchmark {
+
+    private static final int USERS = 500_000;
+    private static final int FRIENDS = 20;
+    private static final int READS = 2_000_000;
+
+    @Test
+    void heapAndGcAgainstInMemory() {
+        System.out.printf("Users %,d with %d friends each, max heap %,d MB%n", USERS, FRIENDS,
+                Runtime.getRuntime().maxMemory() >> 20);
+        measure("in-memory", new InMemoryUserStorage());
+        measure("off-heap", new OffHeapUserStorage(64 << 20));
+    }
+
+    private void measure(String name, UserStorage storage) {
+        long heapBefore = usedHeap();
+        long[] gcBefore = gc();
+        long start = System.nanoTime();
+        Random random = new Random(42);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setEmail("user" + i + "@test.com");
+            user.setLogin("user" + i);
+            user.setName("User " + i);
+            user.setBirthday(LocalDate.of(1990, 1, 1).plusDays(i % 10_000));
+            for (int f = 0; f < FRIENDS; f++) {
+                user.getFriends().add(1L + random.nextInt(USERS));
+            }
+            storage.create(user);
+        }
+        long loadNanos = System.nanoTime() - start;
+        long retained = usedHeap() - heapBefore;
+        long[] gcLoaded = gc();
+
+        start = System.nanoTime();
+        long friends = 0;
+        for (int i = 0; i < READS; i++) {
+            friends += storage.findById(1L + random.nextInt(USERS)).orElseThrow().getFriends().size();
+        }
+        long readNanos = System.nanoTime() - start;
+        long[] gcRead = gc();
+        assertTrue(friends > 0);
+
+        System.out.printf("  %-9s retained heap %,d MB, load %,d ms (%d GCs, %,d ms), "
+                        + "%,d reads %,d ms (%d GCs, %,d ms)%n",
+                name, retained >> 20, loadNanos / 1_000_000, gcLoaded[0] - gcBefore[0], gcLoaded[1] - gcBefore[1],
+                READS, readNanos / 1_000_000, gcRead[0] - gcLoaded[0], gcRead[1] - gcLoaded[1]);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long[] gc() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(bean.getCollectionCount(), 0);
+            millis += Math.max(bean.getCollectionTime(), 0);
+        }
+        return new long[]{count, millis};
+    }
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class OffHeapUserStorageTest {
+
+    private OffHeapUserStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new OffHeapUserStorage(4096);
+    }
+
+    @Test
+    void create_shouldRoundTripAllFields() {
+        User user = user("юзер@test.com", "login");
+        user.setFriends(Set.of(5L, 7L));
+
+        storage.create(user);
+        User stored = storage.findById(user.getId()).orElseThrow();
+
+        assertEquals(1L, stored.getId());
+        assertEquals("юзер@test.com", stored.getEmail());
+        assertEquals("login", stored.getLogin());
+        assertNull(stored.getName());
+        assertEquals(LocalDate.of(1990, 1, 1), stored.getBirthday());
+        assertEquals(Set.of(5L, 7L), stored.getFriends());
+        assertNotSame(user, stored);
+    }
+
+    @Test
+    void update_shouldRelocateRecord_whenItOutgrowsCapacity() {
+        User user = storage.create(user("a@test.com", "a"));
+        user.getFriends().addAll(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+
+        storage.update(user);
+
+        assertEquals(10, storage.findById(user.getId()).orElseThrow().getFriends().size());
+        assertTrue(storage.getGarbageBytes() > 0);
+    }
+
+    @Test
+    void create_shouldSpanSegmentsAndFindAll() {
+        LongStream.rangeClosed(1, 200).forEach(i -> storage.create(user(i + "@test.com", "user" + i)));
+
+        assertEquals(200, storage.findAll().size());
+        assertTrue(storage.getOffHeapBytes() > 4096);
+        assertEquals("user150", storage.findById(150L).orElseThrow().getLogin());
+        assertTrue(storage.findById(201L).isEmpty());
+    }
+
+    @Test
+    void adjacencyView_shouldMatchStoredFriends() {
+        User named = user("a@test.com", "a");
+        named.setName("Имя с длинным описанием");
+        named.setFriends(Set.of(2L, 3L));
+        storage.create(named);
+        storage.create(user("b@test.com", "b"));
+        User relocated = storage.create(user("c@test.com", "c"));
+        relocated.getFriends().addAll(List.of(1L, 2L, 4L, 5L, 6L, 7L, 8L, 9L));
+        storage.update(relocated);
+
+        long[] ids = storage.findAllIds();
+        Arrays.sort(ids);
+        assertArrayEquals(new long[]{1, 2, 3}, ids);
+        for (long id : ids) {
+            List<Long> friends = new ArrayList<>();
+            int count = storage.forEachFriendId(id, friends::add);
+
+            Set<Long> expected = storage.findById(id).orElseThrow().getFriends();
+            assertEquals(expected.size(), count);
+            assertEquals(expected, Set.copyOf(friends));
+        }
+        assertEquals(0, storage.forEachFriendId(4L, friendId -> fail()));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("benchmark")
+class ShardedFilmStorageBenchmark {
+
+    private static final int FILMS = 200_000;
+    private static final int[] CORES = {1, 2, 4, 8, 16, 32};
+
+    @Test
+    void writeAndScanScaling() throws Exception {
+        System.out.printf("Sharded films, %d films, %d CPUs available%n", FILMS,
+                Runtime.getRuntime().availableProcessors());
+        try (ShardedFilmStorage warmup = new ShardedFilmStorage(4, 2)) {
+            ShardedFilmStorageTest.write(warmup, FILMS, 2);
+            warmup.findAll();
+            warmup.getStats();
+            warmup.findPopular(10);
+            warmup.aggregate(new FilmFilter());
+        }
+        for (int cores : CORES) {
+            try (ShardedFilmStorage sharded = new ShardedFilmStorage(Math.max(cores, 2) * 2, cores)) {
+                long writeNanos = ShardedFilmStorageTest.write(sharded, FILMS, cores);
+                long scanNanos = 0;
+                for (int round = 0; round < 10; round++) {
+                    long start = System.nanoTime();
+                    assertEquals(FILMS, sharded.findAll().size());
+                    assertEquals(FILMS, sharded.getStats().getFilms());
+                    assertEquals(10, sharded.findPopular(10).size());
+                    assertEquals(FILMS, sharded.aggregate(new FilmFilter()).getFilms());
+                    if (round >= 5) {
+                        scanNanos += System.nanoTime() - start;
+                    }
+                }
+                System.out.printf("  %2d threads: writes %,d films/s, findAll+stats+popular+aggregate %.1f ms%n",
+                        cores, FILMS * 1_000_000_000L / writeNanos, scanNanos / 1e6 / 5);
+            }
+        }
+    }
+}
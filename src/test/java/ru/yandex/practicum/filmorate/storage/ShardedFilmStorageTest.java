@@ -0,0 +1,184 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedFilmStorageTest {
+
+    private static final int FILMS = 2_000;
+
+    private final List<ShardedFilmStorage> storages = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        storages.forEach(ShardedFilmStorage::close);
+    }
+
+    @Test
+    void fanOut_shouldMatchSinglePartitionStorage() {
+        InMemoryFilmStorage expected = new InMemoryFilmStorage();
+        ShardedFilmStorage sharded = sharded(8, 4);
+        List<Film> batch = new ArrayList<>();
+        for (long id = 1; id <= FILMS; id++) {
+            Film film = film(id);
+            expected.addFilm(film);
+            if (id % 2 == 0) {
+                batch.add(film);
+            } else {
+                sharded.addFilm(film);
+            }
+        }
+        sharded.addFilms(batch);
+        for (long id = 1; id <= FILMS; id += 7) {
+            Film film = sharded.findById(id).orElseThrow();
+            for (long userId = 0; userId < id % 13; userId++) {
+                film.getLikes().add(userId);
+                sharded.recordLike(film);
+                expected.recordLike(film);
+            }
+        }
+
+        assertEquals(FILMS, sharded.size());
+        assertEquals(FILMS + 1, sharded.allocateId());
+        assertEquals(FILMS, sharded.findAll().size());
+        assertEquals(expected.getStats(), sharded.getStats());
+        assertEquals(expected.getHeapFootprint().get("films"), sharded.getHeapFootprint().get("films"));
+        assertEquals(expected.getHeapFootprint().get("likes"), sharded.getHeapFootprint().get("likes"));
+
+        FilmFilter filter = new FilmFilter();
+        filter.setMinLikes(5);
+        filter.setMaxDuration(150);
+        assertEquals(expected.aggregate(filter), sharded.aggregate(filter));
+        assertEquals(expected.search(filter, 25), sharded.search(filter, 25));
+
+        List<Integer> popular = sharded.findPopular(10).stream().map(film -> film.getLikes().size()).toList();
+        List<Integer> expectedPopular = expected.findAll().stream()
+                .map(film -> film.getLikes().size())
+                .sorted(Comparator.reverseOrder())
+                .limit(10)
+                .toList();
+        assertEquals(expectedPopular, popular);
+    }
+
+    @Test
+    void replace_shouldRouteToOwningPartition() {
+        ShardedFilmStorage sharded = sharded(4, 2);
+        Film film = film(42);
+        sharded.addFilm(film);
+        film.getLikes().add(1L);
+        sharded.recordLike(film);
+
+        Film renamed = film(42);
+        renamed.setName("Новое имя");
+        assertTrue(sharded.replace(renamed, 1));
+        assertFalse(sharded.replace(renamed, 1));
+
+        Film stored = sharded.findById(42L).orElseThrow();
+        assertEquals("Новое имя", stored.getName());
+        assertEquals(2, stored.getVersion());
+        assertEquals(1, stored.getLikes().size());
+        assertTrue(sharded.findById(43L).isEmpty());
+    }
+
+    @Test
+    void concurrentWriters_shouldLoseNoFilmsOrLikes() throws Exception {
+        ShardedFilmStorage sharded = sharded(8, 4);
+
+        write(sharded, FILMS, 4);
+
+        assertEquals(FILMS, sharded.size());
+        assertEquals(FILMS, sharded.findAll().size());
+        assertEquals(FILMS, sharded.getStats().getFilms());
+        assertEquals(FILMS, sharded.getStats().getTotalLikes());
+        assertEquals(FILMS, sharded.aggregate(new FilmFilter()).getFilms());
+        for (long id = 1; id <= FILMS; id++) {
+            assertEquals(1, sharded.findById(id).orElseThrow().getLikes().size());
+        }
+    }
+
+    @Test
+    void allocateIds_shouldNeverHandOutAnIdTwice_underConcurrentCallers() throws Exception {
+        ShardedFilmStorage sharded = sharded(4, 2);
+        sharded.addFilm(film(10));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(callers.submit(() -> {
+                    List<Long> ids = new ArrayList<>();
+                    for (int i = 0; i < 500; i++) {
+                        ids.add(sharded.allocateId());
+                        long first = sharded.allocateIds(3);
+                        LongStream.range(first, first + 3).forEach(ids::add);
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                for (Long id : future.get()) {
+                    assertTrue(id > 10 && ids.add(id), "Повторный id " + id);
+                }
+            }
+            assertEquals(4 * 500 * 4, ids.size());
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    static long write(ShardedFilmStorage storage, int films, int threads) throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(writers.submit(() -> {
+                    for (long id = offset + 1; id <= films; id += threads) {
+                        Film film = film(id);
+                        storage.addFilm(film);
+                        film.getLikes().add(id % 100);
+                        storage.recordLike(film);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            writers.shutdown();
+        }
+    }
+
+    private ShardedFilmStorage sharded(int partitions, int parallelism) {
+        ShardedFilmStorage storage = new ShardedFilmStorage(partitions, parallelism);
+        storages.add(storage);
+        return storage;
+    }
+
+    private static Film film(long id) {
+        Film film = new Film();
+        film.setId(id);
+        film.setName("Фильм " + id);
+        film.setReleaseDate(LocalDate.of(1960, 1, 1).plusDays(id * 37 % 20_000));
+        film.setDuration((int) (60 + id % 120));
+        film.setVersion(1);
+        return film;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.Fixtures.user;
+
+class ShardedUserStorageTest {
+
+    private final ShardedUserStorage storage = new ShardedUserStorage(4, 2);
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    void create_shouldKeepEmailAndLoginUnique_acrossPartitions() {
+        IntStream.rangeClosed(1, 100).forEach(i -> storage.create(user(i)));
+
+        assertThrows(ConflictException.class, () -> storage.create(user("USER7@test.com", "other")));
+        assertThrows(ConflictException.class, () -> storage.create(user("other@test.com", "User42")));
+        List<User> rejected = storage.createAll(List.of(user("fresh@test.com", "fresh"),
+                user("user9@test.com", "another")));
+
+        assertEquals(1, rejected.size());
+        assertEquals(101, storage.findAll().size());
+        assertEquals(101, storage.findAll().stream().map(User::getId).distinct().count());
+        assertEquals("user7", storage.findByEmail("user7@test.com").orElseThrow().getLogin());
+        assertEquals(List.of("user1", "user10", "user100"), storage.searchByLoginPrefix("user1", 3).stream()
+                .map(User::getLogin)
+                .toList());
+    }
+
+    @Test
+    void replace_shouldKeepFriendsAndTrackFootprint() {
+        User user = storage.create(user("user@test.com", "login"));
+        user.getFriends().add(42L);
+        storage.recordFriendAdded(user);
+
+        User changed = user("user@test.com", "renamed");
+        changed.setId(user.getId());
+
+        assertTrue(storage.replace(changed, 1));
+        assertFalse(storage.replace(changed, 1));
+        assertEquals(Set.of(42L), storage.findById(user.getId()).orElseThrow().getFriends());
+        assertEquals("renamed", storage.findByLogin("renamed").orElseThrow().getLogin());
+        assertEquals(MemoryEstimates.SET_ENTRY, storage.getHeapFootprint().get("friends"));
+    }
+}
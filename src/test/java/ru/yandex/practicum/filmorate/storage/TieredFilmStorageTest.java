@@ -0,0 +1,133 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmTierStats;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredFilmStorageTest {
+
+    private static final int FILMS = 500;
+
+    @TempDir
+    Path dir;
+
+    private TieredFilmStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new TieredFilmStorage(16, dir.toString(), 4096);
+        for (long id = 1; id <= FILMS; id++) {
+            storage.addFilm(film(id, "Фильм " + id));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        storage.close();
+    }
+
+    @Test
+    void findById_shouldReadColdFilmsFromSegments() {
+        Film film = storage.findById(7L).orElseThrow();
+
+        assertEquals("Фильм 7", film.getName());
+        assertEquals(LocalDate.of(2000, 1, 8), film.getReleaseDate());
+        assertEquals(107, film.getDuration());
+        assertTrue(storage.findById(FILMS + 1L).isEmpty());
+
+        FilmTierStats stats = storage.getTierStats();
+        assertTrue(stats.getHotFilms() <= 16);
+        assertTrue(stats.getSegments() > 1);
+        assertEquals(FILMS, stats.getColdFilms());
+        assertEquals(1, stats.getMisses());
+        assertEquals(FILMS, storage.findAll().size());
+    }
+
+    @Test
+    void likes_shouldSurviveEviction_andDriveRanking() {
+        for (long userId = 1; userId <= 3; userId++) {
+            like(42L, userId);
+        }
+        like(300L, 1L);
+        for (long id = 100; id < 200; id++) {
+            storage.findById(id);
+        }
+
+        assertEquals(3, storage.findById(42L).orElseThrow().getLikes().size());
+        List<Film> popular = storage.findPopular(2);
+        assertEquals(List.of(42L, 300L), popular.stream().map(Film::getId).toList());
+        assertEquals(4, storage.getStats().getTotalLikes());
+    }
+
+    @Test
+    void findAll_shouldPageColdFilms_withSharedLikes() {
+        like(450L, 9L);
+        Collection<Film> all = storage.findAll();
+
+        Set<Long> seen = new HashSet<>();
+        for (Film film : all) {
+            assertTrue(seen.add(film.getId()));
+            assertEquals("Фильм " + film.getId(), film.getName());
+        }
+        assertEquals(FILMS, seen.size());
+        assertEquals(FILMS, all.size());
+        assertEquals(1, all.stream().filter(film -> film.getId() == 450L).findFirst().orElseThrow()
+                .getLikes().size());
+        assertTrue(storage.getTierStats().getHotFilms() <= 16);
+    }
+
+    @Test
+    void close_shouldDeleteOwnScratchSegments_only() throws Exception {
+        TieredFilmStorage other = new TieredFilmStorage(16, dir.toString(), 4096);
+        other.addFilm(film(1L, "Другой"));
+        other.close();
+
+        assertEquals("Фильм 1", storage.findById(1L).orElseThrow().getName());
+        storage.close();
+        try (Stream<Path> left = Files.list(dir)) {
+            assertEquals(0, left.count());
+        }
+        storage = new TieredFilmStorage(16, dir.toString(), 4096);
+    }
+
+    @Test
+    void addFilm_shouldReplaceBodyOfExistingFilm() {
+        storage.addFilm(film(3L, "Новое название"));
+
+        assertEquals("Новое название", storage.findById(3L).orElseThrow().getName());
+        assertEquals(FILMS, storage.size());
+        assertEquals(FILMS + 1, storage.allocateId());
+        assertTrue(storage.getTierStats().getGarbageBytes() > 0);
+    }
+
+    private void like(long filmId, long userId) {
+        Film film = storage.findById(filmId).orElseThrow();
+        if (film.getLikes().add(userId)) {
+            storage.recordLike(film);
+        }
+    }
+
+    private Film film(long id, String name) {
+        Film film = new Film();
+        film.setId(id);
+        film.setName(name);
+        film.setDescription("Описание " + id);
+        film.setReleaseDate(LocalDate.of(2000, 1, 1).plusDays(id));
+        film.setDuration(100 + (int) id);
+        return film;
+    }
+}
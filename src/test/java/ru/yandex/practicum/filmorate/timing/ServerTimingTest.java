@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.yandex.practicum.filmorate.json.CachingJacksonConverter;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "filmorate.timing.enabled=true")
+class ServerTimingTest {
+
+    private static final Pattern METRIC = Pattern.compile("[a-z]+;dur=\\d+\\.\\d{3}");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private List<CachingJacksonConverter> jsonConverters;
+
+    @Test
+    void jsonConverter_shouldBeTimedVariantOnly() {
+        assertEquals(1, jsonConverters.size());
+        assertInstanceOf(TimedJacksonConverter.class, jsonConverters.get(0));
+    }
+
+    @Test
+    void header_shouldBreakDownTimedRequestByPhase() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(ServerTimingFilter.REQUEST_HEADER, "1");
+        String body = "{\"email\":\"timing@test.com\",\"login\":\"timing\",\"birthday\":\"1990-01-01\"}";
+
+        ResponseEntity<String> response = restTemplate.exchange("/users", HttpMethod.POST,
+                new HttpEntity<>(body, headers), String.class);
+
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        assertTrue(response.getBody().contains("\"login\":\"timing\""));
+        String timing = response.getHeaders().getFirst(ServerTimingFilter.RESPONSE_HEADER);
+        assertNotNull(timing);
+        for (String metric : timing.split(", ")) {
+            assertTrue(METRIC.matcher(metric).matches(), metric);
+        }
+        for (String phase : new String[]{"mvc", "json", "validation", "controller", "service", "storage", "total"}) {
+            assertTrue(timing.contains(phase + ";dur="), timing);
+        }
+    }
+
+    @Test
+    void header_shouldBeAbsent_whenRequestIsNotSampled() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/films", String.class);
+
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        assertNull(response.getHeaders().getFirst(ServerTimingFilter.RESPONSE_HEADER));
+    }
+}